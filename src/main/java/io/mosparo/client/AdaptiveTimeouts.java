@@ -0,0 +1,112 @@
+package io.mosparo.client;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Read timeouts that follow the observed latency of each endpoint.
+ * <p>
+ * The latencies of the last successful calls of each endpoint are kept in a fixed-size window. A call which timed out
+ * is kept with the timeout it was given, so the timeouts rise when mosparo slows down instead of only following the
+ * calls fast enough to complete. The responses with an error status are not kept. The timeout of an endpoint is a
+ * percentile of its window multiplied by a safety factor, and bounded by a minimum and a maximum. Until enough
+ * latencies are observed, the maximum is used.
+ */
+public class AdaptiveTimeouts {
+
+    public static final int WINDOW_SIZE = 256;
+    public static final int MIN_SAMPLES = 20;
+
+    // The percentile is computed again after this number of new latencies
+    private static final int RECOMPUTE_INTERVAL = 16;
+
+    private final double percentile;
+    private final double multiplier;
+    private final long minMillis;
+    private final long maxMillis;
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Creates adaptive timeouts set to three times the 99th percentile, between 100 milliseconds and 10 seconds.
+     */
+    public AdaptiveTimeouts() {
+        this(0.99, 3, Duration.ofMillis(100), Duration.ofSeconds(10));
+    }
+
+    /**
+     * Creates adaptive timeouts.
+     *
+     * @param percentile the percentile of the observed latencies, between 0 and 1
+     * @param multiplier the factor applied to the percentile
+     * @param min the minimum timeout
+     * @param max the maximum timeout, used until enough latencies are observed
+     */
+    public AdaptiveTimeouts(double percentile, double multiplier, Duration min, Duration max) {
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException("percentile must be in ]0, 1]");
+        }
+        this.percentile = percentile;
+        this.multiplier = multiplier;
+        this.minMillis = min.toMillis();
+        this.maxMillis = max.toMillis();
+    }
+
+    /**
+     * Records the latency of a successful call.
+     *
+     * @param endpoint the endpoint of the call
+     * @param latencyNanos the latency of the call, in nanoseconds
+     */
+    public void record(String endpoint, long latencyNanos) {
+        windows.computeIfAbsent(endpoint, e -> new Window()).record(latencyNanos / 1_000_000);
+    }
+
+    /**
+     * Records a call which timed out, with the current timeout of its endpoint as latency.
+     *
+     * @param endpoint the endpoint of the call
+     */
+    public void recordTimeout(String endpoint) {
+        windows.computeIfAbsent(endpoint, e -> new Window()).record(getTimeoutMillis(endpoint));
+    }
+
+    /**
+     * @param endpoint the endpoint
+     * @return the current timeout of the endpoint, in milliseconds
+     */
+    public long getTimeoutMillis(String endpoint) {
+        Window window = windows.get(endpoint);
+        return window == null ? maxMillis : window.timeoutMillis;
+    }
+
+    private class Window {
+
+        private final AtomicLongArray latencies = new AtomicLongArray(WINDOW_SIZE);
+        private final AtomicLong count = new AtomicLong();
+        private volatile long timeoutMillis = maxMillis;
+
+        void record(long latencyMillis) {
+            long n = count.getAndIncrement();
+            latencies.set((int) (n % WINDOW_SIZE), latencyMillis);
+            if (n + 1 >= MIN_SAMPLES && (n + 1) % RECOMPUTE_INTERVAL == 0) {
+                timeoutMillis = compute((int) Math.min(n + 1, WINDOW_SIZE));
+            }
+        }
+
+        private long compute(int samples) {
+            long[] sorted = new long[samples];
+            for (int i = 0; i < samples; i++) {
+                sorted[i] = latencies.get(i);
+            }
+            Arrays.sort(sorted);
+            long value = sorted[(int) Math.min(samples - 1, Math.ceil(percentile * samples) - 1)];
+            long timeout = (long) Math.ceil(value * multiplier);
+            return Math.max(minMillis, Math.min(maxMillis, timeout));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package io.mosparo.client;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of concurrent calls of a class of endpoints, so that each class only uses its own share of the
+ * connections.
+ * <p>
+ * A call waits for a permit up to {@code maxWait}, or up to its {@link Deadline} if it expires first, and is otherwise
+ * rejected with a {@link BulkheadFullException}. The permits are granted in arrival order.
+ * <p>
+ * The acquisitions, rejections and waiting times are counted.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final Duration maxWait;
+    private final Semaphore semaphore;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Creates a bulkhead.
+     *
+     * @param name the name of the bulkhead, for the errors and metrics
+     * @param maxConcurrentCalls the maximum number of concurrent calls
+     * @param maxWait the maximum waiting time for a permit, {@link Duration#ZERO} to reject the calls at once
+     */
+    public Bulkhead(String name, int maxConcurrentCalls, Duration maxWait) {
+        if (maxConcurrentCalls <= 0) {
+            throw new IllegalArgumentException("maxConcurrentCalls must be positive");
+        }
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWait = maxWait;
+        this.semaphore = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    /**
+     * Waits for a permit, which must be released once the response is read.
+     *
+     * @param deadline the deadline of the call, or {@code null}
+     * @throws BulkheadFullException if no permit became available within the maximum waiting time
+     * @throws DeadlineExceededException if the deadline expired while waiting
+     * @throws InterruptedIOException if interrupted while waiting
+     */
+    void acquire(Deadline deadline) throws BulkheadFullException, InterruptedIOException {
+        long start = System.nanoTime();
+        long timeout = maxWait.toNanos();
+        boolean deadlineFirst = false;
+        if (deadline != null) {
+            long remaining = deadline.remaining().toNanos();
+            if (remaining < timeout) {
+                timeout = remaining;
+                deadlineFirst = true;
+            }
+        }
+
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(Math.max(timeout, 0), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for bulkhead " + name);
+        }
+
+        long wait = System.nanoTime() - start;
+        totalWaitNanos.add(wait);
+        maxWaitNanos.accumulateAndGet(wait, Math::max);
+        if (acquired) {
+            acquisitions.increment();
+            return;
+        }
+        rejections.increment();
+        if (deadlineFirst) {
+            throw new DeadlineExceededException("Deadline exceeded while waiting for bulkhead " + name);
+        }
+        throw new BulkheadFullException(name);
+    }
+
+    void release() {
+        semaphore.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    /**
+     * @return the number of calls which could start without waiting
+     */
+    public int getAvailablePermits() {
+        return semaphore.availablePermits();
+    }
+
+    /**
+     * @return the number of calls which got a permit
+     */
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    /**
+     * @return the number of calls rejected because no permit became available in time
+     */
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    /**
+     * @return the total time spent waiting for permits, by accepted and rejected calls
+     */
+    public Duration getTotalWaitTime() {
+        return Duration.ofNanos(totalWaitNanos.sum());
+    }
+
+    /**
+     * @return the longest time a call waited for a permit
+     */
+    public Duration getMaxObservedWaitTime() {
+        return Duration.ofNanos(maxWaitNanos.get());
+    }
+}
@@ -0,0 +1,19 @@
+package io.mosparo.client;
+
+/**
+ * Thrown when a call is rejected by a {@link Bulkhead}, because its class of endpoints already uses all its permits.
+ * The request was not sent to mosparo.
+ */
+public class BulkheadFullException extends MosparoException {
+
+    private final String bulkheadName;
+
+    public BulkheadFullException(String bulkheadName) {
+        super("Bulkhead " + bulkheadName + " full.");
+        this.bulkheadName = bulkheadName;
+    }
+
+    public String getBulkheadName() {
+        return bulkheadName;
+    }
+}
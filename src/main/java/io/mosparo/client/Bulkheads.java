@@ -0,0 +1,81 @@
+package io.mosparo.client;
+
+import java.time.Duration;
+
+/**
+ * The {@link Bulkhead}s isolating the verifications from the statistics and health check calls.
+ * <p>
+ * A burst of slow statistics queries then only uses the permits of the statistics, and never delays the verifications
+ * of the users. The connection pool of the {@link org.apache.http.client.HttpClient} should allow at least the sum of
+ * the permits for the route of mosparo, otherwise the calls also wait for connections.
+ *
+ * <pre>
+ * HttpClient httpClient = HttpClientBuilder.create().setMaxConnPerRoute(20).setMaxConnTotal(20).build();
+ * MosparoClientConfig config = MosparoClientConfig.builder().bulkheads(Bulkheads.forPool(20)).build();
+ * </pre>
+ */
+public class Bulkheads {
+
+    private final Bulkhead verification;
+    private final Bulkhead statistic;
+    private final Bulkhead healthCheck;
+
+    /**
+     * Creates bulkheads.
+     *
+     * @param verification the bulkhead of the verifications
+     * @param statistic the bulkhead of the statistics
+     * @param healthCheck the bulkhead of the health checks
+     */
+    public Bulkheads(Bulkhead verification, Bulkhead statistic, Bulkhead healthCheck) {
+        this.verification = verification;
+        this.statistic = statistic;
+        this.healthCheck = healthCheck;
+    }
+
+    /**
+     * Shares a connection pool in favor of the verifications: a quarter of the connections, and at least one, for the
+     * statistics, one for the health checks, and the others for the verifications. Verifications wait up to one second
+     * for a permit, statistics up to 100 milliseconds, and health checks are rejected at once.
+     *
+     * @param maxConnections the number of connections of the pool, at least 3
+     * @return the bulkheads
+     */
+    public static Bulkheads forPool(int maxConnections) {
+        if (maxConnections < 3) {
+            throw new IllegalArgumentException("maxConnections must be at least 3");
+        }
+        int statistic = Math.max(1, maxConnections / 4);
+        return new Bulkheads(
+                new Bulkhead("verification", maxConnections - statistic - 1, Duration.ofSeconds(1)),
+                new Bulkhead("statistic", statistic, Duration.ofMillis(100)),
+                new Bulkhead("healthCheck", 1, Duration.ZERO));
+    }
+
+    public Bulkhead getVerification() {
+        return verification;
+    }
+
+    public Bulkhead getStatistic() {
+        return statistic;
+    }
+
+    public Bulkhead getHealthCheck() {
+        return healthCheck;
+    }
+
+    /**
+     * @param path the path of the endpoint
+     * @return the bulkhead of the endpoint, or {@code null} for an unknown endpoint
+     */
+    Bulkhead forEndpoint(String path) {
+        if (path.endsWith(MosparoDefaultClient.VERIFICATION_API_ENDPOINT)) {
+            return verification;
+        } else if (path.endsWith(MosparoDefaultClient.STATISTIC_BY_DATE_API_ENDPOINT)) {
+            return statistic;
+        } else if (path.endsWith(MosparoDefaultClient.HEALTH_CHECK_API_ENDPOINT)) {
+            return healthCheck;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,250 @@
+package io.mosparo.client;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of concurrent calls to mosparo to a limit which adapts to the observed round-trip times, like TCP
+ * Vegas does for the congestion window.
+ * <p>
+ * The shortest round-trip time observed is taken as the latency without load. When the current round-trip time grows
+ * above it, the calls queue in mosparo: the estimated queue is {@code limit * (1 - minRtt / rtt)}. The limit grows while
+ * this queue is small and the limit is used, and shrinks when it is large, when a call fails with a communication
+ * error, or when mosparo responds with a {@code 429} or server error status. The latency without load is measured again
+ * periodically, so the limit follows a lasting change of mosparo.
+ * <p>
+ * A call over the limit waits up to {@code maxQueueWait}, or up to its {@link Deadline} if it expires first, and is
+ * then shed with a {@link LoadSheddingException}. At most {@code maxQueueLength} calls wait, the others are shed at
+ * once.
+ */
+public class ConcurrencyLimiter {
+
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+    public static final int DEFAULT_MIN_LIMIT = 1;
+    public static final int DEFAULT_MAX_LIMIT = 200;
+    public static final Duration DEFAULT_MAX_QUEUE_WAIT = Duration.ofMillis(100);
+    public static final int DEFAULT_MAX_QUEUE_LENGTH = 100;
+
+    private static final int ALPHA = 3;
+    private static final int BETA = 6;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final int PROBE_INTERVAL = 1000;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final Duration maxQueueWait;
+    private final int maxQueueLength;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private long minRttNanos;
+    private long samples;
+
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder drops = new LongAdder();
+
+    /**
+     * Creates a concurrency limiter with the default settings.
+     */
+    public ConcurrencyLimiter() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT, DEFAULT_MAX_QUEUE_WAIT,
+                DEFAULT_MAX_QUEUE_LENGTH);
+    }
+
+    /**
+     * Creates a concurrency limiter.
+     *
+     * @param initialLimit the limit before any call completed
+     * @param minLimit the minimum limit
+     * @param maxLimit the maximum limit
+     * @param maxQueueWait the maximum waiting time of a call over the limit, {@link Duration#ZERO} to shed it at once
+     * @param maxQueueLength the maximum number of waiting calls
+     */
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, Duration maxQueueWait, int maxQueueLength) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 0 < minLimit <= initialLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueueWait = maxQueueWait;
+        this.maxQueueLength = maxQueueLength;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Waits until the call is under the limit. The call must then be {@linkplain #release(long, boolean) released}.
+     *
+     * @param deadline the deadline of the call, or {@code null}
+     * @throws LoadSheddingException if the call is over the limit and could not wait
+     * @throws DeadlineExceededException if the deadline expired while waiting
+     * @throws InterruptedIOException if interrupted while waiting
+     */
+    void acquire(Deadline deadline) throws LoadSheddingException, InterruptedIOException {
+        lock.lock();
+        try {
+            if (queued == 0 && inFlight < (int) limit) {
+                inFlight++;
+                return;
+            }
+            if (queued >= maxQueueLength) {
+                shed.increment();
+                throw new LoadSheddingException("Concurrency limit reached, call shed.");
+            }
+
+            long timeout = maxQueueWait.toNanos();
+            boolean deadlineFirst = false;
+            if (deadline != null && deadline.remaining().toNanos() < timeout) {
+                timeout = deadline.remaining().toNanos();
+                deadlineFirst = true;
+            }
+            queued++;
+            try {
+                while (inFlight >= (int) limit) {
+                    if (timeout <= 0) {
+                        shed.increment();
+                        if (deadlineFirst) {
+                            throw new DeadlineExceededException("Deadline exceeded while waiting under the concurrency limit");
+                        }
+                        throw new LoadSheddingException("Concurrency limit reached, call shed.");
+                    }
+                    timeout = available.awaitNanos(timeout);
+                }
+                inFlight++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting under the concurrency limit");
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a call without adapting the limit, when its round-trip time is unknown, for example because it was not
+     * sent to mosparo.
+     */
+    void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a call and adapts the limit to its round-trip time.
+     *
+     * @param rttNanos the round-trip time of the call
+     * @param dropped {@code true} if the call failed with a communication error, or mosparo responded that it is
+     *        overloaded
+     */
+    void release(long rttNanos, boolean dropped) {
+        lock.lock();
+        try {
+            int used = inFlight;
+            inFlight--;
+            if (dropped) {
+                drops.increment();
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            } else {
+                update(rttNanos, used);
+            }
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(long rttNanos, int used) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (++samples % PROBE_INTERVAL == 0 || minRttNanos == 0 || rttNanos < minRttNanos) {
+            minRttNanos = rttNanos;
+        }
+
+        double log = Math.max(1, Math.log10(limit));
+        double queue = limit * (1 - (double) minRttNanos / rttNanos);
+        if (queue <= ALPHA * log) {
+            // Only grow a limit which is used, otherwise it would grow without bound under a low load
+            if (used * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + log);
+            }
+        } else if (queue >= BETA * log) {
+            limit = Math.max(minLimit, limit - log);
+        }
+    }
+
+    /**
+     * @return the current limit of concurrent calls
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of calls in progress
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of calls waiting under the limit
+     */
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the shortest recent round-trip time, taken as the latency without load
+     */
+    public Duration getMinRtt() {
+        lock.lock();
+        try {
+            return Duration.ofNanos(minRttNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of shed calls
+     */
+    public long getShed() {
+        return shed.sum();
+    }
+
+    /**
+     * @return the number of calls which failed with a communication error
+     */
+    public long getDrops() {
+        return drops.sum();
+    }
+}
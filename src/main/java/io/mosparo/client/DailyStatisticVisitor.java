@@ -0,0 +1,19 @@
+package io.mosparo.client;
+
+/**
+ * Receives the daily numbers of a statistic response while it is parsed, without materializing them.
+ *
+ * @see MosparoClient#statisticByDate(Integer, java.time.LocalDate, DailyStatisticVisitor)
+ */
+@FunctionalInterface
+public interface DailyStatisticVisitor {
+
+    /**
+     * Visits the numbers of one day.
+     *
+     * @param epochDay the day, as a number of days since 1970-01-01 (see {@link java.time.LocalDate#toEpochDay()})
+     * @param numberOfValidSubmissions the number of valid submissions of the day
+     * @param numberOfSpamSubmissions the number of spam submissions of the day
+     */
+    void visit(long epochDay, int numberOfValidSubmissions, int numberOfSpamSubmissions);
+}
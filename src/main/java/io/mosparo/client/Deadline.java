@@ -0,0 +1,57 @@
+package io.mosparo.client;
+
+import java.time.Duration;
+
+/**
+ * A point in time by which a call must complete, based on {@link System#nanoTime()}.
+ * <p>
+ * The remaining time bounds the connection lease, connect and read timeouts of the HTTP request, and the deadline is
+ * checked before each expensive step of a call.
+ */
+public final class Deadline {
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * @param timeout the time budget of the call
+     * @return a deadline expiring after the given time budget
+     */
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @return the remaining time, zero if the deadline expired
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * @return the remaining time in milliseconds, rounded up, zero if the deadline expired
+     */
+    public long remainingMillis() {
+        long remaining = deadlineNanos - System.nanoTime();
+        return remaining <= 0 ? 0 : (remaining + 999_999) / 1_000_000;
+    }
+
+    /**
+     * Checks the deadline before a step of a call.
+     *
+     * @param step the name of the step, reported in the exception
+     * @throws DeadlineExceededException if the deadline expired
+     */
+    public void check(String step) throws DeadlineExceededException {
+        if (isExpired()) {
+            throw new DeadlineExceededException("Deadline exceeded before " + step);
+        }
+    }
+}
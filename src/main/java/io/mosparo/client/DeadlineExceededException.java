@@ -0,0 +1,14 @@
+package io.mosparo.client;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Thrown when the {@link Deadline} of a call expires before the call completes. Like the timeouts of the HTTP client, it
+ * is a communication error.
+ */
+public class DeadlineExceededException extends InterruptedIOException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
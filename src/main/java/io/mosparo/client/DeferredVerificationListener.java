@@ -0,0 +1,35 @@
+package io.mosparo.client;
+
+/**
+ * Receives the final results of the verifications deferred to a {@link VerificationJournal}.
+ * <p>
+ * A result is delivered at least once: if the process stops between the delivery and the marking of the request as
+ * done, the request is verified and delivered again after the restart.
+ */
+public interface DeferredVerificationListener {
+
+    /**
+     * Called when mosparo returned the result of a deferred verification, and its required fields were verified.
+     *
+     * @param entry the journaled request
+     * @param result the result returned by mosparo
+     */
+    void onVerified(VerificationJournal.Entry entry, VerificationResult result);
+
+    /**
+     * Called when mosparo rejected a deferred verification, or its result could not be trusted.
+     *
+     * @param entry the journaled request
+     * @param exception the error of the verification
+     */
+    void onFailed(VerificationJournal.Entry entry, MosparoException exception);
+
+    /**
+     * Called when a periodic run of a {@link VerificationJournalDrainer} stopped on an error, for example because the
+     * journal could not be read or this listener threw an exception. The pending requests are verified by the next run.
+     *
+     * @param exception the error of the run
+     */
+    default void onDrainFailed(Exception exception) {
+    }
+}
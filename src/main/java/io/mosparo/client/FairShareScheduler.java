@@ -0,0 +1,276 @@
+package io.mosparo.client;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shares the concurrent calls to mosparo between tenants, the mosparo projects identified by their public keys, so a
+ * tenant flooding the verifications, for example under a bot attack, does not delay the calls of the others.
+ * <p>
+ * It is shared by the clients of the tenants, through their {@link MosparoClientConfig}. At most
+ * {@code maxConcurrency} calls run at once, and at most {@code maxPerTenant} of a single tenant. The calls over these
+ * limits wait in a queue per tenant, and the free slots are handed to the queues by deficit round-robin: each tenant
+ * with waiting calls gets in turn as many slots as its weight, {@code 1} by default.
+ * <p>
+ * A call waits up to {@code maxQueueWait}, or up to its {@link Deadline} if it expires first, and is then shed with a
+ * {@link LoadSheddingException}. At most {@code maxQueueLength} calls of a tenant wait, the others are shed at once.
+ *
+ * <pre>
+ * FairShareScheduler scheduler = new FairShareScheduler(40, 10, Duration.ofMillis(200), 50);
+ * scheduler.setWeight(importantPublicKey, 3);
+ * MosparoClientConfig config = MosparoClientConfig.builder().fairShareScheduler(scheduler).build();
+ * </pre>
+ */
+public class FairShareScheduler {
+
+    private final int maxConcurrency;
+    private final int maxPerTenant;
+    private final Duration maxQueueWait;
+    private final int maxQueueLength;
+
+    private final Map<String, Integer> weights = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // The tenants with calls in progress or waiting
+    private final Map<String, Tenant> tenants = new HashMap<>();
+    // The tenants with waiting calls, in their round-robin order
+    private final Deque<Tenant> active = new ArrayDeque<>();
+    private int inFlight;
+    private int queued;
+
+    private final LongAdder shed = new LongAdder();
+
+    /**
+     * Creates a fair-share scheduler.
+     *
+     * @param maxConcurrency the maximum number of concurrent calls of all the tenants
+     * @param maxPerTenant the maximum number of concurrent calls of a tenant
+     * @param maxQueueWait the maximum waiting time of a call, {@link Duration#ZERO} to shed it at once
+     * @param maxQueueLength the maximum number of waiting calls of a tenant
+     */
+    public FairShareScheduler(int maxConcurrency, int maxPerTenant, Duration maxQueueWait, int maxQueueLength) {
+        if (maxPerTenant <= 0 || maxPerTenant > maxConcurrency) {
+            throw new IllegalArgumentException("Limits must satisfy 0 < maxPerTenant <= maxConcurrency");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.maxPerTenant = maxPerTenant;
+        this.maxQueueWait = maxQueueWait;
+        this.maxQueueLength = maxQueueLength;
+    }
+
+    /**
+     * Sets the weight of a tenant, the number of slots it gets in each round when the calls wait.
+     *
+     * @param tenant the public key of the tenant
+     * @param weight the weight, {@code 1} by default
+     */
+    public void setWeight(String tenant, int weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("weight must be positive");
+        }
+        weights.put(tenant, weight);
+    }
+
+    /**
+     * Waits for a slot of the tenant. The call must then be {@linkplain #release(String) released}.
+     *
+     * @param tenant the public key of the tenant
+     * @param deadline the deadline of the call, or {@code null}
+     * @throws LoadSheddingException if the call could not wait for a slot
+     * @throws DeadlineExceededException if the deadline expired while waiting
+     * @throws InterruptedIOException if interrupted while waiting
+     */
+    void acquire(String tenant, Deadline deadline) throws LoadSheddingException, InterruptedIOException {
+        lock.lock();
+        try {
+            Tenant state = tenants.computeIfAbsent(tenant, Tenant::new);
+            if (state.queue.isEmpty() && inFlight < maxConcurrency && state.inFlight < maxPerTenant) {
+                state.inFlight++;
+                inFlight++;
+                return;
+            }
+            if (state.queue.size() >= maxQueueLength) {
+                shed.increment();
+                removeIfIdle(state);
+                throw new LoadSheddingException("Fair share of tenant reached, call shed.");
+            }
+
+            long timeout = maxQueueWait.toNanos();
+            boolean deadlineFirst = false;
+            if (deadline != null && deadline.remaining().toNanos() < timeout) {
+                timeout = deadline.remaining().toNanos();
+                deadlineFirst = true;
+            }
+            Waiter waiter = new Waiter(lock.newCondition());
+            state.queue.addLast(waiter);
+            if (state.queue.size() == 1) {
+                active.addLast(state);
+            }
+            queued++;
+            try {
+                while (!waiter.granted) {
+                    if (timeout <= 0) {
+                        shed.increment();
+                        if (deadlineFirst) {
+                            throw new DeadlineExceededException("Deadline exceeded while waiting for the fair share");
+                        }
+                        throw new LoadSheddingException("Fair share of tenant reached, call shed.");
+                    }
+                    timeout = waiter.condition.awaitNanos(timeout);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (waiter.granted) {
+                    // Interrupted while the slot was handed to the call, which gives it back as it fails
+                    release(tenant);
+                }
+                throw new InterruptedIOException("Interrupted while waiting for the fair share");
+            } finally {
+                if (!waiter.granted) {
+                    state.queue.remove(waiter);
+                    if (state.queue.isEmpty()) {
+                        active.remove(state);
+                        state.deficit = 0;
+                    }
+                    queued--;
+                    removeIfIdle(state);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a call of a tenant, and hands its slot to a waiting call.
+     *
+     * @param tenant the public key of the tenant
+     */
+    void release(String tenant) {
+        lock.lock();
+        try {
+            Tenant state = tenants.get(tenant);
+            state.inFlight--;
+            inFlight--;
+            removeIfIdle(state);
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands the free slots to the waiting calls by deficit round-robin, skipping the tenants at their limit.
+     */
+    private void dispatch() {
+        int skipped = 0;
+        while (inFlight < maxConcurrency && !active.isEmpty() && skipped < active.size()) {
+            Tenant state = active.peekFirst();
+            if (state.inFlight >= maxPerTenant) {
+                active.addLast(active.pollFirst());
+                skipped++;
+                continue;
+            }
+            skipped = 0;
+            if (state.deficit <= 0) {
+                state.deficit += weights.getOrDefault(state.id, 1);
+            }
+
+            Waiter waiter = state.queue.pollFirst();
+            waiter.granted = true;
+            waiter.condition.signal();
+            state.inFlight++;
+            inFlight++;
+            queued--;
+            state.deficit--;
+
+            if (state.queue.isEmpty()) {
+                active.pollFirst();
+                state.deficit = 0;
+            } else if (state.deficit <= 0) {
+                active.addLast(active.pollFirst());
+            }
+        }
+    }
+
+    private void removeIfIdle(Tenant state) {
+        if (state.inFlight == 0 && state.queue.isEmpty()) {
+            tenants.remove(state.id);
+        }
+    }
+
+    /**
+     * @return the number of calls in progress
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param tenant the public key of a tenant
+     * @return the number of calls of the tenant in progress
+     */
+    public int getInFlight(String tenant) {
+        lock.lock();
+        try {
+            Tenant state = tenants.get(tenant);
+            return state != null ? state.inFlight : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of waiting calls
+     */
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of shed calls
+     */
+    public long getShed() {
+        return shed.sum();
+    }
+
+    private static final class Tenant {
+
+        final String id;
+        final Deque<Waiter> queue = new ArrayDeque<>();
+        int inFlight;
+        int deficit;
+
+        Tenant(String id) {
+            this.id = id;
+        }
+    }
+
+    private static final class Waiter {
+
+        final Condition condition;
+        boolean granted;
+
+        Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
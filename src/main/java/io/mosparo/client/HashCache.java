@@ -0,0 +1,206 @@
+package io.mosparo.client;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A bounded, concurrent cache of the hashes of form field values.
+ * <p>
+ * Selects, checkboxes or hidden fields only have a handful of distinct values, so their hashes can be computed once and
+ * reused for every submission. A value is cached when its field is one of the configured field names, or when it is not
+ * longer than the configured maximum length.
+ * <p>
+ * Values longer than {@value #MAX_CACHEABLE_LENGTH} characters are never cached, whatever their field.
+ * <p>
+ * Once {@code maxEntries} values are cached, a new value replaces a cached one chosen by a clock (second-chance)
+ * eviction: a value found in the cache since the clock hand last passed it is kept for another round, so the frequent
+ * values stay cached, and the values seen once, such as the junk of bots, replace each other. The lookups are lock-free;
+ * a miss stores its value only if no other miss is storing one at the same time.
+ * <p>
+ * The hit, miss and eviction counters allow to tune the configuration: a low hit rate with many evictions calls for more
+ * entries, or for fewer cached fields.
+ */
+public class HashCache {
+
+    public static final int MAX_CACHEABLE_LENGTH = 1024;
+
+    private final int maxEntries;
+    private final Set<String> fieldNames;
+    private final int maxValueLength;
+
+    private final ConcurrentMap<String, Entry> hashes = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // The cached values in the order of the clock, guarded by the lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final String[] clock;
+    private int hand;
+    private int filled;
+
+    /**
+     * Creates a hash cache.
+     *
+     * @param maxEntries the maximum number of cached values
+     * @param fieldNames the names of the fields whose values are cached, whatever their length
+     * @param maxValueLength the maximum length of the values cached for any field, {@code 0} to only cache the values of
+     *        {@code fieldNames}
+     */
+    public HashCache(int maxEntries, Set<String> fieldNames, int maxValueLength) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.clock = new String[maxEntries];
+        this.fieldNames = Set.copyOf(fieldNames);
+        this.maxValueLength = maxValueLength;
+    }
+
+    /**
+     * Creates a hash cache for the values of the given fields.
+     *
+     * @param maxEntries the maximum number of cached values
+     * @param fieldNames the names of the fields whose values are cached
+     * @return the hash cache
+     */
+    public static HashCache forFields(int maxEntries, Set<String> fieldNames) {
+        return new HashCache(maxEntries, fieldNames, 0);
+    }
+
+    /**
+     * Creates a hash cache for the short values of any field.
+     *
+     * @param maxEntries the maximum number of cached values
+     * @param maxValueLength the maximum length of the cached values
+     * @return the hash cache
+     */
+    public static HashCache forShortValues(int maxEntries, int maxValueLength) {
+        return new HashCache(maxEntries, Set.of(), maxValueLength);
+    }
+
+    boolean isCacheable(String fieldName, String value) {
+        int length = value.length();
+        return length <= MAX_CACHEABLE_LENGTH
+                && (length <= maxValueLength || (fieldName != null && fieldNames.contains(fieldName)));
+    }
+
+    String getHash(String value, Function<String, String> hashFunction) {
+        Entry entry = hashes.get(value);
+        if (entry != null) {
+            hits.increment();
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry.hash;
+        }
+
+        misses.increment();
+        String hash = hashFunction.apply(value);
+        // Under contention the value is not stored, the lookups never wait
+        if (lock.tryLock()) {
+            try {
+                store(value, hash);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return hash;
+    }
+
+    private void store(String value, String hash) {
+        if (hashes.containsKey(value)) {
+            return;
+        }
+        int slot;
+        if (filled < maxEntries) {
+            slot = filled++;
+        } else {
+            // Gives a second chance to the values found since the last round, at most one round is skipped
+            Entry candidate;
+            while ((candidate = hashes.get(clock[hand])).referenced) {
+                candidate.referenced = false;
+                hand = (hand + 1) % maxEntries;
+            }
+            slot = hand;
+            hand = (hand + 1) % maxEntries;
+            hashes.remove(clock[slot]);
+            evictions.increment();
+        }
+        clock[slot] = value;
+        hashes.put(value, new Entry(hash));
+    }
+
+    /**
+     * @return the number of values whose hash was found in the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of values whose hash had to be computed
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of cached values replaced by new values
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the ratio of hits over all the lookups, {@code 0} if there was no lookup yet
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * @return the number of cached values
+     */
+    public int size() {
+        return hashes.size();
+    }
+
+    /**
+     * Removes all the cached values and resets the counters.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            hashes.clear();
+            Arrays.fill(clock, null);
+            hand = 0;
+            filled = 0;
+        } finally {
+            lock.unlock();
+        }
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * A cached hash, and whether it was found since the clock hand last passed it.
+     */
+    private static final class Entry {
+
+        final String hash;
+        volatile boolean referenced;
+
+        Entry(String hash) {
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.mosparo.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+/**
+ * Lower-case hexadecimal encoding of the digests, and constant-time comparison of the hexadecimal signatures.
+ * <p>
+ * The strings are encoded by {@link HexFormat}, which creates them from its Latin-1 bytes without any copy, unlike the
+ * {@code char[]} of {@code Hex.encodeHexString}. The digits written into a buffer, such as the credentials of the
+ * {@code Authorization} header, are taken two at a time from a table of the 256 byte values.
+ */
+final class HexCodec {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    // The two digits of each byte value
+    private static final byte[] DIGIT_PAIRS = new byte[512];
+
+    static {
+        byte[] digits = "0123456789abcdef".getBytes(StandardCharsets.ISO_8859_1);
+        for (int i = 0; i < 256; i++) {
+            DIGIT_PAIRS[2 * i] = digits[i >>> 4];
+            DIGIT_PAIRS[2 * i + 1] = digits[i & 0xf];
+        }
+    }
+
+    private HexCodec() {
+    }
+
+    /**
+     * @param bytes the bytes to encode
+     * @return the lower-case hexadecimal representation of the bytes
+     */
+    static String encode(byte[] bytes) {
+        return HEX.formatHex(bytes);
+    }
+
+    /**
+     * Writes the lower-case hexadecimal representation of bytes, as Latin-1 or ASCII bytes.
+     *
+     * @param bytes the bytes to encode
+     * @param out the output buffer
+     * @param offset the position of the first digit in the output buffer
+     * @return the position after the last digit
+     */
+    static int encode(byte[] bytes, byte[] out, int offset) {
+        for (byte b : bytes) {
+            int pair = (b & 0xff) << 1;
+            out[offset++] = DIGIT_PAIRS[pair];
+            out[offset++] = DIGIT_PAIRS[pair + 1];
+        }
+        return offset;
+    }
+
+    /**
+     * Compares two hexadecimal signatures in a time which only depends on their length, so the time of a failed
+     * comparison does not reveal how many leading digits of a forged signature are right.
+     *
+     * @param expected the expected signature
+     * @param actual the received signature, or {@code null}
+     * @return {@code true} if the signatures are equal
+     */
+    static boolean equalsConstantTime(String expected, String actual) {
+        if (actual == null || expected.length() != actual.length()) {
+            return false;
+        }
+        int difference = 0;
+        for (int i = 0; i < expected.length(); i++) {
+            difference |= expected.charAt(i) ^ actual.charAt(i);
+        }
+        return difference == 0;
+    }
+}
@@ -0,0 +1,26 @@
+package io.mosparo.client;
+
+/**
+ * Thrown when mosparo responds with another status than {@code 200 OK}. The message is the reason phrase of the
+ * response.
+ */
+public class HttpStatusException extends MosparoException {
+
+    private final int statusCode;
+
+    public HttpStatusException(int statusCode, String reasonPhrase) {
+        super(reasonPhrase);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return {@code true} if the status tells that mosparo is overloaded or unavailable, {@code 429} or a server error
+     */
+    public boolean isOverload() {
+        return statusCode == 429 || statusCode >= 500;
+    }
+}
@@ -0,0 +1,12 @@
+package io.mosparo.client;
+
+/**
+ * Thrown when a call is shed by a {@link ConcurrencyLimiter}, because mosparo already handles as many calls as it can
+ * and the call could not wait for a slot. The request was not sent to mosparo.
+ */
+public class LoadSheddingException extends MosparoException {
+
+    public LoadSheddingException(String message) {
+        super(message);
+    }
+}
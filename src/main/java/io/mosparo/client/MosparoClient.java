@@ -62,6 +62,50 @@ public interface MosparoClient {
     VerificationResult verifySubmission(Map<String, Object> formData, Set<String> requiredFields)
             throws IOException, MosparoException;
 
+    /**
+     * Performs backend verification of a form protected by mosparo and checks the required fields, within a time budget.
+     * <p>
+     * The deadline is checked before each expensive step, and bounds the timeouts of the communication with mosparo.
+     *
+     * @param formData The form data, included the mosparo fields
+     * @param requiredFields The list of fields to check to ensure the protection is not bypassed
+     * @param deadline The deadline of the call, {@code null} for no deadline
+     * @return the result of the verification process
+     * @throws DeadlineExceededException if the deadline expires before the verification completes
+     * @throws IOException if a communication error occurs
+     * @throws MosparoException if the verification fails, if the signatures do not match, or if the protection is being
+     *         bypassed
+     * @see #verifySubmission(Map, Set)
+     */
+    default VerificationResult verifySubmission(Map<String, Object> formData, Set<String> requiredFields, Deadline deadline)
+            throws IOException, MosparoException {
+        if (deadline != null) {
+            deadline.check("verification");
+        }
+        return verifySubmission(formData, requiredFields);
+    }
+
+    /**
+     * Performs backend verification of a form protected by mosparo, using the multi-valued request parameters as form
+     * data, for example the map returned by {@code ServletRequest.getParameterMap()}.
+     * <p>
+     * A parameter with a single value is verified as a String, a parameter with several values as a list. The default
+     * implementation copies the parameters into form data with {@link RequestHelper#toFormData(Map)}, the
+     * {@link MosparoDefaultClient} hashes them in place.
+     *
+     * @param parameters The request parameters, included the mosparo fields
+     * @param requiredFields The list of fields to check to ensure the protection is not bypassed
+     * @return the result of the verification process
+     * @throws IOException if a communication error occurs
+     * @throws MosparoException if the verification fails, if the signatures do not match, or if the protection is being
+     *         bypassed
+     * @see #verifySubmission(Map, Set)
+     */
+    default VerificationResult verifySubmissionParameters(Map<String, String[]> parameters, Set<String> requiredFields)
+            throws IOException, MosparoException {
+        return verifySubmission(RequestHelper.toFormData(parameters), requiredFields);
+    }
+
     /**
      * Returns the exact numbers of how many spam and valid submissions your project received in the specified time range.
      *
@@ -78,6 +122,53 @@ public interface MosparoClient {
      */
     StatisticResult statisticByDate(Integer range, LocalDate startDate) throws IOException, MosparoException;
 
+    /**
+     * Returns the exact numbers of how many spam and valid submissions your project received in the specified time range,
+     * streaming the daily numbers to a visitor instead of materializing them.
+     * <p>
+     * The default implementation visits the days of {@link #statisticByDate(Integer, LocalDate)}, the
+     * {@link MosparoDefaultClient} parses them from the response as it is read.
+     *
+     * @param range The number of seconds for which mosparo should return the statistics. If {@code null}, all data from the
+     *        last 14 days are used.
+     * @param startDate Defines the starting date from which mosparo should return the statistics.
+     * @param visitor the visitor receiving the numbers of each day, in the order of the response
+     * @return the total numbers of spam and valid submissions
+     * @throws IOException if a communication error occurs
+     * @throws MosparoException if mosparo returns an error
+     * @see #statisticByDate(Integer, LocalDate)
+     */
+    default StatisticResult.Statistic statisticByDate(Integer range, LocalDate startDate, DailyStatisticVisitor visitor)
+            throws IOException, MosparoException {
+        StatisticResult result = statisticByDate(range, startDate);
+        if (result.hasError()) {
+            throw new MosparoException(result.getErrorMessage());
+        }
+        StatisticResult.StatisticData data = result.getData();
+        if (data.getNumbersByDate() != null) {
+            data.getNumbersByDate().forEach((date, statistic) -> visitor.visit(date.toEpochDay(),
+                    statistic.getNumberOfValidSubmissions(), statistic.getNumberOfSpamSubmissions()));
+        }
+        return new StatisticResult.Statistic(data.getNumberOfValidSubmissions(), data.getNumberOfSpamSubmissions());
+    }
+
+    /**
+     * Returns the daily numbers of spam and valid submissions your project received in the specified time range, as a
+     * compact {@link StatisticSeries}.
+     *
+     * @param range The number of seconds for which mosparo should return the statistics. If {@code null}, all data from the
+     *        last 14 days are used.
+     * @param startDate Defines the starting date from which mosparo should return the statistics.
+     * @return the daily numbers of spam and valid submissions
+     * @throws IOException if a communication error occurs
+     * @throws MosparoException if mosparo returns an error
+     */
+    default StatisticSeries statisticSeriesByDate(Integer range, LocalDate startDate) throws IOException, MosparoException {
+        StatisticSeries.Builder builder = StatisticSeries.builder();
+        statisticByDate(range, startDate, builder);
+        return builder.build();
+    }
+
     /**
      * Checks the health status of mosparo and returns the relevant information
      *
@@ -0,0 +1,119 @@
+package io.mosparo.client;
+
+import java.time.Duration;
+
+import org.apache.http.client.config.RequestConfig;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Optional settings of a {@link MosparoDefaultClient}.
+ * <p>
+ * Every setting is disabled by default, so {@link #DEFAULT} behaves like a client created without configuration.
+ *
+ * <pre>
+ * MosparoClientConfig config = MosparoClientConfig.builder()
+ *         .hashCache(HashCache.forShortValues(1000, 32))
+ *         .build();
+ * </pre>
+ */
+@Value
+@Builder(toBuilder = true)
+public class MosparoClientConfig {
+
+    public static final MosparoClientConfig DEFAULT = MosparoClientConfig.builder().build();
+
+    /**
+     * Cache of the hashes of low-cardinality field values, {@code null} to hash every value.
+     */
+    HashCache hashCache;
+
+    /**
+     * Pre-validation of the submissions before any hashing or communication with mosparo, {@code null} to disable it.
+     */
+    SubmissionPreValidator preValidator;
+
+    /**
+     * Rejection of the submit tokens already used, shared by the JVMs of a host, {@code null} to let mosparo reject them.
+     */
+    ReplayGuard replayGuard;
+
+    /**
+     * Base configuration of the requests whose timeouts are bounded by a {@link Deadline} or by the adaptive timeouts,
+     * {@code null} to use {@link org.apache.http.client.config.RequestConfig#DEFAULT}.
+     * <p>
+     * A request configuration replaces the default configuration of the {@link org.apache.http.client.HttpClient}, so it
+     * should repeat its settings, for example a proxy.
+     */
+    RequestConfig requestConfig;
+
+    /**
+     * Read timeouts following the observed latency of each endpoint, {@code null} to disable them.
+     */
+    AdaptiveTimeouts adaptiveTimeouts;
+
+    /**
+     * Limits of the size of the responses, {@code null} to read responses of any size.
+     */
+    ResponseLimits responseLimits;
+
+    /**
+     * Gzip compression of the large verification request bodies, {@code null} to send every body uncompressed.
+     * <p>
+     * The compression of the responses is negotiated by the {@link org.apache.http.client.HttpClient}, which is the
+     * default of the clients created by {@link org.apache.http.impl.client.HttpClientBuilder}.
+     */
+    RequestCompression requestCompression;
+
+    /**
+     * Separate concurrency limits for the verifications, the statistics and the health checks, {@code null} to share the
+     * connections without limits.
+     */
+    Bulkheads bulkheads;
+
+    /**
+     * Limit of the concurrent calls adapting to the round-trip times of mosparo, {@code null} to disable it.
+     */
+    ConcurrencyLimiter concurrencyLimiter;
+
+    /**
+     * Fair sharing of the concurrent calls between the clients of several mosparo projects, {@code null} to disable it.
+     */
+    FairShareScheduler fairShareScheduler;
+
+    /**
+     * Journal of the verifications failing with a communication error, to verify them later with a
+     * {@link VerificationJournalDrainer}, {@code null} to throw the communication errors.
+     */
+    VerificationJournal verificationJournal;
+
+    /**
+     * Listener of the time spent in each phase of the verifications, {@code null} to not measure them.
+     */
+    VerificationTimingListener timingListener;
+
+    /**
+     * Decoder of the responses, for example a {@link StreamingResponseCodec}, {@code null} to bind every response with
+     * Jackson.
+     */
+    ResponseCodec responseCodec;
+
+    /**
+     * Maximum idle time of the connections of the {@link org.apache.http.client.HttpClient} created by the client,
+     * {@code null} for {@link MosparoDefaultClient#DEFAULT_CONNECTION_MAX_IDLE_TIME}. A provided HTTP client keeps its
+     * own eviction, for example {@link org.apache.http.impl.client.HttpClientBuilder#evictIdleConnections}.
+     */
+    Duration connectionMaxIdleTime;
+
+    /**
+     * Counters of the outcomes of the verifications of the client, {@code null} to not count them.
+     */
+    OutcomeCounters outcomeCounters;
+
+    /**
+     * The form id under which the verifications are counted in the {@link #outcomeCounters}, {@code null} for the public
+     * key of the client.
+     */
+    String outcomeFormId;
+}
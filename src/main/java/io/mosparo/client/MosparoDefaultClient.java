@@ -1,38 +1,93 @@
 package io.mosparo.client;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.net.SocketTimeoutException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.util.EntityUtils;
 
+import com.fasterxml.jackson.core.JsonParser;
+
 /**
  * Default implementation of the {@code MosparoClient} interface.
  * Provides concrete methods to interact with the Mosparo API.
+ * <p>
+ * A client created without an {@link HttpClient} owns the one it creates: a background thread evicts its expired and
+ * idle connections, and {@link #close()} releases it once the calls in progress complete. A provided
+ * {@link HttpClient} is left open, it is closed by its owner.
  */
-public class MosparoDefaultClient implements MosparoClient {
+public class MosparoDefaultClient implements MosparoClient, Closeable {
 
     public static final String VERIFICATION_API_ENDPOINT = "/api/v1/verification/verify";
     public static final String STATISTIC_BY_DATE_API_ENDPOINT = "/api/v1/statistic/by-date";
     public static final String HEALTH_CHECK_API_ENDPOINT = "/api/v1/health/check";
 
+    /**
+     * The maximum idle time of the connections of the {@link HttpClient} created by the client, unless configured.
+     */
+    public static final Duration DEFAULT_CONNECTION_MAX_IDLE_TIME = Duration.ofSeconds(30);
+
+    /**
+     * How long {@link #close()} waits for the calls in progress.
+     */
+    public static final Duration DEFAULT_DRAIN_TIMEOUT = Duration.ofSeconds(10);
+
     private final String url;
     private final HttpClient httpClient;
-    private final RequestHelper helper;
+    private final AtomicReference<Signing> signing;
+    private final SubmissionPreValidator preValidator;
+    private final ReplayGuard replayGuard;
+    private final RequestConfig requestConfig;
+    private final AdaptiveTimeouts adaptiveTimeouts;
+    private final ResponseLimits responseLimits;
+    private final RequestCompression requestCompression;
+    private final Bulkheads bulkheads;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final FairShareScheduler fairShareScheduler;
+    // The tenant of the fair share scheduler, the public key the client was created with
+    private final String tenant;
+    private final VerificationJournal verificationJournal;
+    private final VerificationTimingListener timingListener;
+    private final ResponseCodec responseCodec;
+    private final OutcomeCounters outcomeCounters;
+    private final String outcomeFormId;
+
+    // The HTTP client created by the client, released on close
+    private final CloseableHttpClient ownedHttpClient;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Condition drained = drainLock.newCondition();
+    private volatile boolean closed;
+    private Thread shutdownHook;
 
     /**
      * Creates a mosparo client, using a default {@link HttpClient}
@@ -42,7 +97,19 @@ public class MosparoDefaultClient implements MosparoClient {
      * @param privateKey the private key of the mosparo project
      */
     public MosparoDefaultClient(String url, String publicKey, String privateKey) {
-        this(url, publicKey, privateKey, HttpClientBuilder.create().build());
+        this(url, publicKey, privateKey, MosparoClientConfig.DEFAULT);
+    }
+
+    /**
+     * Creates a mosparo client, using a default {@link HttpClient} released by {@link #close()}
+     *
+     * @param url Url of the mosparo server
+     * @param publicKey the public key of the mosparo project
+     * @param privateKey the private key of the mosparo project
+     * @param config the optional settings of the client
+     */
+    public MosparoDefaultClient(String url, String publicKey, String privateKey, MosparoClientConfig config) {
+        this(url, publicKey, privateKey, createHttpClient(config), config, true);
     }
 
     /**
@@ -54,23 +121,159 @@ public class MosparoDefaultClient implements MosparoClient {
      * @param httpClient HttpClient the client will use
      */
     public MosparoDefaultClient(String url, String publicKey, String privateKey, HttpClient httpClient) {
+        this(url, publicKey, privateKey, httpClient, MosparoClientConfig.DEFAULT);
+    }
+
+    /**
+     * Creates a mosparo client, using the provided {@link HttpClient} and configuration
+     *
+     * @param url Url of the mosparo server
+     * @param publicKey the public key of the mosparo project
+     * @param privateKey the private key of the mosparo project
+     * @param httpClient HttpClient the client will use
+     * @param config the optional settings of the client
+     */
+    public MosparoDefaultClient(String url, String publicKey, String privateKey, HttpClient httpClient,
+            MosparoClientConfig config) {
+        this(url, publicKey, privateKey, httpClient, config, false);
+    }
+
+    private MosparoDefaultClient(String url, String publicKey, String privateKey, HttpClient httpClient,
+            MosparoClientConfig config, boolean owned) {
         this.httpClient = httpClient;
+        this.ownedHttpClient = owned ? (CloseableHttpClient) httpClient : null;
         this.url = url;
-        this.helper = new RequestHelper(publicKey, privateKey);
+        this.signing = new AtomicReference<>(
+                new Signing(new RequestHelper(publicKey, privateKey, config.getHashCache()), null, 0));
+        this.preValidator = config.getPreValidator();
+        this.replayGuard = config.getReplayGuard();
+        this.requestConfig = config.getRequestConfig() != null ? config.getRequestConfig() : RequestConfig.DEFAULT;
+        this.adaptiveTimeouts = config.getAdaptiveTimeouts();
+        this.responseLimits = config.getResponseLimits();
+        this.requestCompression = config.getRequestCompression();
+        this.bulkheads = config.getBulkheads();
+        this.concurrencyLimiter = config.getConcurrencyLimiter();
+        this.fairShareScheduler = config.getFairShareScheduler();
+        this.tenant = publicKey;
+        this.verificationJournal = config.getVerificationJournal();
+        this.timingListener = config.getTimingListener();
+        this.responseCodec = config.getResponseCodec();
+        this.outcomeCounters = config.getOutcomeCounters();
+        this.outcomeFormId = config.getOutcomeFormId() != null ? config.getOutcomeFormId() : publicKey;
     }
 
+    private static CloseableHttpClient createHttpClient(MosparoClientConfig config) {
+        Duration maxIdleTime = config.getConnectionMaxIdleTime() != null ? config.getConnectionMaxIdleTime()
+                : DEFAULT_CONNECTION_MAX_IDLE_TIME;
+        // The connections closed by mosparo while idle are evicted before they fail a call with a NoHttpResponseException
+        return HttpClientBuilder.create()
+                .evictExpiredConnections()
+                .evictIdleConnections(maxIdleTime.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Closes the client, waiting up to {@link #DEFAULT_DRAIN_TIMEOUT} for the calls in progress.
+     *
+     * @see #close(Duration)
+     */
     @Override
-    public VerificationResult verifySubmission(Map<String, Object> formData) throws IOException, MosparoException {
+    public void close() throws IOException {
+        close(DEFAULT_DRAIN_TIMEOUT);
+    }
 
-        VerificationRequest request = helper.buildVerificationRequest(formData);
-        HttpPost httpRequest = buildVerificationRequestHttpRequest(request);
+    /**
+     * Closes the client: the new calls are rejected with an {@link IllegalStateException}, the calls in progress are
+     * given up to {@code drainTimeout} to complete, then the {@link HttpClient} created by the client is released,
+     * which aborts the calls still in progress. Closing a closed client waits for the calls in progress again.
+     *
+     * @param drainTimeout how long to wait for the calls in progress
+     * @return {@code true} if the calls in progress completed, {@code false} if some were aborted
+     * @throws IOException if the {@link HttpClient} cannot be released
+     */
+    public boolean close(Duration drainTimeout) throws IOException {
+        closed = true;
+        removeShutdownHook();
 
-        VerificationResult result = execute(httpRequest, VerificationResult.class);
+        boolean completed = true;
+        long remaining = drainTimeout.toNanos();
+        drainLock.lock();
+        try {
+            while (inFlight.get() > 0) {
+                if (remaining <= 0) {
+                    completed = false;
+                    break;
+                }
+                remaining = drained.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            completed = inFlight.get() == 0;
+        } finally {
+            drainLock.unlock();
+        }
 
-        if (result.hasError()) {
-            throw new MosparoException(result.getErrorMessage());
+        if (ownedHttpClient != null) {
+            ownedHttpClient.close();
         }
-        checkSignature(request, result);
+        return completed;
+    }
+
+    /**
+     * Closes the client when the JVM shuts down, for the applications without a container managing its lifecycle.
+     * The hook is removed when the client is closed.
+     *
+     * @param drainTimeout how long the shutdown waits for the calls in progress
+     */
+    public synchronized void registerShutdownHook(Duration drainTimeout) {
+        if (shutdownHook != null || closed) {
+            return;
+        }
+        shutdownHook = new Thread(() -> {
+            try {
+                close(drainTimeout);
+            } catch (IOException e) {
+                // The JVM is shutting down
+            }
+        }, "mosparo-client-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    private synchronized void removeShutdownHook() {
+        if (shutdownHook != null && shutdownHook != Thread.currentThread()) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // The JVM is already shutting down
+            }
+        }
+        shutdownHook = null;
+    }
+
+    /**
+     * @return {@code true} if the client is closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return the number of calls in progress
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public VerificationResult verifySubmission(Map<String, Object> formData) throws IOException, MosparoException {
+        if (preValidator != null) {
+            preValidator.validate(formData, Set.of());
+        }
+        String guardedToken = guardReplay(formData.get(RequestHelper.MOSPARO_SUBMIT_TOKEN_KEY));
+        VerificationTimings timings = startTimings();
+        VerificationResult result = verifyOrDefer(helper -> helper.buildVerificationRequest(formData), Set.of(), null,
+                timings, guardedToken);
+        recordOutcome(result);
 
         return result;
     }
@@ -78,28 +281,378 @@ public class MosparoDefaultClient implements MosparoClient {
     @Override
     public VerificationResult verifySubmission(Map<String, Object> formData, Set<String> requiredFields)
             throws IOException, MosparoException {
-        if (requiredFields == null || requiredFields.isEmpty()) {
-            throw new MosparoException("Required fields must be non null and non empty");
+        return verifySubmission(formData, requiredFields, null);
+    }
+
+    @Override
+    public VerificationResult verifySubmission(Map<String, Object> formData, Set<String> requiredFields,
+            Deadline deadline) throws IOException, MosparoException {
+        checkRequiredFieldsArgument(requiredFields);
+        if (preValidator != null) {
+            preValidator.validate(formData, requiredFields);
         }
+        if (deadline != null) {
+            deadline.check("buildVerificationRequest");
+        }
+        String guardedToken = guardReplay(formData.get(RequestHelper.MOSPARO_SUBMIT_TOKEN_KEY));
 
-        VerificationResult result = verifySubmission(formData);
+        VerificationTimings timings = startTimings();
+        VerificationResult result = verifyOrDefer(helper -> helper.buildVerificationRequest(formData),
+                requiredFields, deadline, timings, guardedToken);
         checkRequiredFields(result, requiredFields);
+        recordOutcome(result);
 
         return result;
     }
 
     @Override
-    public StatisticResult statisticByDate(Integer range, LocalDate startDate) throws IOException, MosparoException {
-        HttpGet httpRequest = buildStatisticByDateHttpRequest(range, startDate);
+    public VerificationResult verifySubmissionParameters(Map<String, String[]> parameters, Set<String> requiredFields)
+            throws IOException, MosparoException {
+        checkRequiredFieldsArgument(requiredFields);
+        if (preValidator != null) {
+            preValidator.validateParameters(parameters, requiredFields);
+        }
+        String[] submitTokens = parameters.get(RequestHelper.MOSPARO_SUBMIT_TOKEN_KEY);
+        String guardedToken = guardReplay(submitTokens != null && submitTokens.length == 1 ? submitTokens[0] : null);
+
+        VerificationTimings timings = startTimings();
+        VerificationResult result = verifyOrDefer(helper -> helper.buildVerificationRequestFromParameters(parameters),
+                requiredFields, null, timings, guardedToken);
+        checkRequiredFields(result, requiredFields);
+        recordOutcome(result);
+
+        return result;
+    }
+
+    /**
+     * Prepares a verification without sending it: the form data is hashed, and the request is serialized, compressed
+     * and signed. The pre-validation and the replay guard run here, before any hashing. The submit token recorded by the
+     * replay guard is released if the verification cannot be prepared, not if the prepared verification is never sent.
+     *
+     * @param formData the form data, included the mosparo fields
+     * @param requiredFields the fields to check on the result, to ensure the protection is not bypassed
+     * @return the prepared verification, to send with {@link #send(PreparedVerification)}
+     * @throws MosparoException if the form data is not valid
+     */
+    public PreparedVerification prepare(Map<String, Object> formData, Set<String> requiredFields)
+            throws MosparoException {
+        checkRequiredFieldsArgument(requiredFields);
+        if (preValidator != null) {
+            preValidator.validate(formData, requiredFields);
+        }
+        // Not released on communication errors, a prepared verification is meant to be sent again
+        String guardedToken = guardReplay(formData.get(RequestHelper.MOSPARO_SUBMIT_TOKEN_KEY));
+
+        RequestHelper helper = helper();
+        try {
+            VerificationRequest request = helper.buildVerificationRequest(formData);
+            String body = helper.toJson(request);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            boolean compressed = requestCompression != null && requestCompression.shouldCompress(bytes);
+            return new PreparedVerification(request, Set.copyOf(requiredFields),
+                    compressed ? requestCompression.compress(bytes) : bytes, compressed,
+                    helper.generateAuthHeaderValue(VERIFICATION_API_ENDPOINT, body));
+        } catch (MosparoException | RuntimeException e) {
+            // The verification could not be prepared, it will not be sent
+            releaseReplay(guardedToken);
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a prepared verification, and checks its result. A prepared verification can be sent again, for example
+     * after a communication error. The verification journal is not used, the caller decides to retry.
+     *
+     * @param prepared the prepared verification
+     * @return the result of the verification
+     * @throws IOException if a communication error occurs
+     * @throws MosparoException if the verification fails, if the signatures do not match, or if the protection is being
+     *         bypassed
+     */
+    public VerificationResult send(PreparedVerification prepared) throws IOException, MosparoException {
+        return send(prepared, null);
+    }
+
+    /**
+     * Sends a prepared verification within a time budget, and checks its result.
+     *
+     * @param prepared the prepared verification
+     * @param deadline the deadline of the call, {@code null} for no deadline
+     * @return the result of the verification
+     * @throws DeadlineExceededException if the deadline expires before the verification completes
+     * @throws IOException if a communication error occurs
+     * @throws MosparoException if the verification fails, if the signatures do not match, or if the protection is being
+     *         bypassed
+     * @see #send(PreparedVerification)
+     */
+    public VerificationResult send(PreparedVerification prepared, Deadline deadline)
+            throws IOException, MosparoException {
+        HttpPost httpRequest = new HttpPost(url + VERIFICATION_API_ENDPOINT);
+        ByteArrayEntity entity = new ByteArrayEntity(prepared.getBody());
+        if (prepared.isCompressed()) {
+            entity.setContentEncoding("gzip");
+        }
+        httpRequest.setEntity(entity);
+        setHeaders(httpRequest, prepared.getAuthorization());
+
+        VerificationResult result = execute(httpRequest, VerificationResult.class, deadline);
+
+        if (result.hasError()) {
+            throw new MosparoException(result.getErrorMessage());
+        }
+        checkSignature(prepared.getRequest(), result);
+        checkRequiredFields(result, prepared.getRequiredFields());
+        recordOutcome(result);
+
+        return result;
+    }
+
+    /**
+     * Rotates the keys signing the requests, without interrupting the calls in progress nor rebuilding the connection
+     * pool. The calls in progress complete with the keys they started with.
+     * <p>
+     * The requests are signed with the new keys. During the dual-key window, a verification or a statistic call that
+     * mosparo rejects with {@code 401 Unauthorized} is signed again with the previous keys and retried once, so the
+     * client can be rotated before the mosparo project. The verification signature of a result is always checked
+     * against the keys which signed its request. A {@link PreparedVerification} is only sent with the keys it was
+     * prepared with.
+     *
+     * @param publicKey the new public key of the mosparo project
+     * @param privateKey the new private key of the mosparo project
+     * @param dualKeyWindow how long the requests rejected by mosparo are retried with the previous keys
+     * @throws IllegalArgumentException if the private key cannot initialize a {@code HmacSHA256} {@link javax.crypto.Mac}
+     */
+    public void rotateSigningKeys(String publicKey, String privateKey, Duration dualKeyWindow) {
+        SigningKeys keys = new SigningKeys(publicKey, privateKey);
+        long previousKeysExpiry = System.nanoTime() + dualKeyWindow.toNanos();
+        signing.updateAndGet(current -> new Signing(current.helper.withSigningKeys(keys), current.helper,
+                previousKeysExpiry));
+    }
+
+    /**
+     * @return the helpers signing with the current keys and, during the dual-key window, the previous keys
+     */
+    private Signing signing() {
+        Signing current = signing.get();
+        if (current.previous != null && System.nanoTime() - current.previousKeysExpiry >= 0) {
+            // The dual-key window is over
+            signing.compareAndSet(current, new Signing(current.helper, null, 0));
+            current = signing.get();
+        }
+        return current;
+    }
+
+    /**
+     * @return the helper signing with the current keys, to use for a whole call
+     */
+    private RequestHelper helper() {
+        return signing().helper;
+    }
+
+    /**
+     * @param publicKey the public key of the keys which signed a request, {@code null} if unknown
+     * @return the helper signing with the keys of the public key, the current keys or during the dual-key window the
+     *         previous keys, or {@code null} if the client does not sign with these keys
+     */
+    RequestHelper helper(String publicKey) {
+        Signing current = signing();
+        if (publicKey == null || publicKey.equals(current.helper.getSigningKeys().getPublicKey())) {
+            return current.helper;
+        }
+        if (current.previous != null && publicKey.equals(current.previous.getSigningKeys().getPublicKey())) {
+            return current.previous;
+        }
+        return null;
+    }
+
+    /**
+     * @return {@code true} if the call was rejected by mosparo for its {@code Authorization} header, and can be signed
+     *         again with the previous keys
+     */
+    private static boolean isRetriedWithPreviousKeys(HttpStatusException e, Signing signing) {
+        return e.getStatusCode() == HttpStatus.SC_UNAUTHORIZED && signing.previous != null;
+    }
+
+    private VerificationTimings startTimings() {
+        return timingListener != null ? new VerificationTimings() : null;
+    }
+
+    /**
+     * Records the submit token in the replay guard, if configured.
+     *
+     * @return the recorded token, to release if the verification cannot be sent, or {@code null}
+     */
+    private String guardReplay(Object submitToken) throws PreValidationException {
+        if (replayGuard == null || !(submitToken instanceof String token) || token.isEmpty()) {
+            // A missing token is rejected when building the request
+            return null;
+        }
+        if (!replayGuard.tryRecord(token)) {
+            throw new PreValidationException(PreValidationException.Reason.REPLAYED_SUBMIT_TOKEN,
+                    RequestHelper.MOSPARO_SUBMIT_TOKEN_KEY + " already used.");
+        }
+        return token;
+    }
+
+    /**
+     * Builds and verifies a request, and appends it to the verification journal if it could not be sent to mosparo.
+     * Otherwise, unless mosparo returned a result, the submit token recorded by the replay guard is released, so the
+     * submission can be verified again: the request could not be built, the call was shed or rejected by the client, or
+     * mosparo responded with an HTTP error status.
+     */
+    private VerificationResult verifyOrDefer(RequestBuilder builder, Set<String> requiredFields, Deadline deadline,
+            VerificationTimings timings, String guardedToken) throws IOException, MosparoException {
+        Signing signing = signing();
+        RequestHelper helper = signing.helper;
+        VerificationRequest request = build(builder, helper, guardedToken);
+        try {
+            if (timings != null) {
+                timings.mark(VerificationTimings.Phase.BUILD_REQUEST);
+            }
+            try {
+                return verify(helper, request, deadline, timings);
+            } catch (HttpStatusException e) {
+                if (!isRetriedWithPreviousKeys(e, signing)) {
+                    throw e;
+                }
+                // mosparo does not know the new keys yet
+                helper = signing.previous;
+                request = build(builder, helper, guardedToken);
+                return verify(helper, request, deadline, timings);
+            }
+        } catch (LoadSheddingException | BulkheadFullException | HttpStatusException | RuntimeException e) {
+            releaseReplay(guardedToken);
+            throw e;
+        } catch (IOException e) {
+            if (verificationJournal == null) {
+                releaseReplay(guardedToken);
+                throw e;
+            }
+            long sequence;
+            try {
+                sequence = verificationJournal.append(request, requiredFields,
+                        helper.getSigningKeys().getPublicKey());
+            } catch (IOException journalError) {
+                e.addSuppressed(journalError);
+                releaseReplay(guardedToken);
+                throw e;
+            }
+            throw new VerificationDeferredException(sequence, e);
+        } finally {
+            if (timings != null) {
+                timingListener.onVerification(timings);
+            }
+        }
+    }
+
+    /**
+     * Counts the result of a verification evaluated by mosparo, whose signature and required fields are checked. A valid
+     * result missing a required field is rejected, not counted.
+     */
+    void recordOutcome(VerificationResult result) {
+        if (outcomeCounters != null) {
+            outcomeCounters.record(outcomeFormId, result);
+        }
+    }
+
+    private VerificationRequest build(RequestBuilder builder, RequestHelper helper, String guardedToken)
+            throws MosparoException {
+        try {
+            return builder.build(helper);
+        } catch (MosparoException | RuntimeException e) {
+            releaseReplay(guardedToken);
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RequestBuilder {
+        VerificationRequest build(RequestHelper helper) throws MosparoException;
+    }
+
+    private void releaseReplay(String guardedToken) {
+        if (guardedToken != null) {
+            replayGuard.release(guardedToken);
+        }
+    }
 
-        StatisticResult result = execute(httpRequest, StatisticResult.class);
+    protected VerificationResult verify(VerificationRequest request, Deadline deadline)
+            throws IOException, MosparoException {
+        return verify(helper(), request, deadline);
+    }
+
+    protected VerificationResult verify(RequestHelper helper, VerificationRequest request, Deadline deadline)
+            throws IOException, MosparoException {
+        return verify(helper, request, deadline, null);
+    }
+
+    private VerificationResult verify(RequestHelper helper, VerificationRequest request, Deadline deadline,
+            VerificationTimings timings) throws IOException, MosparoException {
+        if (deadline != null) {
+            deadline.check("buildVerificationRequestHttpRequest");
+        }
+        HttpPost httpRequest = buildVerificationRequestHttpRequest(request, helper);
+        if (timings != null) {
+            timings.mark(VerificationTimings.Phase.BUILD_HTTP_REQUEST);
+        }
+
+        VerificationResult result = exchange(httpRequest, deadline,
+                in -> decode(helper, in, VerificationResult.class), timings);
 
         if (result.hasError()) {
             throw new MosparoException(result.getErrorMessage());
         }
+        checkSignature(request, result);
+        if (timings != null) {
+            timings.mark(VerificationTimings.Phase.CHECK_SIGNATURE);
+        }
+
         return result;
     }
 
+    @Override
+    public StatisticResult statisticByDate(Integer range, LocalDate startDate) throws IOException, MosparoException {
+        StatisticResult result = callSigned(helper -> exchange(buildStatisticByDateHttpRequest(range, startDate, helper),
+                null, in -> decode(helper, in, StatisticResult.class), null));
+
+        if (result.hasError()) {
+            throw new MosparoException(result.getErrorMessage());
+        }
+        return result;
+    }
+
+    @Override
+    public StatisticResult.Statistic statisticByDate(Integer range, LocalDate startDate, DailyStatisticVisitor visitor)
+            throws IOException, MosparoException {
+        // The visitor is only called once mosparo accepted the request, a retried call visits the days once
+        return callSigned(helper -> exchange(buildStatisticByDateHttpRequest(range, startDate, helper), null, in -> {
+            try (JsonParser parser = helper.getMapper().getFactory().createParser(in)) {
+                return StatisticParser.parse(parser, visitor);
+            }
+        }, null));
+    }
+
+    /**
+     * Signs and runs a call with the current keys and, if mosparo rejects it during the dual-key window, with the
+     * previous keys.
+     */
+    private <T> T callSigned(SignedCall<T> call) throws IOException, MosparoException {
+        Signing signing = signing();
+        try {
+            return call.run(signing.helper);
+        } catch (HttpStatusException e) {
+            if (!isRetriedWithPreviousKeys(e, signing)) {
+                throw e;
+            }
+            return call.run(signing.previous);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SignedCall<T> {
+        T run(RequestHelper helper) throws IOException, MosparoException;
+    }
+
     @Override
     public HealthCheckResult healthCheck() throws IOException, MosparoException {
         HttpGet httpRequest = new HttpGet(url + HEALTH_CHECK_API_ENDPOINT);
@@ -107,31 +660,261 @@ public class MosparoDefaultClient implements MosparoClient {
     }
 
     protected <T> T execute(HttpUriRequest httpRequest, Class<T> resultType) throws IOException, MosparoException {
-        HttpResponse httpResponse = execute(httpRequest);
+        return execute(httpRequest, resultType, null);
+    }
+
+    protected <T> T execute(HttpUriRequest httpRequest, Class<T> resultType, Deadline deadline)
+            throws IOException, MosparoException {
+        return exchange(httpRequest, deadline, in -> decode(helper(), in, resultType), null);
+    }
+
+    private <T> T decode(RequestHelper helper, InputStream in, Class<T> resultType) throws IOException {
+        if (responseCodec != null && responseCodec.supports(resultType)) {
+            return responseCodec.decode(in, resultType);
+        }
+        return helper.getMapper().readValue(in, resultType);
+    }
+
+    /**
+     * Executes a request and reads its response within the fair share of the tenant, the bulkhead of its endpoint and
+     * the concurrency limit, which are held until the connection is released.
+     */
+    private <T> T exchange(HttpUriRequest httpRequest, Deadline deadline, ResponseReader<T> reader,
+            VerificationTimings timings) throws IOException, MosparoException {
+        // Counted before checking if closed, so a call is either rejected or drained by close
+        inFlight.incrementAndGet();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Client closed");
+            }
+            return exchangeWhileOpen(httpRequest, deadline, reader, timings);
+        } finally {
+            if (inFlight.decrementAndGet() == 0 && closed) {
+                drainLock.lock();
+                try {
+                    drained.signalAll();
+                } finally {
+                    drainLock.unlock();
+                }
+            }
+        }
+    }
+
+    private <T> T exchangeWhileOpen(HttpUriRequest httpRequest, Deadline deadline, ResponseReader<T> reader,
+            VerificationTimings timings) throws IOException, MosparoException {
         try {
-            return helper.getMapper().readValue(httpResponse.getEntity().getContent(), resultType);
+            if (fairShareScheduler == null) {
+                return exchangeWithinFairShare(httpRequest, deadline, reader, timings);
+            }
+            fairShareScheduler.acquire(tenant, deadline);
+            try {
+                return exchangeWithinFairShare(httpRequest, deadline, reader, timings);
+            } finally {
+                fairShareScheduler.release(tenant);
+            }
+        } catch (IllegalStateException e) {
+            if (!closed || ownedHttpClient == null) {
+                throw e;
+            }
+            // The connection pool was shut down by close after the drain timeout, while the call was retried
+            throw new IOException("Client closed while the call was in progress", e);
+        }
+    }
+
+    private <T> T exchangeWithinFairShare(HttpUriRequest httpRequest, Deadline deadline, ResponseReader<T> reader,
+            VerificationTimings timings) throws IOException, MosparoException {
+        Bulkhead bulkhead = bulkheads != null ? bulkheads.forEndpoint(httpRequest.getURI().getPath()) : null;
+        if (bulkhead != null) {
+            bulkhead.acquire(deadline);
+        }
+        try {
+            if (concurrencyLimiter == null) {
+                return exchangeWithinLimits(httpRequest, deadline, reader, timings);
+            }
+            concurrencyLimiter.acquire(deadline);
+            long start = System.nanoTime();
+            boolean sampled = true;
+            boolean dropped = false;
+            try {
+                return exchangeWithinLimits(httpRequest, deadline, reader, timings);
+            } catch (DeadlineExceededException e) {
+                // Raised locally, before sending the request or after its response: no round-trip time to sample
+                sampled = false;
+                throw e;
+            } catch (IOException e) {
+                dropped = true;
+                throw e;
+            } catch (HttpStatusException e) {
+                dropped = e.isOverload();
+                throw e;
+            } finally {
+                if (sampled) {
+                    concurrencyLimiter.release(System.nanoTime() - start, dropped);
+                } else {
+                    concurrencyLimiter.release();
+                }
+            }
+        } finally {
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    private <T> T exchangeWithinLimits(HttpUriRequest httpRequest, Deadline deadline, ResponseReader<T> reader,
+            VerificationTimings timings) throws IOException, MosparoException {
+        if (timings != null) {
+            timings.mark(VerificationTimings.Phase.ACQUIRE);
+        }
+        HttpResponse httpResponse = execute(httpRequest, deadline);
+        if (timings != null) {
+            timings.mark(VerificationTimings.Phase.EXECUTE);
+        }
+        if (deadline != null && deadline.isExpired()) {
+            discard(httpRequest, httpResponse);
+            deadline.check("parsing the response");
+        }
+        T result = readResponse(httpRequest, httpResponse, reader);
+        if (timings != null) {
+            timings.mark(VerificationTimings.Phase.PARSE);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the body of a successful response, within the response limits when they are configured.
+     * <p>
+     * A response crossing the limit is aborted, so its connection is discarded instead of being drained.
+     */
+    private <T> T readResponse(HttpUriRequest httpRequest, HttpResponse httpResponse, ResponseReader<T> reader)
+            throws MosparoException {
+        InputStream in = null;
+        try {
+            if (responseLimits == null) {
+                in = httpResponse.getEntity().getContent();
+            } else if (httpResponse.getEntity().getContentLength() > responseLimits.getMaxResponseSize()) {
+                throw new ResponseLimits.ResponseTooLargeException(responseLimits.getMaxResponseSize());
+            } else {
+                in = responseLimits.limit(httpResponse.getEntity().getContent());
+            }
+            return reader.read(in);
+        } catch (ResponseLimits.ResponseTooLargeException e) {
+            httpRequest.abort();
+            responseLimits.recordTruncatedResponse();
+            throw new MosparoException("Response from API too large.", e);
         } catch (IOException e) {
             throw new MosparoException("Response from API invalid.", e);
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        if (in != null) {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // The response is already read or aborted
+            }
         }
     }
 
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        T read(InputStream in) throws IOException, MosparoException;
+    }
+
     protected HttpResponse execute(HttpUriRequest httpRequest) throws IOException, MosparoException {
-        HttpResponse httpResponse = httpClient.execute(httpRequest);
+        return execute(httpRequest, (Deadline) null);
+    }
+
+    protected HttpResponse execute(HttpUriRequest httpRequest, Deadline deadline) throws IOException, MosparoException {
+        String endpoint = httpRequest.getURI().getPath();
+        applyTimeouts(httpRequest, endpoint, deadline);
+
+        long start = System.nanoTime();
+        HttpResponse httpResponse;
+        try {
+            httpResponse = httpClient.execute(httpRequest);
+        } catch (SocketTimeoutException e) {
+            if (adaptiveTimeouts != null) {
+                adaptiveTimeouts.recordTimeout(endpoint);
+            }
+            throw e;
+        }
+
         if (httpResponse.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
-            EntityUtils.consumeQuietly(httpResponse.getEntity());
-            throw new MosparoException(httpResponse.getStatusLine().getReasonPhrase());
+            discard(httpRequest, httpResponse);
+            throw new HttpStatusException(httpResponse.getStatusLine().getStatusCode(),
+                    httpResponse.getStatusLine().getReasonPhrase());
+        }
+        if (adaptiveTimeouts != null) {
+            adaptiveTimeouts.record(endpoint, System.nanoTime() - start);
         }
         return httpResponse;
     }
 
+    /**
+     * Releases the connection of an unused response. With response limits, a body that is not known to be small is not
+     * drained, the connection is discarded instead.
+     */
+    private void discard(HttpUriRequest httpRequest, HttpResponse httpResponse) {
+        HttpEntity entity = httpResponse.getEntity();
+        if (responseLimits != null && entity != null && (entity.getContentLength() < 0
+                || entity.getContentLength() > responseLimits.getMaxDrainSize())) {
+            httpRequest.abort();
+            responseLimits.recordDiscardedConnection();
+        } else {
+            EntityUtils.consumeQuietly(entity);
+        }
+    }
+
+    /**
+     * Bounds the connection lease, connect and read timeouts of the request by the remaining time of the deadline, and
+     * the read timeout by the adaptive timeout of the endpoint.
+     */
+    private void applyTimeouts(HttpUriRequest httpRequest, String endpoint, Deadline deadline)
+            throws DeadlineExceededException {
+        if ((deadline == null && adaptiveTimeouts == null) || !(httpRequest instanceof HttpRequestBase request)) {
+            return;
+        }
+        RequestConfig base = request.getConfig() != null ? request.getConfig() : requestConfig;
+        RequestConfig.Builder builder = RequestConfig.copy(base);
+
+        long readTimeout = Long.MAX_VALUE;
+        if (adaptiveTimeouts != null) {
+            readTimeout = adaptiveTimeouts.getTimeoutMillis(endpoint);
+        }
+        if (deadline != null) {
+            deadline.check("executing the request");
+            int remaining = (int) Math.min(Integer.MAX_VALUE, deadline.remainingMillis());
+            builder.setConnectionRequestTimeout(min(base.getConnectionRequestTimeout(), remaining))
+                    .setConnectTimeout(min(base.getConnectTimeout(), remaining));
+            readTimeout = Math.min(readTimeout, remaining);
+        }
+        builder.setSocketTimeout(min(base.getSocketTimeout(), (int) Math.min(Integer.MAX_VALUE, readTimeout)));
+
+        request.setConfig(builder.build());
+    }
+
+    // A timeout of zero or less means infinite or system default
+    private static int min(int timeout, int limit) {
+        return timeout > 0 ? Math.min(timeout, limit) : limit;
+    }
+
     protected HttpPost buildVerificationRequestHttpRequest(VerificationRequest request) throws MosparoException {
+        return buildVerificationRequestHttpRequest(request, helper());
+    }
+
+    protected HttpPost buildVerificationRequestHttpRequest(VerificationRequest request, RequestHelper helper)
+            throws MosparoException {
         try {
             String body = helper.toJson(request);
 
             HttpPost httpRequest = new HttpPost(url + MosparoDefaultClient.VERIFICATION_API_ENDPOINT);
-            httpRequest.setEntity(new StringEntity(body));
+            httpRequest.setEntity(createEntity(body));
 
-            setHeaders(httpRequest, MosparoDefaultClient.VERIFICATION_API_ENDPOINT, body);
+            setHeaders(httpRequest, MosparoDefaultClient.VERIFICATION_API_ENDPOINT, body, helper);
 
             return httpRequest;
         } catch (UnsupportedEncodingException e) {
@@ -139,7 +922,25 @@ public class MosparoDefaultClient implements MosparoClient {
         }
     }
 
+    private HttpEntity createEntity(String body) throws UnsupportedEncodingException {
+        if (requestCompression != null) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            if (requestCompression.shouldCompress(bytes)) {
+                ByteArrayEntity entity = new ByteArrayEntity(requestCompression.compress(bytes));
+                entity.setContentEncoding("gzip");
+                return entity;
+            }
+        }
+        // Encoded as declared by the Content-Type header
+        return new StringEntity(body, StandardCharsets.UTF_8);
+    }
+
     protected HttpGet buildStatisticByDateHttpRequest(Integer range, LocalDate startDate) throws MosparoException {
+        return buildStatisticByDateHttpRequest(range, startDate, helper());
+    }
+
+    protected HttpGet buildStatisticByDateHttpRequest(Integer range, LocalDate startDate, RequestHelper helper)
+            throws MosparoException {
         try {
             URIBuilder uriBuilder = new URIBuilder(url + MosparoDefaultClient.STATISTIC_BY_DATE_API_ENDPOINT);
             if (range != null) {
@@ -151,7 +952,7 @@ public class MosparoDefaultClient implements MosparoClient {
 
             HttpGet httpRequest = new HttpGet(uriBuilder.build());
             // Generate the request signature authorization header (using a fake empty body for a GET request)
-            setHeaders(httpRequest, MosparoDefaultClient.STATISTIC_BY_DATE_API_ENDPOINT, "{}");
+            setHeaders(httpRequest, MosparoDefaultClient.STATISTIC_BY_DATE_API_ENDPOINT, RequestHelper.EMPTY_BODY, helper);
 
             return httpRequest;
         } catch (URISyntaxException e) {
@@ -160,15 +961,23 @@ public class MosparoDefaultClient implements MosparoClient {
     }
 
     protected void setHeaders(HttpUriRequest httpRequest, String apiEndpoint, String body) {
+        setHeaders(httpRequest, apiEndpoint, body, helper());
+    }
+
+    protected void setHeaders(HttpUriRequest httpRequest, String apiEndpoint, String body, RequestHelper helper) {
+        setHeaders(httpRequest, helper.generateAuthHeaderValue(apiEndpoint, body));
+    }
+
+    private static void setHeaders(HttpUriRequest httpRequest, String authorization) {
         httpRequest.setHeader(HttpHeaders.ACCEPT, "application/json");
         httpRequest.setHeader(HttpHeaders.CONTENT_TYPE, "application/json; charset=utf-8");
-        String auth = helper.generateAuthHeaderValue(apiEndpoint, body);
-        httpRequest.setHeader(HttpHeaders.AUTHORIZATION, auth);
+        httpRequest.setHeader(HttpHeaders.AUTHORIZATION, authorization);
     }
 
     protected void checkSignature(VerificationRequest request, VerificationResult result) throws MosparoException {
         // Mosparo result has signature only when result is valid
-        if (result.isValid() && !request.getVerificationSignature().equals(result.getVerificationSignature())) {
+        if (result.isValid()
+                && !HexCodec.equalsConstantTime(request.getVerificationSignature(), result.getVerificationSignature())) {
             // This may indicate that an attacker is attempting to falsify actions
 
             String message = String.format("Verification signatures mismatch. Request '%s' - Response '%s'",
@@ -177,6 +986,12 @@ public class MosparoDefaultClient implements MosparoClient {
         }
     }
 
+    private void checkRequiredFieldsArgument(Set<String> requiredFields) throws MosparoException {
+        if (requiredFields == null || requiredFields.isEmpty()) {
+            throw new MosparoException("Required fields must be non null and non empty");
+        }
+    }
+
     protected void checkRequiredFields(VerificationResult result, Set<String> requiredFields) throws MosparoException {
         // The user could change a required field in the browser to an ignored field for mosparo and bypass mosparo with it
         // After successful verification, you should ensure all your required fields are verified
@@ -186,4 +1001,21 @@ public class MosparoDefaultClient implements MosparoClient {
             }
         }
     }
+
+    /**
+     * The helper signing with the current keys, and the helper signing with the previous keys until the end of the
+     * dual-key window.
+     */
+    private static final class Signing {
+
+        final RequestHelper helper;
+        final RequestHelper previous;
+        final long previousKeysExpiry;
+
+        Signing(RequestHelper helper, RequestHelper previous, long previousKeysExpiry) {
+            this.helper = helper;
+            this.previous = previous;
+            this.previousKeysExpiry = previousKeysExpiry;
+        }
+    }
 }
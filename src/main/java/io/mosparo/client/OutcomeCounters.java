@@ -0,0 +1,240 @@
+package io.mosparo.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Value;
+
+/**
+ * Local, real-time counters of the verification outcomes of forms, keyed by a caller-supplied form id.
+ * <p>
+ * Every recorded {@link VerificationResult} counts as a valid or a spam submission, except the results with an error,
+ * which were not evaluated by mosparo. Each field reported as {@link VerificationResult#FIELD_INVALID} is counted too,
+ * up to {@code maxFields} field names by minute, the field names being sent by the clients; the other fields are
+ * counted as {@link #OTHER_FIELDS}. The numbers are kept by minute in a ring buffer covering the retention period, with
+ * striped {@link LongAdder} counters, so recording from many request threads does not contend.
+ * <p>
+ * The counters are read as an {@link OutcomeSnapshot}, or as a {@link StatisticResult} by day, without any communication
+ * with mosparo.
+ * <p>
+ * Configured with {@link MosparoClientConfig#getOutcomeCounters()}, the counters record every verification of the
+ * client under {@link MosparoClientConfig#getOutcomeFormId()}, once its signature and its required fields are checked:
+ * a valid result rejected for a required field not verified by mosparo is not counted. They can also be recorded by
+ * hand, for example to count the forms verified by one client separately:
+ *
+ * <pre>
+ * VerificationResult result = client.verifySubmission(formData, requiredFields);
+ * counters.record("contact", result);
+ * </pre>
+ */
+public class OutcomeCounters {
+
+    public static final Duration DEFAULT_RETENTION = Duration.ofHours(24);
+    public static final int DEFAULT_MAX_FIELDS = 64;
+
+    /**
+     * The name under which the invalid fields over the limit of field names are counted.
+     */
+    public static final String OTHER_FIELDS = "*";
+
+    private static final long MINUTE_MILLIS = 60_000;
+
+    private final int minutes;
+    private final int maxFields;
+    private final Clock clock;
+    private final ConcurrentMap<String, FormCounters> forms = new ConcurrentHashMap<>();
+
+    /**
+     * Creates counters keeping the numbers of the last {@link #DEFAULT_RETENTION}.
+     */
+    public OutcomeCounters() {
+        this(DEFAULT_RETENTION, Clock.systemUTC());
+    }
+
+    /**
+     * Creates counters keeping up to {@link #DEFAULT_MAX_FIELDS} invalid field names by minute.
+     *
+     * @param retention the period for which the numbers by minute are kept
+     * @param clock the clock giving the current minute
+     */
+    public OutcomeCounters(Duration retention, Clock clock) {
+        this(retention, DEFAULT_MAX_FIELDS, clock);
+    }
+
+    /**
+     * Creates counters.
+     *
+     * @param retention the period for which the numbers by minute are kept
+     * @param maxFields the maximum number of invalid field names counted by minute
+     * @param clock the clock giving the current minute
+     */
+    public OutcomeCounters(Duration retention, int maxFields, Clock clock) {
+        long retentionMinutes = retention.toMinutes();
+        if (retentionMinutes <= 0 || retentionMinutes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("retention must be between one minute and " + Integer.MAX_VALUE + " minutes");
+        }
+        if (maxFields < 0) {
+            throw new IllegalArgumentException("maxFields must not be negative");
+        }
+        this.minutes = (int) retentionMinutes;
+        this.maxFields = maxFields;
+        this.clock = clock;
+    }
+
+    /**
+     * Records the outcome of a verification. A result with an error is ignored.
+     *
+     * @param formId the id of the verified form
+     * @param result the result of the verification
+     */
+    public void record(String formId, VerificationResult result) {
+        if (result.hasError()) {
+            return;
+        }
+        forms.computeIfAbsent(formId, id -> new FormCounters(minutes)).record(currentMinute(), result, maxFields);
+    }
+
+    /**
+     * Reads the counters of a form.
+     *
+     * @param formId the id of the form
+     * @return the snapshot of the counters of the form, empty if nothing was recorded for it
+     */
+    public OutcomeSnapshot snapshot(String formId) {
+        FormCounters counters = forms.get(formId);
+        if (counters == null) {
+            return new OutcomeSnapshot(0, 0, new TreeMap<>(), Map.of());
+        }
+        return counters.snapshot(currentMinute(), minutes);
+    }
+
+    private long currentMinute() {
+        return Math.floorDiv(clock.millis(), MINUTE_MILLIS);
+    }
+
+    /**
+     * A snapshot of the counters of a form over the retention period, shaped like {@link StatisticResult.StatisticData}
+     * with a minute granularity.
+     */
+    @Value
+    public static class OutcomeSnapshot {
+        int numberOfValidSubmissions;
+        int numberOfSpamSubmissions;
+        SortedMap<Instant, StatisticResult.Statistic> numbersByMinute;
+        Map<String, Long> invalidFields;
+
+        /**
+         * Aggregates the numbers by day, like a statistic by-date response from mosparo.
+         *
+         * @param zone the time zone of the days
+         * @return the numbers by day
+         */
+        public StatisticResult toStatisticResult(ZoneId zone) {
+            Map<LocalDate, StatisticResult.Statistic> numbersByDate = new TreeMap<>();
+            numbersByMinute.forEach((minute, statistic) -> numbersByDate.merge(LocalDate.ofInstant(minute, zone),
+                    statistic, (a, b) -> new StatisticResult.Statistic(
+                            a.getNumberOfValidSubmissions() + b.getNumberOfValidSubmissions(),
+                            a.getNumberOfSpamSubmissions() + b.getNumberOfSpamSubmissions())));
+            StatisticResult.StatisticData data = new StatisticResult.StatisticData(numberOfValidSubmissions,
+                    numberOfSpamSubmissions, numbersByDate);
+            return new StatisticResult(true, data, null, null);
+        }
+    }
+
+    private static class FormCounters {
+
+        private final AtomicReferenceArray<Bucket> buckets;
+
+        FormCounters(int minutes) {
+            this.buckets = new AtomicReferenceArray<>(minutes);
+        }
+
+        void record(long minute, VerificationResult result, int maxFields) {
+            Bucket bucket = bucket(minute);
+            if (result.isValid()) {
+                bucket.valid.increment();
+            } else {
+                bucket.spam.increment();
+            }
+            if (result.getVerifiedFields() != null) {
+                result.getVerifiedFields().forEach((field, status) -> {
+                    if (VerificationResult.FIELD_INVALID.equals(status)) {
+                        fieldCounter(bucket, field, maxFields).increment();
+                    }
+                });
+            }
+        }
+
+        private static LongAdder fieldCounter(Bucket bucket, String field, int maxFields) {
+            LongAdder counter = bucket.invalidFields.get(field);
+            if (counter != null) {
+                return counter;
+            }
+            // Checked before adding, so concurrent threads may go a few fields over the limit
+            String key = bucket.invalidFields.size() < maxFields ? field : OTHER_FIELDS;
+            return bucket.invalidFields.computeIfAbsent(key, f -> new LongAdder());
+        }
+
+        private Bucket bucket(long minute) {
+            int index = (int) Math.floorMod(minute, (long) buckets.length());
+            while (true) {
+                Bucket bucket = buckets.get(index);
+                if (bucket != null && bucket.minute == minute) {
+                    return bucket;
+                }
+                if (bucket != null && bucket.minute > minute) {
+                    // Recorded by a thread late on the clock, counted in the newer minute
+                    return bucket;
+                }
+                // The bucket of an expired minute is replaced, not reset, so no increment is lost on the new one
+                Bucket newBucket = new Bucket(minute);
+                if (buckets.compareAndSet(index, bucket, newBucket)) {
+                    return newBucket;
+                }
+            }
+        }
+
+        OutcomeSnapshot snapshot(long currentMinute, int minutes) {
+            long valid = 0;
+            long spam = 0;
+            SortedMap<Instant, StatisticResult.Statistic> numbersByMinute = new TreeMap<>();
+            Map<String, Long> invalidFields = new TreeMap<>();
+            for (int i = 0; i < buckets.length(); i++) {
+                Bucket bucket = buckets.get(i);
+                if (bucket == null || bucket.minute <= currentMinute - minutes || bucket.minute > currentMinute) {
+                    continue;
+                }
+                int bucketValid = (int) bucket.valid.sum();
+                int bucketSpam = (int) bucket.spam.sum();
+                valid += bucketValid;
+                spam += bucketSpam;
+                numbersByMinute.put(Instant.ofEpochMilli(bucket.minute * MINUTE_MILLIS),
+                        new StatisticResult.Statistic(bucketValid, bucketSpam));
+                bucket.invalidFields.forEach((field, count) -> invalidFields.merge(field, count.sum(), Long::sum));
+            }
+            return new OutcomeSnapshot((int) valid, (int) spam, numbersByMinute, invalidFields);
+        }
+    }
+
+    private static class Bucket {
+
+        final long minute;
+        final LongAdder valid = new LongAdder();
+        final LongAdder spam = new LongAdder();
+        final ConcurrentMap<String, LongAdder> invalidFields = new ConcurrentHashMap<>();
+
+        Bucket(long minute) {
+            this.minute = minute;
+        }
+    }
+}
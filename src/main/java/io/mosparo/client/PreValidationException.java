@@ -0,0 +1,32 @@
+package io.mosparo.client;
+
+/**
+ * Thrown when a submission is rejected locally by a {@link SubmissionPreValidator} or a {@link ReplayGuard}, before any
+ * hashing or communication with mosparo.
+ */
+public class PreValidationException extends MosparoException {
+
+    /**
+     * The reason why a submission was rejected.
+     */
+    public enum Reason {
+        MISSING_SUBMIT_TOKEN,
+        MALFORMED_SUBMIT_TOKEN,
+        MISSING_VALIDATION_TOKEN,
+        MALFORMED_VALIDATION_TOKEN,
+        MISSING_REQUIRED_FIELD,
+        TOO_MANY_FIELDS,
+        REPLAYED_SUBMIT_TOKEN
+    }
+
+    private final Reason reason;
+
+    public PreValidationException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,73 @@
+package io.mosparo.client;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A verification prepared by {@link MosparoDefaultClient#prepare(java.util.Map, Set)}, ready to be sent by
+ * {@link MosparoDefaultClient#send(PreparedVerification)}.
+ * <p>
+ * It holds the result of the CPU work of a verification: the hashed form data, the serialized and possibly compressed
+ * body, its {@code Authorization} header, and the verification signature expected from mosparo. It is immutable, so it
+ * can be prepared on one thread and sent from another, and sent again after a communication error without hashing the
+ * form data again. It is signed with the keys of the client at the time of its preparation.
+ * <p>
+ * With a {@link ReplayGuard}, the submit token is recorded when the verification is prepared, and is never released: a
+ * prepared verification dropped without being sent keeps its token rejected until the time-to-live of the guard.
+ */
+public final class PreparedVerification {
+
+    private final VerificationRequest request;
+    private final Set<String> requiredFields;
+    private final byte[] body;
+    private final boolean compressed;
+    private final String authorization;
+
+    PreparedVerification(VerificationRequest request, Set<String> requiredFields, byte[] body, boolean compressed,
+            String authorization) {
+        this.request = new VerificationRequest(request.getSubmitToken(), request.getValidationSignature(),
+                request.getFormSignature(), Collections.unmodifiableMap(request.getFormData()),
+                request.getVerificationSignature());
+        this.requiredFields = requiredFields;
+        this.body = body;
+        this.compressed = compressed;
+        this.authorization = authorization;
+    }
+
+    /**
+     * @return the verification request, with the unmodifiable hashed form data and the expected verification signature
+     */
+    public VerificationRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * @return the required fields checked on the result
+     */
+    public Set<String> getRequiredFields() {
+        return requiredFields;
+    }
+
+    /**
+     * @return the size of the body sent to mosparo, in bytes
+     */
+    public int getBodySize() {
+        return body.length;
+    }
+
+    /**
+     * @return {@code true} if the body is gzip compressed
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    // Shared with the entities of the requests, which never modify it
+    byte[] getBody() {
+        return body;
+    }
+
+    String getAuthorization() {
+        return authorization;
+    }
+}
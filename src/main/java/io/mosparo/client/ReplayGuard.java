@@ -0,0 +1,321 @@
+package io.mosparo.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Rejects the submit tokens already used within a time-to-live, across the JVMs of a host sharing the same file.
+ * <p>
+ * The used tokens are kept in a fixed-size open-addressing hash table, stored in a memory-mapped file. Each slot is a
+ * single {@code long} holding a 32 bits fingerprint of a token and the second it was used, updated with an atomic
+ * compare-and-set, so the JVMs mapping the file record and check the tokens without any lock. The fingerprints are
+ * salted with a random salt created with the file, so the tokens sent by a client cannot be chosen to collide. The
+ * seconds are counted from the creation of the file on 32 bits, which only wrap around after more than a century.
+ * <p>
+ * The clocks of the JVMs may differ by up to a minute: a token used by a JVM whose clock is further ahead is taken as
+ * expired by the others.
+ * <p>
+ * When it is configured with {@link MosparoClientConfig#getReplayGuard()}, a submission whose token was already used is
+ * rejected with a {@link PreValidationException} before any hashing or communication with mosparo. A token whose
+ * verification got no result from mosparo is released, so the submission can be verified again: a communication error,
+ * a call shed or rejected by the client, an HTTP error status, or a request which could not be built.
+ * <p>
+ * The guard is a filter in front of mosparo, which still rejects the replayed tokens it lets through: when the probed
+ * slots are all used by live tokens, a token is let through without being recorded, and two JVMs recording the same
+ * token at the moment another token of its slots expires may both accept it.
+ *
+ * <pre>
+ * ReplayGuard guard = ReplayGuard.open(Path.of("/dev/shm/mosparo-tokens"), 1 &lt;&lt; 20, Duration.ofHours(1));
+ * MosparoClient client = new MosparoDefaultClient(url, publicKey, privateKey, httpClient,
+ *         MosparoClientConfig.builder().replayGuard(guard).build());
+ * </pre>
+ */
+public class ReplayGuard implements Closeable {
+
+    private static final int MAGIC = 0x4D535247; // MSRG
+    private static final int VERSION = 2;
+
+    // Header: magic (int), version (int), slots (int), reserved (int), salt (long), base epoch second (long)
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int SLOTS_OFFSET = 8;
+    private static final int SALT_OFFSET = 16;
+    private static final int BASE_OFFSET = 24;
+    private static final int HEADER_SIZE = 64;
+
+    // Slot: fingerprint (32 bits), second of use since the base epoch second, modulo 2^32 (32 bits)
+    private static final int STAMP_BITS = 32;
+    private static final long STAMP_MASK = (1L << STAMP_BITS) - 1;
+    // The stamps up to half of the range ahead of the current one are in the future, not wrapped around
+    private static final long MAX_AGE = STAMP_MASK >>> 1;
+    private static final long MAX_CLOCK_SKEW_SECONDS = 60;
+    private static final long EMPTY = 0;
+
+    private static final int MAX_SLOTS = 1 << 28;
+    private static final int MAX_PROBES = 32;
+
+    private static final VarHandle SLOT = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    // The file locks are held on behalf of the whole JVM: the guards opened at the same time in a JVM take turns
+    private static final Object OPEN_LOCK = new Object();
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int mask;
+    private final long ttlSeconds;
+    private final byte[] salt;
+    private final long baseEpochSecond;
+    private final Clock clock;
+    private final ThreadLocal<MessageDigest> digests = ThreadLocal.withInitial(DigestUtils::getSha256Digest);
+
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+
+    private ReplayGuard(FileChannel channel, MappedByteBuffer buffer, int slots, Duration ttl, Clock clock) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.mask = slots - 1;
+        this.ttlSeconds = ttl.getSeconds();
+        this.salt = ByteBuffer.allocate(Long.BYTES).putLong(buffer.getLong(SALT_OFFSET)).array();
+        this.baseEpochSecond = buffer.getLong(BASE_OFFSET);
+        this.clock = clock;
+    }
+
+    /**
+     * Opens a replay guard, creating its file if it does not exist.
+     *
+     * @param file the file shared by the JVMs, preferably on a memory file system such as {@code /dev/shm}
+     * @param slots the number of tokens kept in the table, rounded up to a power of two
+     * @param ttl how long a used token is rejected, the same in every JVM
+     * @return the replay guard
+     * @throws IOException if the file cannot be opened, or was created with another number of slots or version
+     */
+    public static ReplayGuard open(Path file, int slots, Duration ttl) throws IOException {
+        return open(file, slots, ttl, Clock.systemUTC());
+    }
+
+    /**
+     * Opens a replay guard, creating its file if it does not exist.
+     *
+     * @param file the file shared by the JVMs
+     * @param slots the number of tokens kept in the table, rounded up to a power of two
+     * @param ttl how long a used token is rejected, the same in every JVM
+     * @param clock the clock giving the time of use of the tokens
+     * @return the replay guard
+     * @throws IOException if the file cannot be opened, or was created with another number of slots or version
+     */
+    public static ReplayGuard open(Path file, int slots, Duration ttl, Clock clock) throws IOException {
+        if (slots <= 0 || slots > MAX_SLOTS) {
+            throw new IllegalArgumentException("slots must be between 1 and " + MAX_SLOTS);
+        }
+        if (ttl.getSeconds() < 1 || ttl.getSeconds() > MAX_AGE) {
+            throw new IllegalArgumentException("ttl must be between 1 second and " + MAX_AGE + " seconds");
+        }
+        int tableSize = Integer.highestOneBit(slots) == slots ? slots : Integer.highestOneBit(slots) << 1;
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer;
+            synchronized (OPEN_LOCK) {
+                buffer = createOrMap(file, channel, tableSize, clock);
+            }
+            return new ReplayGuard(channel, buffer, tableSize, ttl, clock);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static MappedByteBuffer createOrMap(Path file, FileChannel channel, int tableSize, Clock clock)
+            throws IOException {
+        // The JVMs opening the file at the same time wait for the one creating it
+        FileLock lock = channel.lock();
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            if (header.getInt(MAGIC_OFFSET) == 0) {
+                MappedByteBuffer buffer = map(channel, tableSize);
+                buffer.putInt(VERSION_OFFSET, VERSION);
+                buffer.putInt(SLOTS_OFFSET, tableSize);
+                buffer.putLong(SALT_OFFSET, new SecureRandom().nextLong());
+                buffer.putLong(BASE_OFFSET, clock.millis() / 1000);
+                buffer.putInt(MAGIC_OFFSET, MAGIC);
+                buffer.force();
+                return buffer;
+            } else if (header.getInt(MAGIC_OFFSET) != MAGIC) {
+                throw new IOException("Not a replay guard: " + file);
+            } else if (header.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException(String.format("Replay guard %s has version %d, not %d, delete it", file,
+                        header.getInt(VERSION_OFFSET), VERSION));
+            } else if (header.getInt(SLOTS_OFFSET) != tableSize) {
+                throw new IOException(String.format("Replay guard %s has %d slots, not %d", file,
+                        header.getInt(SLOTS_OFFSET), tableSize));
+            }
+            return map(channel, tableSize);
+        } finally {
+            lock.release();
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, int tableSize) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_SIZE + (long) Long.BYTES * tableSize);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * Records the use of a submit token.
+     *
+     * @param submitToken the submit token
+     * @return {@code true} if the token was not used within the time-to-live, {@code false} if it is replayed
+     */
+    public boolean tryRecord(String submitToken) {
+        byte[] digest = digest(submitToken);
+        long fingerprint = fingerprint(digest);
+        int start = start(digest);
+
+        retry:
+        while (true) {
+            long stamp = stamp();
+            long entry = fingerprint << STAMP_BITS | stamp;
+            int reusable = -1;
+            long reusableValue = EMPTY;
+            for (int probe = 0; probe < MAX_PROBES && probe <= mask; probe++) {
+                int offset = offset(start + probe);
+                long current = (long) SLOT.getVolatile(buffer, offset);
+                if (current == EMPTY) {
+                    // The end of the probe sequence, the token is not in the table
+                    boolean recorded = reusable >= 0 ? SLOT.compareAndSet(buffer, reusable, reusableValue, entry)
+                            : SLOT.compareAndSet(buffer, offset, EMPTY, entry);
+                    if (recorded) {
+                        return true;
+                    }
+                    continue retry;
+                }
+                boolean expired = age(stamp, current) >= ttlSeconds;
+                if (current >>> STAMP_BITS == fingerprint) {
+                    if (!expired) {
+                        replays.increment();
+                        return false;
+                    }
+                    if (SLOT.compareAndSet(buffer, offset, current, entry)) {
+                        return true;
+                    }
+                    continue retry;
+                }
+                if (expired && reusable < 0) {
+                    reusable = offset;
+                    reusableValue = current;
+                }
+            }
+            if (reusable < 0) {
+                // Every probed slot holds a live token, the token is let through to mosparo
+                overflows.increment();
+                return true;
+            }
+            if (SLOT.compareAndSet(buffer, reusable, reusableValue, entry)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Forgets the use of a submit token, for example when its verification could not be sent to mosparo.
+     *
+     * @param submitToken the submit token
+     */
+    public void release(String submitToken) {
+        byte[] digest = digest(submitToken);
+        long fingerprint = fingerprint(digest);
+        int start = start(digest);
+
+        long stamp = stamp();
+        for (int probe = 0; probe < MAX_PROBES && probe <= mask; probe++) {
+            int offset = offset(start + probe);
+            long current = (long) SLOT.getVolatile(buffer, offset);
+            if (current == EMPTY) {
+                return;
+            }
+            if (current >>> STAMP_BITS == fingerprint) {
+                // Marked as expired rather than emptied, so the probe sequences going through the slot are kept
+                long expired = fingerprint << STAMP_BITS | ((stamp - ttlSeconds) & STAMP_MASK);
+                SLOT.compareAndSet(buffer, offset, current, expired);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the number of replayed tokens rejected by this JVM
+     */
+    public long getReplays() {
+        return replays.sum();
+    }
+
+    /**
+     * @return the number of tokens let through by this JVM without being recorded, because the table was too full
+     */
+    public long getOverflows() {
+        return overflows.sum();
+    }
+
+    private byte[] digest(String submitToken) {
+        MessageDigest digest = digests.get();
+        digest.update(salt);
+        return digest.digest(submitToken.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long fingerprint(byte[] digest) {
+        long fingerprint = 0;
+        for (int i = 0; i < 4; i++) {
+            fingerprint = fingerprint << 8 | (digest[i] & 0xff);
+        }
+        // Zero is the fingerprint of the empty slots
+        return fingerprint != 0 ? fingerprint : 1;
+    }
+
+    private static int start(byte[] digest) {
+        return (digest[8] & 0xff) << 24 | (digest[9] & 0xff) << 16 | (digest[10] & 0xff) << 8 | (digest[11] & 0xff);
+    }
+
+    private int offset(int index) {
+        return HEADER_SIZE + (index & mask) * Long.BYTES;
+    }
+
+    private long stamp() {
+        return (clock.millis() / 1000 - baseEpochSecond) & STAMP_MASK;
+    }
+
+    private static long age(long stamp, long slot) {
+        long age = (stamp - (slot & STAMP_MASK)) & STAMP_MASK;
+        if (age <= MAX_AGE) {
+            return age;
+        }
+        // Used by a JVM whose clock is slightly ahead, or a stamp too far in the future to be trusted
+        return STAMP_MASK + 1 - age <= MAX_CLOCK_SKEW_SECONDS ? 0 : Long.MAX_VALUE;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
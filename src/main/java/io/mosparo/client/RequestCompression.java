@@ -0,0 +1,143 @@
+package io.mosparo.client;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip compression of the verification request bodies.
+ * <p>
+ * Forms with many fields produce large request bodies, with a 64 characters hash for every value. Bodies of at least
+ * {@code threshold} bytes are sent with {@code Content-Encoding: gzip}; smaller bodies are sent as is, as compressing
+ * them costs more than it saves. The request signature is always computed on the uncompressed body.
+ * <p>
+ * The {@link Deflater}s hold native memory, so up to {@code poolSize} of them are reused instead of being created for
+ * every request.
+ * <p>
+ * The number of compressed requests and their sizes before and after compression are counted.
+ */
+public class RequestCompression {
+
+    public static final int DEFAULT_THRESHOLD = 4096;
+    public static final int DEFAULT_POOL_SIZE = 16;
+
+    private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+    private static final int GZIP_TRAILER_SIZE = 8;
+
+    private final int threshold;
+    private final int level;
+    private final BlockingQueue<Deflater> deflaters;
+
+    private final LongAdder compressedRequests = new LongAdder();
+    private final LongAdder uncompressedBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+
+    /**
+     * Creates a request compression of the bodies of at least {@value #DEFAULT_THRESHOLD} bytes, with the default
+     * compression level.
+     */
+    public RequestCompression() {
+        this(DEFAULT_THRESHOLD, Deflater.DEFAULT_COMPRESSION, DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * Creates a request compression.
+     *
+     * @param threshold the minimum size of a compressed body, in bytes
+     * @param level the compression level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}, or
+     *        {@link Deflater#DEFAULT_COMPRESSION}
+     * @param poolSize the maximum number of idle deflaters kept for reuse
+     */
+    public RequestCompression(int threshold, int level, int poolSize) {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("poolSize must be positive");
+        }
+        this.threshold = threshold;
+        this.level = level;
+        this.deflaters = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * @return the number of compressed request bodies
+     */
+    public long getCompressedRequests() {
+        return compressedRequests.sum();
+    }
+
+    /**
+     * @return the total size of the compressed request bodies before compression, in bytes
+     */
+    public long getUncompressedBytes() {
+        return uncompressedBytes.sum();
+    }
+
+    /**
+     * @return the total size of the compressed request bodies after compression, in bytes
+     */
+    public long getCompressedBytes() {
+        return compressedBytes.sum();
+    }
+
+    boolean shouldCompress(byte[] body) {
+        return body.length >= threshold;
+    }
+
+    /**
+     * Compresses a body in the gzip format.
+     *
+     * @param body the body to compress
+     * @return the gzip compressed body
+     */
+    byte[] compress(byte[] body) {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            // Raw deflate data, the gzip header and trailer are written here
+            deflater = new Deflater(level, true);
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(GZIP_HEADER.length + body.length / 4 + GZIP_TRAILER_SIZE);
+            out.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+
+            deflater.setInput(body);
+            deflater.finish();
+            byte[] buffer = new byte[Math.min(body.length + 64, 8192)];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            writeIntLE(out, (int) crc.getValue());
+            writeIntLE(out, body.length);
+
+            byte[] compressed = out.toByteArray();
+            compressedRequests.increment();
+            uncompressedBytes.add(body.length);
+            compressedBytes.add(compressed.length);
+            return compressed;
+        } finally {
+            deflater.reset();
+            if (!deflaters.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+}
@@ -1,21 +1,23 @@
 package io.mosparo.client;
 
-import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
 import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 
 import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -28,9 +30,16 @@ public class RequestHelper {
     public static final String MOSPARO_SUBMIT_TOKEN_KEY = "_mosparo_submitToken";
     public static final String MOSPARO_VALIDATION_TOKEN_KEY = "_mosparo_validationToken";
 
-    private final String publicKey;
-    private final Mac privateMac;
+    // Hash of null and empty values
+    static final String EMPTY_HASH = DigestUtils.sha256Hex("");
+
+    // Body signed for the requests without body
+    static final String EMPTY_BODY = "{}";
+
+    private final SigningKeys signingKeys;
     private final ObjectMapper mapper;
+    private final HashCache hashCache;
+    private final ConcurrentMap<String, String> emptyBodyAuthHeaderValues = new ConcurrentHashMap<>();
 
     /**
      * Creates a RequestHelper configured with the public key and private key of a mosparo project.
@@ -41,24 +50,45 @@ public class RequestHelper {
      *         initializing this {@link Mac} using {@code HmacSHA256} algorithm.
      */
     public RequestHelper(String publicKey, String privateKey) {
-        try {
-            this.publicKey = publicKey;
-
-            // Prepare the private key MAC
-            String macAlgorithm = "HmacSHA256";
-            SecretKeySpec key = new SecretKeySpec(privateKey.getBytes(StandardCharsets.UTF_8), macAlgorithm);
-            this.privateMac = Mac.getInstance(macAlgorithm);
-            this.privateMac.init(key);
-
-            // Instantiate an ObjectMapper because we need to ensure consistent JSON string for signature
-            this.mapper = JsonMapper.builder()
-                    .addModule(new JavaTimeModule())
-                    .build();
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-            // Every implementation of the Java platform is required to support HmacSHA256
-            // Only reason for hitting here is an illegal privateKey as argument
-            throw new IllegalArgumentException(e);
-        }
+        this(publicKey, privateKey, null);
+    }
+
+    /**
+     * Creates a RequestHelper configured with the public key and private key of a mosparo project, caching the hashes of
+     * low-cardinality field values.
+     *
+     * @param publicKey the public key
+     * @param privateKey the private key
+     * @param hashCache the cache of field value hashes, {@code null} to hash every value
+     * @throws IllegalArgumentException if the given {@code privateKey} is inappropriate for
+     *         initializing this {@link Mac} using {@code HmacSHA256} algorithm.
+     */
+    public RequestHelper(String publicKey, String privateKey, HashCache hashCache) {
+        // Instantiate an ObjectMapper because we need to ensure consistent JSON string for signature
+        this(new SigningKeys(publicKey, privateKey), hashCache, JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .build());
+    }
+
+    private RequestHelper(SigningKeys signingKeys, HashCache hashCache, ObjectMapper mapper) {
+        this.signingKeys = signingKeys;
+        this.hashCache = hashCache;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Creates a RequestHelper signing with other keys, sharing the {@link ObjectMapper} and the {@link HashCache} of this
+     * one.
+     *
+     * @param signingKeys the keys
+     * @return the RequestHelper signing with the keys
+     */
+    public RequestHelper withSigningKeys(SigningKeys signingKeys) {
+        return new RequestHelper(signingKeys, hashCache, mapper);
+    }
+
+    public SigningKeys getSigningKeys() {
+        return signingKeys;
     }
 
     /**
@@ -80,10 +110,66 @@ public class RequestHelper {
         String submitToken = extractSubmitToken(rawFormData);
         String validationToken = extractValidationToken(rawFormData);
 
-        SortedMap<String, Object> newFormData = this.prepareAndHashFormData(rawFormData);
-        String formSignature = this.generateFormDataSignature(newFormData);
-        String validationSignature = this.createHmacHash(validationToken);
-        String verificationSignature = this.createHmacHash(validationSignature + formSignature);
+        SortedMap<String, Object> newFormData;
+        try {
+            newFormData = this.prepareAndHashFormData(rawFormData);
+        } catch (UncheckedIOException e) {
+            throw new MosparoException("Unable to read form data.", e.getCause());
+        }
+        return buildVerificationRequest(submitToken, validationToken, newFormData);
+    }
+
+    /**
+     * Builds a {@link VerificationRequest} from a multi-valued request parameter map, like the one returned by
+     * {@code ServletRequest.getParameterMap()}.
+     * <p>
+     * The parameter values are hashed directly from their arrays, without copying them into an intermediate
+     * {@code Map<String, Object>} first. A parameter with a single value is hashed like a {@link String}, a parameter
+     * with several values is hashed like a {@link List}.
+     *
+     * @param parameters the request parameters
+     * @return the verification request to send to mosparo server
+     * @throws MosparoException if the verification request cannot be built
+     * @see #buildVerificationRequest(Map)
+     */
+    public VerificationRequest buildVerificationRequestFromParameters(Map<String, String[]> parameters)
+            throws MosparoException {
+        String submitToken = extractSingleParameter(parameters, MOSPARO_SUBMIT_TOKEN_KEY);
+        String validationToken = extractSingleParameter(parameters, MOSPARO_VALIDATION_TOKEN_KEY);
+
+        SortedMap<String, Object> newFormData = this.prepareAndHashParameters(parameters);
+        return buildVerificationRequest(submitToken, validationToken, newFormData);
+    }
+
+    /**
+     * Copies multi-valued request parameters into form data, hashed like by
+     * {@link #buildVerificationRequestFromParameters(Map)}: a parameter with a single value as a {@link String}, a
+     * parameter with several values as a {@link List}, and a parameter without any value as an empty String.
+     *
+     * @param parameters the request parameters
+     * @return the form data
+     */
+    public static Map<String, Object> toFormData(Map<String, String[]> parameters) {
+        Map<String, Object> formData = new TreeMap<>();
+        for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+            String[] values = entry.getValue();
+            if (values == null || values.length == 0) {
+                formData.put(entry.getKey(), "");
+            } else if (values.length == 1) {
+                formData.put(entry.getKey(), values[0]);
+            } else {
+                formData.put(entry.getKey(), Arrays.asList(values));
+            }
+        }
+        return formData;
+    }
+
+    private VerificationRequest buildVerificationRequest(String submitToken, String validationToken,
+            SortedMap<String, Object> newFormData) throws MosparoException {
+        String formJson = toJson(newFormData);
+        String formSignature = signingKeys.hmacHex(formJson);
+        String validationSignature = signingKeys.hmacHex(validationToken);
+        String verificationSignature = signingKeys.hmacHex(validationSignature + formSignature);
 
         return new VerificationRequest(submitToken, validationSignature, formSignature, newFormData, verificationSignature);
     }
@@ -109,14 +195,27 @@ public class RequestHelper {
         }
     }
 
+    private String extractSingleParameter(Map<String, String[]> parameters, String key) throws MosparoException {
+        String[] values = parameters.get(key);
+        if (values == null) {
+            throw new MosparoException(key + " must be provided.");
+        } else if (values.length != 1) {
+            throw new MosparoException(key + " must be a String value.");
+        }
+        return values[0];
+    }
+
     /**
      * Hashes the given data using the private key and generates a hexadecimal String representation
+     * <p>
+     * Safe to call from concurrent threads: the helper is shared by the concurrent requests of a client, and a
+     * {@link Mac} is not thread-safe, so each thread hashes with its own {@link Mac} of the {@link SigningKeys}.
      *
      * @param data the data to get the hash of
      * @return hexadecimal String representation of the hashed data
      */
     public String createHmacHash(String data) {
-        return Hex.encodeHexString(privateMac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+        return signingKeys.hmacHex(data);
     }
 
     /**
@@ -125,6 +224,7 @@ public class RequestHelper {
      *
      * @param rawFormData the form data
      * @return a new {@link SortedMap} containing the hashes of the form data
+     * @throws UncheckedIOException if reading a {@link Reader} or an {@link InputStream} value fails
      */
     public SortedMap<String, Object> prepareAndHashFormData(Map<String, Object> rawFormData) {
         return rawFormData.entrySet().stream()
@@ -133,7 +233,41 @@ public class RequestHelper {
                 !entry.getKey().equals(MOSPARO_SUBMIT_TOKEN_KEY) && !entry.getKey().equals(MOSPARO_VALIDATION_TOKEN_KEY))
                 .collect(toSortedMap(
                         Map.Entry::getKey,
-                        entry -> prepareAndHash(entry.getValue())));
+                        entry -> prepareAndHash(entry.getKey(), entry.getValue())));
+    }
+
+    /**
+     * Prepares multi-valued request parameters.
+     * Removes the mosparo fields, calculates hashes of values, sorts map by keys natural order.
+     * <p>
+     * A parameter with a single value is hashed as a String, a parameter with several values as a {@link List} of
+     * Strings, and a parameter without any value as {@code null}.
+     *
+     * @param parameters the request parameters
+     * @return a new {@link SortedMap} containing the hashes of the parameters
+     */
+    public SortedMap<String, Object> prepareAndHashParameters(Map<String, String[]> parameters) {
+        SortedMap<String, Object> hashes = new TreeMap<>();
+        for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+            String key = entry.getKey();
+            if (!key.equals(MOSPARO_SUBMIT_TOKEN_KEY) && !key.equals(MOSPARO_VALIDATION_TOKEN_KEY)) {
+                hashes.put(key, prepareAndHashValues(key, entry.getValue()));
+            }
+        }
+        return hashes;
+    }
+
+    private Object prepareAndHashValues(String field, String[] values) {
+        if (values == null || values.length == 0) {
+            return EMPTY_HASH;
+        } else if (values.length == 1) {
+            return prepareAndHash(field, values[0]);
+        }
+        Object[] hashes = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            hashes[i] = prepareAndHash(field, values[i]);
+        }
+        return Arrays.asList(hashes);
     }
 
     /**
@@ -158,23 +292,62 @@ public class RequestHelper {
      * <ul>
      * <li>Treats null as an empty String.</li>
      * <li>Normalize String EOL.</li>
+     * <li>For large Strings, other {@link CharSequence}, {@link Reader} and UTF-8 {@link InputStream}, hashes the content
+     * incrementally through a small buffer. Readers and streams are read to the end, but not closed.</li>
      * <li>For {@link List} and {@link Map}, recursively prepareAndHash their values</li>
      * <li>Otherwise, will get the String value of the Object.</li>
      * </ul>
      *
      * @param value object to generate hashes for
      * @return hashed object
+     * @throws UncheckedIOException if reading a {@link Reader} or an {@link InputStream} fails
      */
     protected Object prepareAndHash(Object value) {
+        return prepareAndHash(null, value);
+    }
+
+    /**
+     * Hashes an Object, like {@link #prepareAndHash(Object)}, using the hash cache for the values of the given field when
+     * it is configured.
+     *
+     * @param field the name of the top-level form field the value belongs to, or {@code null} if unknown
+     * @param value object to generate hashes for
+     * @return hashed object
+     * @throws UncheckedIOException if reading a {@link Reader} or an {@link InputStream} fails
+     */
+    protected Object prepareAndHash(String field, Object value) {
         if (value == null) {
-            return DigestUtils.sha256Hex("");
+            return EMPTY_HASH;
+
+        } else if (value instanceof String string && string.isEmpty()) {
+            return EMPTY_HASH;
+
+        } else if (value instanceof String string && hashCache != null && hashCache.isCacheable(field, string)) {
+            return hashCache.getHash(string, RequestHelper::sha256Hex);
+
+        } else if (value instanceof String string && string.length() <= StreamingHasher.BUFFER_SIZE) {
+            return sha256Hex(string);
 
-        } else if (value instanceof String string) {
-            String preparedValue = string.replace("\r\n", "\n");
-            return DigestUtils.sha256Hex(preparedValue);
+        } else if (value instanceof CharSequence chars) {
+            // Large Strings and other character sequences are hashed without any copy
+            return StreamingHasher.sha256Hex(chars);
+
+        } else if (value instanceof Reader reader) {
+            try {
+                return StreamingHasher.sha256Hex(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+        } else if (value instanceof InputStream in) {
+            try {
+                return StreamingHasher.sha256Hex(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
 
         } else if (value instanceof List<?> list) {
-            return list.stream().map(this::prepareAndHash).toList();
+            return list.stream().map(element -> prepareAndHash(field, element)).toList();
 
         } else if (value instanceof Map) {
             // Assume keys are String (because it is supposed to come from JSON)
@@ -182,21 +355,32 @@ public class RequestHelper {
             Map<String, Object> map = (Map<String, Object>) value;
             return map.entrySet().stream().collect(toSortedMap(
                     Map.Entry::getKey,
-                    entry -> prepareAndHash(entry.getValue())));
+                    entry -> prepareAndHash(field, entry.getValue())));
 
         } else {
-            return prepareAndHash(String.valueOf(value));
+            return prepareAndHash(field, String.valueOf(value));
         }
     }
 
+    private static String sha256Hex(String value) {
+        String preparedValue = value.replace("\r\n", "\n");
+        return HexCodec.encode(DigestUtils.sha256(preparedValue));
+    }
+
     public String generateFormDataSignature(SortedMap<String, Object> formData) throws MosparoException {
         return createHmacHash(toJson(formData));
     }
 
     protected String generateAuthHeaderValue(String apiEndpoint, String body) {
-        String requestSignature = createHmacHash(apiEndpoint + body);
-        String basicCredentials = String.format("%s:%s", this.publicKey, requestSignature);
-        return Base64.encodeBase64String(basicCredentials.getBytes(StandardCharsets.UTF_8));
+        if (EMPTY_BODY.equals(body)) {
+            // The GET requests are all signed with the same body, so their header only depends on the endpoint
+            return emptyBodyAuthHeaderValues.computeIfAbsent(apiEndpoint, endpoint -> signAuthHeaderValue(endpoint, body));
+        }
+        return signAuthHeaderValue(apiEndpoint, body);
+    }
+
+    private String signAuthHeaderValue(String apiEndpoint, String body) {
+        return Base64.encodeBase64String(signingKeys.credentials(apiEndpoint + body));
     }
 
     protected String toJson(Object object) throws MosparoException {
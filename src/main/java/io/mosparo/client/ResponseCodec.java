@@ -0,0 +1,32 @@
+package io.mosparo.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes the JSON responses of mosparo, in place of the Jackson data binding of the client.
+ * <p>
+ * The responses of the types which are not supported are bound by Jackson. The requests are always encoded by Jackson,
+ * as their signatures depend on the exact JSON.
+ *
+ * @see StreamingResponseCodec
+ */
+public interface ResponseCodec {
+
+    /**
+     * @param type the type of a response
+     * @return {@code true} if this codec decodes the responses of this type
+     */
+    boolean supports(Class<?> type);
+
+    /**
+     * Decodes a response.
+     *
+     * @param <T> the type of the response
+     * @param in the body of the response
+     * @param type the type of the response, which is supported by this codec
+     * @return the decoded response
+     * @throws IOException if the response cannot be read or is not valid
+     */
+    <T> T decode(InputStream in, Class<T> type) throws IOException;
+}
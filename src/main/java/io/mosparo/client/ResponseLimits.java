@@ -0,0 +1,135 @@
+package io.mosparo.client;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the size of the responses read from mosparo.
+ * <p>
+ * A successful response larger than {@code maxResponseSize} is not parsed: it is rejected upfront when its length is
+ * declared, and otherwise aborted as soon as the limit is crossed while it is streamed to the parser. The body of an
+ * error response is only drained, to reuse the connection, when its declared length is not larger than
+ * {@code maxDrainSize}; otherwise the connection is discarded, which is cheaper than reading a large body.
+ * <p>
+ * Both events are counted.
+ */
+public class ResponseLimits {
+
+    public static final long DEFAULT_MAX_RESPONSE_SIZE = 1024 * 1024;
+    public static final long DEFAULT_MAX_DRAIN_SIZE = 8 * 1024;
+
+    private final long maxResponseSize;
+    private final long maxDrainSize;
+
+    private final LongAdder truncatedResponses = new LongAdder();
+    private final LongAdder discardedConnections = new LongAdder();
+
+    /**
+     * Creates response limits of {@value #DEFAULT_MAX_RESPONSE_SIZE} bytes per response, draining error bodies of up to
+     * {@value #DEFAULT_MAX_DRAIN_SIZE} bytes.
+     */
+    public ResponseLimits() {
+        this(DEFAULT_MAX_RESPONSE_SIZE, DEFAULT_MAX_DRAIN_SIZE);
+    }
+
+    /**
+     * Creates response limits.
+     *
+     * @param maxResponseSize the maximum size of a successful response, in bytes
+     * @param maxDrainSize the maximum declared size of an error response body drained to reuse the connection, in bytes
+     */
+    public ResponseLimits(long maxResponseSize, long maxDrainSize) {
+        this.maxResponseSize = maxResponseSize;
+        this.maxDrainSize = maxDrainSize;
+    }
+
+    public long getMaxResponseSize() {
+        return maxResponseSize;
+    }
+
+    public long getMaxDrainSize() {
+        return maxDrainSize;
+    }
+
+    /**
+     * @return the number of successful responses rejected or aborted because they were too large
+     */
+    public long getTruncatedResponses() {
+        return truncatedResponses.sum();
+    }
+
+    /**
+     * @return the number of connections discarded instead of draining the body of an error response
+     */
+    public long getDiscardedConnections() {
+        return discardedConnections.sum();
+    }
+
+    void recordTruncatedResponse() {
+        truncatedResponses.increment();
+    }
+
+    void recordDiscardedConnection() {
+        discardedConnections.increment();
+    }
+
+    InputStream limit(InputStream in) {
+        return new LimitedInputStream(in, maxResponseSize);
+    }
+
+    /**
+     * Thrown while reading a response larger than the maximum response size.
+     */
+    static class ResponseTooLargeException extends IOException {
+
+        ResponseTooLargeException(long maxResponseSize) {
+            super("Response larger than " + maxResponseSize + " bytes");
+        }
+    }
+
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            // Never reads more than one byte past the limit
+            int read = super.read(b, off, (int) Math.min(len, limit - count + 1));
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, limit - count + 1));
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(long read) throws ResponseTooLargeException {
+            count += read;
+            if (count > limit) {
+                throw new ResponseTooLargeException(limit);
+            }
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package io.mosparo.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.http.client.HttpClient;
+
+import lombok.Value;
+
+/**
+ * Routes the calls of mosparo projects to the mosparo clusters hosting them.
+ * <p>
+ * A project is hosted by the cluster it is explicitly assigned to, otherwise by the cluster found with consistent
+ * hashing of its public key: every cluster owns {@code virtualNodes} points of a hash ring, and a project belongs to the
+ * first point after the hash of its public key. Adding or removing a cluster only moves the projects of the points it
+ * gains or loses.
+ * <p>
+ * Every cluster has its own {@link HttpClient}, so its connection pool stays warm for all its projects. The client of a
+ * project is resolved once and cached, so {@link #forProject(String)} is a hash map lookup. A project can be moved to
+ * another cluster at runtime: the next calls of the project use the new cluster, and the calls in progress complete on
+ * the old one.
+ *
+ * <pre>
+ * ShardedMosparoClient clients = new ShardedMosparoClient(List.of(
+ *         new ShardedMosparoClient.Cluster("eu", "https://mosparo-eu.example.com", euHttpClient, config),
+ *         new ShardedMosparoClient.Cluster("us", "https://mosparo-us.example.com", usHttpClient, config)), 128);
+ * clients.addProject(publicKey, privateKey);
+ * VerificationResult result = clients.forProject(publicKey).verifySubmission(formData, requiredFields);
+ * </pre>
+ */
+public class ShardedMosparoClient {
+
+    /**
+     * A mosparo cluster, with the HTTP client and the configuration of the clients of its projects.
+     */
+    @Value
+    public static class Cluster {
+        String name;
+        String url;
+        HttpClient httpClient;
+        MosparoClientConfig config;
+    }
+
+    private final int virtualNodes;
+    private final Map<String, Cluster> clusters = new LinkedHashMap<>();
+    private final ConcurrentMap<String, String> privateKeys = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> assignments = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Route> routes = new ConcurrentHashMap<>();
+
+    // Replaced on every change of the clusters or of the projects, which invalidates the cached routes
+    private volatile Ring ring;
+
+    /**
+     * Creates a sharded client.
+     *
+     * @param clusters the mosparo clusters
+     * @param virtualNodes the number of points of each cluster on the hash ring
+     */
+    public ShardedMosparoClient(Collection<Cluster> clusters, int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        this.virtualNodes = virtualNodes;
+        for (Cluster cluster : clusters) {
+            if (this.clusters.putIfAbsent(cluster.getName(), cluster) != null) {
+                throw new IllegalArgumentException("Duplicate cluster: " + cluster.getName());
+            }
+        }
+        this.ring = new Ring(this.clusters.values(), virtualNodes);
+    }
+
+    /**
+     * Adds a project, or replaces its private key.
+     *
+     * @param publicKey the public key of the project
+     * @param privateKey the private key of the project
+     */
+    public synchronized void addProject(String publicKey, String privateKey) {
+        if (!privateKey.equals(privateKeys.put(publicKey, privateKey))) {
+            routes.remove(publicKey);
+            ring = ring.copy();
+        }
+    }
+
+    /**
+     * Removes a project and its assignment.
+     *
+     * @param publicKey the public key of the project
+     */
+    public synchronized void removeProject(String publicKey) {
+        privateKeys.remove(publicKey);
+        assignments.remove(publicKey);
+        routes.remove(publicKey);
+        ring = ring.copy();
+    }
+
+    /**
+     * Assigns a project to a cluster, in place of the cluster found by consistent hashing.
+     *
+     * @param publicKey the public key of the project
+     * @param clusterName the name of the cluster
+     */
+    public synchronized void assign(String publicKey, String clusterName) {
+        if (!clusters.containsKey(clusterName)) {
+            throw new IllegalArgumentException("Unknown cluster: " + clusterName);
+        }
+        assignments.put(publicKey, clusterName);
+        ring = ring.copy();
+    }
+
+    /**
+     * Removes the assignment of a project, which is then hosted by the cluster found by consistent hashing.
+     *
+     * @param publicKey the public key of the project
+     */
+    public synchronized void unassign(String publicKey) {
+        if (assignments.remove(publicKey) != null) {
+            ring = ring.copy();
+        }
+    }
+
+    /**
+     * Adds a cluster, which takes over a part of the projects which are not assigned.
+     *
+     * @param cluster the cluster
+     */
+    public synchronized void addCluster(Cluster cluster) {
+        if (clusters.putIfAbsent(cluster.getName(), cluster) != null) {
+            throw new IllegalArgumentException("Duplicate cluster: " + cluster.getName());
+        }
+        ring = new Ring(clusters.values(), virtualNodes);
+    }
+
+    /**
+     * Removes a cluster. Its projects move to the other clusters, including the projects assigned to it.
+     *
+     * @param clusterName the name of the cluster
+     */
+    public synchronized void removeCluster(String clusterName) {
+        if (clusters.remove(clusterName) == null) {
+            throw new IllegalArgumentException("Unknown cluster: " + clusterName);
+        }
+        assignments.values().removeIf(clusterName::equals);
+        ring = new Ring(clusters.values(), virtualNodes);
+    }
+
+    /**
+     * Returns the client of a project, connected to the cluster hosting it.
+     *
+     * @param publicKey the public key of the project
+     * @return the client of the project
+     * @throws IllegalArgumentException if the project is unknown
+     */
+    public MosparoDefaultClient forProject(String publicKey) {
+        Ring current = ring;
+        Route route = routes.get(publicKey);
+        if (route != null && route.ring == current) {
+            return route.client;
+        }
+        return resolve(publicKey, current, route);
+    }
+
+    /**
+     * @param publicKey the public key of a project
+     * @return the name of the cluster hosting the project
+     */
+    public String getClusterName(String publicKey) {
+        return cluster(publicKey, ring).getName();
+    }
+
+    private MosparoDefaultClient resolve(String publicKey, Ring current, Route previous) {
+        String privateKey = privateKeys.get(publicKey);
+        if (privateKey == null) {
+            throw new IllegalArgumentException("Unknown project: " + publicKey);
+        }
+        Cluster cluster = cluster(publicKey, current);
+        // The client is kept if the project stays on the same cluster with the same private key, a route resolved with
+        // the previous private key may have been cached after the change of the key
+        MosparoDefaultClient client = previous != null && previous.cluster == cluster
+                && previous.privateKey.equals(privateKey) ? previous.client
+                        : new MosparoDefaultClient(cluster.getUrl(), publicKey, privateKey, cluster.getHttpClient(),
+                                cluster.getConfig());
+        Route route = new Route(current, cluster, privateKey, client);
+        // A route resolved with an older ring does not replace a newer one
+        routes.merge(publicKey, route, (old, resolved) -> old.ring == ring ? old : resolved);
+        return client;
+    }
+
+    private Cluster cluster(String publicKey, Ring current) {
+        String assigned = assignments.get(publicKey);
+        if (assigned != null) {
+            Cluster cluster = current.clusters.get(assigned);
+            if (cluster != null) {
+                return cluster;
+            }
+        }
+        return current.lookup(publicKey);
+    }
+
+    private static final class Route {
+
+        final Ring ring;
+        final Cluster cluster;
+        final String privateKey;
+        final MosparoDefaultClient client;
+
+        Route(Ring ring, Cluster cluster, String privateKey, MosparoDefaultClient client) {
+            this.ring = ring;
+            this.cluster = cluster;
+            this.privateKey = privateKey;
+            this.client = client;
+        }
+    }
+
+    /**
+     * The sorted points of the clusters on the hash ring.
+     */
+    private static final class Ring {
+
+        final Map<String, Cluster> clusters;
+        final long[] points;
+        final Cluster[] owners;
+
+        Ring(Collection<Cluster> clusters, int virtualNodes) {
+            this.clusters = new LinkedHashMap<>();
+            clusters.forEach(cluster -> this.clusters.put(cluster.getName(), cluster));
+
+            long[][] entries = new long[clusters.size() * virtualNodes][];
+            Cluster[] indexed = clusters.toArray(new Cluster[0]);
+            int n = 0;
+            for (int c = 0; c < indexed.length; c++) {
+                for (int node = 0; node < virtualNodes; node++) {
+                    entries[n++] = new long[] { hash(indexed[c].getName() + "#" + node), c };
+                }
+            }
+            Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+            this.points = new long[entries.length];
+            this.owners = new Cluster[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                points[i] = entries[i][0];
+                owners[i] = indexed[(int) entries[i][1]];
+            }
+        }
+
+        private Ring(Ring ring) {
+            this.clusters = ring.clusters;
+            this.points = ring.points;
+            this.owners = ring.owners;
+        }
+
+        /**
+         * @return the same ring as a new instance, to invalidate the routes after a change of the projects
+         */
+        Ring copy() {
+            return new Ring(this);
+        }
+
+        Cluster lookup(String publicKey) {
+            if (points.length == 0) {
+                throw new IllegalStateException("No mosparo cluster");
+            }
+            int index = Arrays.binarySearch(points, hash(publicKey));
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return owners[index == points.length ? 0 : index];
+        }
+
+        private static long hash(String key) {
+            byte[] digest = DigestUtils.md5(key.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                hash = hash << 8 | (digest[i] & 0xff);
+            }
+            return hash;
+        }
+    }
+}
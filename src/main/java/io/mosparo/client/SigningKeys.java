@@ -0,0 +1,84 @@
+package io.mosparo.client;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * The public key and private key of a mosparo project, signing the requests.
+ * <p>
+ * A {@link Mac} is not thread-safe, so each thread signs with its own {@link Mac}, initialized once with the private key.
+ * The keys are immutable: rotating them means replacing the instance.
+ */
+public final class SigningKeys {
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final String publicKey;
+    private final byte[] publicKeyBytes;
+    private final SecretKeySpec privateKey;
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * Creates the signing keys of a mosparo project.
+     *
+     * @param publicKey the public key
+     * @param privateKey the private key
+     * @throws IllegalArgumentException if the given {@code privateKey} is inappropriate for
+     *         initializing a {@link Mac} using {@code HmacSHA256} algorithm.
+     */
+    public SigningKeys(String publicKey, String privateKey) {
+        this.publicKey = publicKey;
+        this.publicKeyBytes = publicKey.getBytes(StandardCharsets.UTF_8);
+        this.privateKey = new SecretKeySpec(privateKey.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+        // Fails now rather than on the first request
+        Mac mac = createMac(this.privateKey);
+        this.macs = ThreadLocal.withInitial(() -> createMac(this.privateKey));
+        this.macs.set(mac);
+    }
+
+    private static Mac createMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            // Every implementation of the Java platform is required to support HmacSHA256
+            // Only reason for hitting here is an illegal privateKey as argument
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    /**
+     * Calculates the HMAC SHA256 hash of data with the private key.
+     *
+     * @param data the data to get the hash of
+     * @return hexadecimal String representation of the hashed data
+     */
+    public String hmacHex(String data) {
+        return HexCodec.encode(macs.get().doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Creates the credentials of the {@code Authorization} header of a request: the public key and the HMAC SHA256 hash
+     * of the endpoint and body, separated by a colon. The digits of the hash are written directly after the public key.
+     *
+     * @param data the endpoint followed by the body of the request
+     * @return the UTF-8 bytes of the credentials
+     */
+    byte[] credentials(String data) {
+        byte[] hash = macs.get().doFinal(data.getBytes(StandardCharsets.UTF_8));
+        byte[] credentials = new byte[publicKeyBytes.length + 1 + 2 * hash.length];
+        System.arraycopy(publicKeyBytes, 0, credentials, 0, publicKeyBytes.length);
+        credentials[publicKeyBytes.length] = ':';
+        HexCodec.encode(hash, credentials, publicKeyBytes.length + 1);
+        return credentials;
+    }
+}
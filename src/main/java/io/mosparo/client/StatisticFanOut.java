@@ -0,0 +1,180 @@
+package io.mosparo.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs many statistic queries in parallel, for example for hundreds of projects or for a long history split into
+ * several queries, and merges the statistics of each project into one {@link StatisticSeries}.
+ * <p>
+ * At most {@code maxConcurrency} queries run at the same time. A failed query does not fail the others: the result holds
+ * the series merged from the successful queries, and the error of each failed query. A query failing with an
+ * {@link Error} is reported with an {@link ExecutionException}, and the error is left to the executor.
+ *
+ * <pre>
+ * StatisticFanOut fanOut = new StatisticFanOut(executor, 16);
+ * StatisticFanOut.Result result = fanOut.fetch(List.of(
+ *         new StatisticQuery("shop", shopClient, null, LocalDate.now().minusDays(30)),
+ *         new StatisticQuery("blog", blogClient, null, LocalDate.now().minusDays(30))));
+ * </pre>
+ */
+public class StatisticFanOut {
+
+    private final Executor executor;
+    private final int maxConcurrency;
+
+    /**
+     * Creates a fan-out.
+     *
+     * @param executor the executor running the queries
+     * @param maxConcurrency the maximum number of queries running at the same time
+     */
+    public StatisticFanOut(Executor executor, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Runs the queries and waits for all of them.
+     *
+     * @param queries the queries, without duplicates
+     * @return the series of each project and the errors of the failed queries
+     * @throws IllegalArgumentException if a query is given twice, its errors could not be told apart
+     * @throws InterruptedIOException if interrupted while waiting, the queries already started still run
+     */
+    public Result fetch(Collection<StatisticQuery> queries) throws InterruptedIOException {
+        List<StatisticQuery> list = List.copyOf(queries);
+        if (new HashSet<>(list).size() != list.size()) {
+            throw new IllegalArgumentException("Duplicate statistic queries");
+        }
+        StatisticSeries[] series = new StatisticSeries[list.size()];
+        Exception[] errors = new Exception[list.size()];
+        Semaphore permits = new Semaphore(maxConcurrency);
+        CountDownLatch done = new CountDownLatch(list.size());
+
+        try {
+            for (int i = 0; i < list.size(); i++) {
+                int index = i;
+                StatisticQuery query = list.get(i);
+                permits.acquire();
+                Runnable task = () -> {
+                    try {
+                        series[index] = query.getClient().statisticSeriesByDate(query.getRange(), query.getStartDate());
+                    } catch (IOException | MosparoException | RuntimeException e) {
+                        errors[index] = e;
+                    } catch (Error e) {
+                        // Reported like a failed query, so the other results are still merged
+                        errors[index] = new ExecutionException(e);
+                        throw e;
+                    } finally {
+                        permits.release();
+                        done.countDown();
+                    }
+                };
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    errors[index] = e;
+                    permits.release();
+                    done.countDown();
+                }
+            }
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the statistic queries");
+        }
+
+        return merge(list, series, errors);
+    }
+
+    private static Result merge(List<StatisticQuery> queries, StatisticSeries[] series, Exception[] errors) {
+        // The queries of a project are merged in their order, so the numbers of a later query win
+        Map<String, StatisticSeries.Builder> builders = new LinkedHashMap<>();
+        Map<StatisticQuery, Exception> failures = new LinkedHashMap<>();
+        for (int i = 0; i < queries.size(); i++) {
+            StatisticQuery query = queries.get(i);
+            StatisticSeries.Builder builder = builders.computeIfAbsent(query.getProject(), p -> StatisticSeries.builder());
+            if (errors[i] != null) {
+                failures.put(query, errors[i]);
+            } else {
+                series[i].forEach(builder);
+            }
+        }
+
+        Map<String, StatisticSeries> merged = new LinkedHashMap<>();
+        builders.forEach((project, builder) -> merged.put(project, builder.build()));
+        return new Result(merged, failures);
+    }
+
+    /**
+     * The result of a fan-out: a series for every project, and the errors of the failed queries.
+     */
+    public static final class Result {
+
+        private final Map<String, StatisticSeries> series;
+        private final Map<StatisticQuery, Exception> errors;
+
+        Result(Map<String, StatisticSeries> series, Map<StatisticQuery, Exception> errors) {
+            this.series = Collections.unmodifiableMap(series);
+            this.errors = Collections.unmodifiableMap(errors);
+        }
+
+        /**
+         * @return the series of every project, merged from its successful queries, in the order of the queries
+         */
+        public Map<String, StatisticSeries> getSeries() {
+            return series;
+        }
+
+        /**
+         * @param project the project
+         * @return the series of the project, empty if all its queries failed or if it was not queried
+         */
+        public StatisticSeries getSeries(String project) {
+            return series.getOrDefault(project, StatisticSeries.empty());
+        }
+
+        /**
+         * @return the error of every failed query
+         */
+        public Map<StatisticQuery, Exception> getErrors() {
+            return errors;
+        }
+
+        /**
+         * @return the projects with at least one failed query, whose series may be incomplete
+         */
+        public List<String> getIncompleteProjects() {
+            List<String> projects = new ArrayList<>();
+            errors.keySet().forEach(query -> {
+                if (!projects.contains(query.getProject())) {
+                    projects.add(query.getProject());
+                }
+            });
+            return projects;
+        }
+
+        /**
+         * @return {@code true} if every query succeeded
+         */
+        public boolean isComplete() {
+            return errors.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package io.mosparo.client;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streams a statistic by-date response, passing the daily numbers to a {@link DailyStatisticVisitor} as they are read,
+ * instead of binding them to a {@code Map<LocalDate, Statistic>}.
+ *
+ * @see <a href="https://documentation.mosparo.io/docs/api/statistic#response">mosparo API documentation</a>
+ */
+final class StatisticParser {
+
+    private StatisticParser() {
+    }
+
+    /**
+     * Parses a statistic by-date response.
+     *
+     * @param parser the parser of the response
+     * @param visitor the visitor of the daily numbers
+     * @return the total numbers of valid and spam submissions
+     * @throws IOException if the response is not valid
+     * @throws MosparoException if mosparo returned an error
+     */
+    static StatisticResult.Statistic parse(JsonParser parser, DailyStatisticVisitor visitor)
+            throws IOException, MosparoException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a JSON object");
+        }
+
+        boolean error = false;
+        String errorMessage = null;
+        StatisticResult.Statistic totals = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (name) {
+                case "error" -> error = token == JsonToken.VALUE_TRUE;
+                case "errorMessage" -> errorMessage = token == JsonToken.VALUE_NULL ? null : parser.getText();
+                case "data" -> {
+                    if (token == JsonToken.START_OBJECT) {
+                        totals = parseData(parser, visitor);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (error) {
+            throw new MosparoException(errorMessage);
+        }
+        if (totals == null) {
+            throw new JsonParseException(parser, "Missing statistic data");
+        }
+        return totals;
+    }
+
+    private static StatisticResult.Statistic parseData(JsonParser parser, DailyStatisticVisitor visitor)
+            throws IOException {
+        int numberOfValidSubmissions = 0;
+        int numberOfSpamSubmissions = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (name) {
+                case "numberOfValidSubmissions" -> numberOfValidSubmissions = parser.getIntValue();
+                case "numberOfSpamSubmissions" -> numberOfSpamSubmissions = parser.getIntValue();
+                case "numbersByDate" -> {
+                    // An empty PHP array is serialized as [] instead of {}
+                    if (token == JsonToken.START_OBJECT) {
+                        parseNumbersByDate(parser, visitor);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return new StatisticResult.Statistic(numberOfValidSubmissions, numberOfSpamSubmissions);
+    }
+
+    private static void parseNumbersByDate(JsonParser parser, DailyStatisticVisitor visitor) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            long epochDay = parseEpochDay(parser);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected the statistic of a date");
+            }
+
+            int numberOfValidSubmissions = 0;
+            int numberOfSpamSubmissions = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                switch (name) {
+                    case "numberOfValidSubmissions" -> numberOfValidSubmissions = parser.getIntValue();
+                    case "numberOfSpamSubmissions" -> numberOfSpamSubmissions = parser.getIntValue();
+                    default -> parser.skipChildren();
+                }
+            }
+            visitor.visit(epochDay, numberOfValidSubmissions, numberOfSpamSubmissions);
+        }
+    }
+
+    /**
+     * Parses an ISO local date (yyyy-MM-dd) directly from the characters of the current field name.
+     */
+    static long parseEpochDay(JsonParser parser) throws IOException {
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        if (parser.getTextLength() == 10 && chars[offset + 4] == '-' && chars[offset + 7] == '-') {
+            int year = digits(chars, offset, 4);
+            int month = digits(chars, offset + 5, 2);
+            int day = digits(chars, offset + 8, 2);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                try {
+                    return LocalDate.of(year, month, day).toEpochDay();
+                } catch (DateTimeException e) {
+                    // Reported below
+                }
+            }
+        }
+        throw new JsonParseException(parser, "Invalid date: " + parser.getText());
+    }
+
+    private static int digits(char[] chars, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,20 @@
+package io.mosparo.client;
+
+import java.time.LocalDate;
+
+import lombok.Value;
+
+/**
+ * A statistic query of a {@link StatisticFanOut}: the statistics of a project, from the client of the project, with the
+ * arguments of {@link MosparoClient#statisticByDate(Integer, LocalDate)}.
+ * <p>
+ * The queries of the same project are merged into one series, so a long history can be split into several queries.
+ */
+@Value
+public class StatisticQuery {
+
+    String project;
+    MosparoClient client;
+    Integer range;
+    LocalDate startDate;
+}
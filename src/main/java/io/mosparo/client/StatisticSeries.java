@@ -0,0 +1,159 @@
+package io.mosparo.client;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A compact, columnar time series of daily statistics: two int arrays of valid and spam submissions, indexed by the
+ * number of days since the first day of the series.
+ * <p>
+ * The days within the series without numbers count as zero.
+ */
+public final class StatisticSeries {
+
+    private static final StatisticSeries EMPTY = new StatisticSeries(0, new int[0], new int[0]);
+
+    private final long firstEpochDay;
+    private final int[] valid;
+    private final int[] spam;
+
+    private StatisticSeries(long firstEpochDay, int[] valid, int[] spam) {
+        this.firstEpochDay = firstEpochDay;
+        this.valid = valid;
+        this.spam = spam;
+    }
+
+    public static StatisticSeries empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the number of days of the series
+     */
+    public int size() {
+        return valid.length;
+    }
+
+    public boolean isEmpty() {
+        return valid.length == 0;
+    }
+
+    /**
+     * @return the first day of the series, {@code null} if the series is empty
+     */
+    public LocalDate getFirstDate() {
+        return isEmpty() ? null : LocalDate.ofEpochDay(firstEpochDay);
+    }
+
+    /**
+     * @return the last day of the series, {@code null} if the series is empty
+     */
+    public LocalDate getLastDate() {
+        return isEmpty() ? null : LocalDate.ofEpochDay(firstEpochDay + valid.length - 1);
+    }
+
+    public int getNumberOfValidSubmissions(LocalDate date) {
+        int index = index(date.toEpochDay());
+        return index < 0 ? 0 : valid[index];
+    }
+
+    public int getNumberOfSpamSubmissions(LocalDate date) {
+        int index = index(date.toEpochDay());
+        return index < 0 ? 0 : spam[index];
+    }
+
+    private int index(long epochDay) {
+        long index = epochDay - firstEpochDay;
+        return index >= 0 && index < valid.length ? (int) index : -1;
+    }
+
+    public long getTotalValidSubmissions() {
+        return Arrays.stream(valid).asLongStream().sum();
+    }
+
+    public long getTotalSpamSubmissions() {
+        return Arrays.stream(spam).asLongStream().sum();
+    }
+
+    /**
+     * Visits every day of the series, in chronological order, including the days without submissions.
+     *
+     * @param visitor the visitor of the days
+     */
+    public void forEach(DailyStatisticVisitor visitor) {
+        for (int i = 0; i < valid.length; i++) {
+            visitor.visit(firstEpochDay + i, valid[i], spam[i]);
+        }
+    }
+
+    /**
+     * @return the numbers of the series by date, like {@link StatisticResult.StatisticData#getNumbersByDate()}
+     */
+    public Map<LocalDate, StatisticResult.Statistic> toMap() {
+        Map<LocalDate, StatisticResult.Statistic> map = new TreeMap<>();
+        forEach((epochDay, numberOfValid, numberOfSpam) -> map.put(LocalDate.ofEpochDay(epochDay),
+                new StatisticResult.Statistic(numberOfValid, numberOfSpam)));
+        return map;
+    }
+
+    /**
+     * Builds a {@link StatisticSeries} from days visited in any order. When a day is visited several times, the last
+     * numbers win.
+     */
+    public static final class Builder implements DailyStatisticVisitor {
+
+        private long firstEpochDay;
+        private int size;
+        private int[] valid = new int[0];
+        private int[] spam = new int[0];
+
+        private Builder() {
+        }
+
+        @Override
+        public void visit(long epochDay, int numberOfValidSubmissions, int numberOfSpamSubmissions) {
+            if (size == 0) {
+                firstEpochDay = epochDay;
+                size = 1;
+                valid = new int[16];
+                spam = new int[16];
+            } else if (epochDay < firstEpochDay) {
+                // Prepends the missing days
+                int shift = Math.toIntExact(firstEpochDay - epochDay);
+                int newSize = Math.addExact(size, shift);
+                int[] newValid = new int[Math.max(newSize, valid.length)];
+                int[] newSpam = new int[newValid.length];
+                System.arraycopy(valid, 0, newValid, shift, size);
+                System.arraycopy(spam, 0, newSpam, shift, size);
+                valid = newValid;
+                spam = newSpam;
+                firstEpochDay = epochDay;
+                size = newSize;
+            } else if (epochDay - firstEpochDay >= size) {
+                int newSize = Math.toIntExact(epochDay - firstEpochDay + 1);
+                if (newSize > valid.length) {
+                    int capacity = Math.max(newSize, valid.length * 2);
+                    valid = Arrays.copyOf(valid, capacity);
+                    spam = Arrays.copyOf(spam, capacity);
+                }
+                size = newSize;
+            }
+            int index = (int) (epochDay - firstEpochDay);
+            valid[index] = numberOfValidSubmissions;
+            spam[index] = numberOfSpamSubmissions;
+        }
+
+        public StatisticSeries build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            return new StatisticSeries(firstEpochDay, Arrays.copyOf(valid, size), Arrays.copyOf(spam, size));
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package io.mosparo.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A local, persistent store of the daily statistics of a mosparo project.
+ * <p>
+ * mosparo only keeps the statistics of the last days, and {@link MosparoClient#statisticByDate(Integer, LocalDate)}
+ * returns the whole window each time. This store fetches only the days since its last update, and keeps the numbers of
+ * valid and spam submissions of the last {@code capacity} days in two int arrays indexed by epoch day, stored in a
+ * memory-mapped file. The numbers survive restarts, and are kept locally after mosparo deleted them.
+ * <p>
+ * Range, rolling-window and rate queries are answered locally, without any communication with mosparo. An update only
+ * blocks the queries while the fetched days are written, not during the call to mosparo.
+ *
+ * <pre>
+ * try (StatisticStore store = StatisticStore.open(Path.of("statistics.bin"), 366)) {
+ *     store.update(client);
+ *     double spamRate = store.getSpamRate(30);
+ * }
+ * </pre>
+ */
+public class StatisticStore implements Closeable {
+
+    private static final int MAGIC = 0x4D535354; // MSST
+    private static final int VERSION = 1;
+    private static final long NEVER_UPDATED = Long.MIN_VALUE;
+
+    // Header: magic (int), version (int), capacity (int), reserved (int), last update epoch day (long)
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int LAST_UPDATE_OFFSET = 16;
+    private static final int HEADER_SIZE = 32;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final Clock clock;
+    // Serializes the updates, which hold the write lock only to store the fetched days
+    private final Object updateLock = new Object();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private StatisticStore(FileChannel channel, MappedByteBuffer buffer, int capacity, Clock clock) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.clock = clock;
+    }
+
+    /**
+     * Opens a statistic store, creating its file if it does not exist.
+     *
+     * @param file the file of the store
+     * @param capacity the number of days kept in the store
+     * @return the statistic store
+     * @throws IOException if the file cannot be opened, or was created with another capacity
+     */
+    public static StatisticStore open(Path file, int capacity) throws IOException {
+        return open(file, capacity, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Opens a statistic store, creating its file if it does not exist.
+     *
+     * @param file the file of the store
+     * @param capacity the number of days kept in the store
+     * @param clock the clock giving the current day
+     * @return the statistic store
+     * @throws IOException if the file cannot be opened, or was created with another capacity
+     */
+    public static StatisticStore open(Path file, int capacity, Clock clock) throws IOException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            boolean created = channel.size() == 0;
+            long size = HEADER_SIZE + 2L * Integer.BYTES * capacity;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (created) {
+                buffer.putInt(MAGIC_OFFSET, MAGIC);
+                buffer.putInt(VERSION_OFFSET, VERSION);
+                buffer.putInt(CAPACITY_OFFSET, capacity);
+                buffer.putLong(LAST_UPDATE_OFFSET, NEVER_UPDATED);
+                buffer.force();
+            } else if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException("Not a statistic store: " + file);
+            } else if (buffer.getInt(CAPACITY_OFFSET) != capacity) {
+                throw new IOException(String.format("Statistic store %s has a capacity of %d days, not %d", file,
+                        buffer.getInt(CAPACITY_OFFSET), capacity));
+            }
+            return new StatisticStore(channel, buffer, capacity, clock);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Fetches the statistics since the last update, or of the whole capacity on the first update, and stores them.
+     * <p>
+     * The day of the last update is fetched again, as its numbers were not final yet.
+     *
+     * @param client the client of the mosparo project
+     * @throws IOException if a communication error occurs
+     * @throws MosparoException if mosparo returns an error
+     */
+    public void update(MosparoClient client) throws IOException, MosparoException {
+        synchronized (updateLock) {
+            long today = LocalDate.now(clock).toEpochDay();
+            long firstDay = today - capacity + 1;
+            // Only written by the updates
+            long lastUpdate = getLastUpdateEpochDay();
+            // Everything is fetched again on the first update, or if the clock went back
+            long startDay = lastUpdate == NEVER_UPDATED || lastUpdate > today ? firstDay
+                    : Math.max(firstDay, lastUpdate);
+
+            StatisticSeries series = client.statisticSeriesByDate(null, LocalDate.ofEpochDay(startDay));
+
+            lock.writeLock().lock();
+            try {
+                // The fetched days replace the stored ones, days without submissions are not returned by mosparo
+                for (long day = startDay; day <= today; day++) {
+                    put(day, 0, 0);
+                }
+                series.forEach((day, valid, spam) -> {
+                    if (day >= startDay && day <= today) {
+                        put(day, valid, spam);
+                    }
+                });
+                buffer.putLong(LAST_UPDATE_OFFSET, today);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            buffer.force();
+        }
+    }
+
+    private void put(long epochDay, int valid, int spam) {
+        int slot = slot(epochDay);
+        buffer.putInt(validOffset(slot), valid);
+        buffer.putInt(spamOffset(slot), spam);
+    }
+
+    private int slot(long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) capacity);
+    }
+
+    private static int validOffset(int slot) {
+        return HEADER_SIZE + slot * Integer.BYTES;
+    }
+
+    private int spamOffset(int slot) {
+        return HEADER_SIZE + (capacity + slot) * Integer.BYTES;
+    }
+
+    private long getLastUpdateEpochDay() {
+        return buffer.getLong(LAST_UPDATE_OFFSET);
+    }
+
+    /**
+     * @return the day of the last update, or {@code null} if the store was never updated
+     */
+    public LocalDate getLastUpdate() {
+        lock.readLock().lock();
+        try {
+            long lastUpdate = getLastUpdateEpochDay();
+            return lastUpdate == NEVER_UPDATED ? null : LocalDate.ofEpochDay(lastUpdate);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the numbers of valid and spam submissions of a day, zero for the days which are not stored.
+     *
+     * @param date the day
+     * @return the numbers of the day
+     */
+    public StatisticResult.Statistic get(LocalDate date) {
+        return getSum(date, date);
+    }
+
+    /**
+     * Returns the total numbers of valid and spam submissions of a range of days. The days which are not stored count
+     * as zero, and a total over {@link Integer#MAX_VALUE} is capped to it.
+     *
+     * @param from the first day, inclusive
+     * @param to the last day, inclusive
+     * @return the total numbers of the range
+     */
+    public StatisticResult.Statistic getSum(LocalDate from, LocalDate to) {
+        long[] sum = sum(from, to);
+        return new StatisticResult.Statistic(cap(sum[0]), cap(sum[1]));
+    }
+
+    /**
+     * @return the total numbers of valid and spam submissions of a range of days
+     */
+    private long[] sum(LocalDate from, LocalDate to) {
+        long valid = 0;
+        long spam = 0;
+        lock.readLock().lock();
+        try {
+            long lastUpdate = getLastUpdateEpochDay();
+            if (lastUpdate != NEVER_UPDATED) {
+                // Only the stored days are read
+                long first = Math.max(from.toEpochDay(), lastUpdate - capacity + 1);
+                long last = Math.min(to.toEpochDay(), lastUpdate);
+                for (long day = first; day <= last; day++) {
+                    int slot = slot(day);
+                    valid += buffer.getInt(validOffset(slot));
+                    spam += buffer.getInt(spamOffset(slot));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new long[] { valid, spam };
+    }
+
+    private static int cap(long sum) {
+        return (int) Math.min(sum, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the total numbers of valid and spam submissions of the last days, including today.
+     *
+     * @param days the number of days of the rolling window
+     * @return the total numbers of the window
+     */
+    public StatisticResult.Statistic getSumOfLastDays(int days) {
+        LocalDate today = LocalDate.now(clock);
+        return getSum(today.minusDays(days - 1L), today);
+    }
+
+    /**
+     * Returns the ratio of spam submissions over all the submissions of a range of days.
+     *
+     * @param from the first day, inclusive
+     * @param to the last day, inclusive
+     * @return the spam rate, {@code 0} if there was no submission
+     */
+    public double getSpamRate(LocalDate from, LocalDate to) {
+        return spamRate(sum(from, to));
+    }
+
+    /**
+     * Returns the ratio of spam submissions over all the submissions of the last days, including today.
+     *
+     * @param days the number of days of the rolling window
+     * @return the spam rate, {@code 0} if there was no submission
+     */
+    public double getSpamRate(int days) {
+        LocalDate today = LocalDate.now(clock);
+        return spamRate(sum(today.minusDays(days - 1L), today));
+    }
+
+    private static double spamRate(long[] sum) {
+        long total = sum[0] + sum[1];
+        return total == 0 ? 0 : (double) sum[1] / total;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (updateLock) {
+            lock.writeLock().lock();
+            try {
+                buffer.force();
+                channel.close();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package io.mosparo.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.security.MessageDigest;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Computes the SHA-256 hash of form field values incrementally, through a small fixed buffer.
+ * <p>
+ * The values are normalized like {@code value.replace("\r\n", "\n")} and encoded in UTF-8 on the fly, so the result is the
+ * same as {@code DigestUtils.sha256Hex(value.replace("\r\n", "\n"))}, but without materializing the value nor its
+ * normalized copy. A CRLF sequence split across two buffers is normalized as well.
+ */
+final class StreamingHasher {
+
+    static final int BUFFER_SIZE = 8192;
+
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    private final MessageDigest digest = DigestUtils.getSha256Digest();
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    private boolean pendingCarriageReturn;
+    private char pendingHighSurrogate;
+
+    private StreamingHasher() {
+    }
+
+    /**
+     * Hashes a sequence of characters.
+     *
+     * @param value the characters to hash
+     * @return hexadecimal String representation of the SHA-256 hash
+     */
+    static String sha256Hex(CharSequence value) {
+        StreamingHasher hasher = new StreamingHasher();
+        for (int i = 0, length = value.length(); i < length; i++) {
+            hasher.updateChar(value.charAt(i));
+        }
+        return hasher.finish();
+    }
+
+    /**
+     * Hashes the characters read from a {@link Reader}. The reader is read to the end, but not closed.
+     *
+     * @param reader the reader to hash
+     * @return hexadecimal String representation of the SHA-256 hash
+     * @throws IOException if reading fails
+     */
+    static String sha256Hex(Reader reader) throws IOException {
+        StreamingHasher hasher = new StreamingHasher();
+        char[] chars = new char[BUFFER_SIZE / 4];
+        int read;
+        while ((read = reader.read(chars)) != -1) {
+            for (int i = 0; i < read; i++) {
+                hasher.updateChar(chars[i]);
+            }
+        }
+        return hasher.finish();
+    }
+
+    /**
+     * Hashes the UTF-8 encoded text read from an {@link InputStream}. The stream is read to the end, but not closed.
+     * <p>
+     * As CR and LF never occur inside a multibyte UTF-8 sequence, the text is normalized directly on the bytes.
+     *
+     * @param in the stream to hash
+     * @return hexadecimal String representation of the SHA-256 hash
+     * @throws IOException if reading fails
+     */
+    static String sha256Hex(InputStream in) throws IOException {
+        StreamingHasher hasher = new StreamingHasher();
+        byte[] bytes = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(bytes)) != -1) {
+            for (int i = 0; i < read; i++) {
+                hasher.updateNormalizedByte(bytes[i]);
+            }
+        }
+        return hasher.finish();
+    }
+
+    private void updateNormalizedByte(byte b) {
+        if (pendingCarriageReturn) {
+            pendingCarriageReturn = false;
+            if (b != LF) {
+                write(CR);
+            }
+        }
+        if (b == CR) {
+            pendingCarriageReturn = true;
+        } else {
+            write(b);
+        }
+    }
+
+    private void updateChar(char c) {
+        if (pendingHighSurrogate != 0) {
+            char high = pendingHighSurrogate;
+            pendingHighSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                writeCodePoint(Character.toCodePoint(high, c));
+                return;
+            }
+            // Unpaired surrogate, replaced like String.getBytes(UTF_8) does
+            updateNormalizedByte((byte) '?');
+        }
+
+        if (c < 0x80) {
+            updateNormalizedByte((byte) c);
+        } else if (Character.isHighSurrogate(c)) {
+            pendingHighSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            updateNormalizedByte((byte) '?');
+        } else {
+            writeCodePoint(c);
+        }
+    }
+
+    private void writeCodePoint(int codePoint) {
+        // Only ASCII can be a CR, so a pending CR is simply flushed
+        if (pendingCarriageReturn) {
+            pendingCarriageReturn = false;
+            write(CR);
+        }
+        if (codePoint < 0x800) {
+            write((byte) (0xC0 | (codePoint >> 6)));
+            write((byte) (0x80 | (codePoint & 0x3F)));
+        } else if (codePoint < 0x10000) {
+            write((byte) (0xE0 | (codePoint >> 12)));
+            write((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            write((byte) (0x80 | (codePoint & 0x3F)));
+        } else {
+            write((byte) (0xF0 | (codePoint >> 18)));
+            write((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+            write((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            write((byte) (0x80 | (codePoint & 0x3F)));
+        }
+    }
+
+    private void write(byte b) {
+        if (position == buffer.length) {
+            digest.update(buffer, 0, position);
+            position = 0;
+        }
+        buffer[position++] = b;
+    }
+
+    private String finish() {
+        if (pendingHighSurrogate != 0) {
+            pendingHighSurrogate = 0;
+            updateNormalizedByte((byte) '?');
+        }
+        if (pendingCarriageReturn) {
+            pendingCarriageReturn = false;
+            write(CR);
+        }
+        digest.update(buffer, 0, position);
+        return HexCodec.encode(digest.digest());
+    }
+}
@@ -0,0 +1,277 @@
+package io.mosparo.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * A {@link ResponseCodec} reading the {@link VerificationResult}, {@link StatisticResult} and {@link HealthCheckResult}
+ * responses with hand-written decoders on the Jackson streaming parser, without reflection, data binding nor
+ * deserializer lookup.
+ * <p>
+ * The unknown properties are skipped without being read into objects, and the field statuses of
+ * {@link VerificationResult#getVerifiedFields()} are the {@code FIELD_*} constants instead of new strings. Like
+ * {@link StatisticParser}, an empty PHP array {@code []} is accepted in place of an empty object.
+ */
+public class StreamingResponseCodec implements ResponseCodec {
+
+    private static final String[] FIELD_STATUSES = {
+            VerificationResult.FIELD_VALID, VerificationResult.FIELD_INVALID, VerificationResult.FIELD_NOT_VERIFIED };
+
+    private final JsonFactory factory = new JsonFactory();
+
+    @Override
+    public boolean supports(Class<?> type) {
+        return type == VerificationResult.class || type == StatisticResult.class || type == HealthCheckResult.class;
+    }
+
+    @Override
+    public <T> T decode(InputStream in, Class<T> type) throws IOException {
+        try (JsonParser parser = factory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object");
+            }
+            Object result;
+            if (type == VerificationResult.class) {
+                result = decodeVerificationResult(parser);
+            } else if (type == StatisticResult.class) {
+                result = decodeStatisticResult(parser);
+            } else if (type == HealthCheckResult.class) {
+                result = decodeHealthCheckResult(parser);
+            } else {
+                throw new IllegalArgumentException("Unsupported type: " + type.getName());
+            }
+            return type.cast(result);
+        }
+    }
+
+    private static VerificationResult decodeVerificationResult(JsonParser parser) throws IOException {
+        Boolean valid = null;
+        String verificationSignature = null;
+        Map<String, String> verifiedFields = null;
+        List<VerificationResult.Issue> issues = null;
+        Boolean error = null;
+        String errorMessage = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (name) {
+                case "valid" -> valid = booleanValue(parser, token);
+                case "verificationSignature" -> verificationSignature = stringValue(parser, token);
+                case "verifiedFields" -> verifiedFields = decodeVerifiedFields(parser, token);
+                case "issues" -> issues = decodeIssues(parser, token);
+                case "error" -> error = booleanValue(parser, token);
+                case "errorMessage" -> errorMessage = stringValue(parser, token);
+                default -> parser.skipChildren();
+            }
+        }
+        return new VerificationResult(valid, verificationSignature, verifiedFields, issues, error, errorMessage);
+    }
+
+    private static Map<String, String> decodeVerifiedFields(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        Map<String, String> verifiedFields = new LinkedHashMap<>();
+        if (isEmptyArray(parser, token)) {
+            return verifiedFields;
+        }
+        expect(parser, token, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            verifiedFields.put(field, value == JsonToken.VALUE_STRING ? fieldStatus(parser) : stringValue(parser, value));
+        }
+        return verifiedFields;
+    }
+
+    /**
+     * Returns the constant of a known field status, compared on the characters of the parser without creating a string.
+     */
+    private static String fieldStatus(JsonParser parser) throws IOException {
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+        for (String status : FIELD_STATUSES) {
+            if (regionMatches(status, chars, offset, length)) {
+                return status;
+            }
+        }
+        return parser.getText();
+    }
+
+    private static boolean regionMatches(String string, char[] chars, int offset, int length) {
+        if (string.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (string.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<VerificationResult.Issue> decodeIssues(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, token, JsonToken.START_ARRAY);
+        List<VerificationResult.Issue> issues = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String issueName = null;
+            String message = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (name) {
+                    case "name" -> issueName = stringValue(parser, value);
+                    case "message" -> message = stringValue(parser, value);
+                    default -> parser.skipChildren();
+                }
+            }
+            issues.add(new VerificationResult.Issue(issueName, message));
+        }
+        expect(parser, parser.currentToken(), JsonToken.END_ARRAY);
+        return issues;
+    }
+
+    private static StatisticResult decodeStatisticResult(JsonParser parser) throws IOException {
+        Boolean result = null;
+        StatisticResult.StatisticData data = null;
+        Boolean error = null;
+        String errorMessage = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (name) {
+                case "result" -> result = booleanValue(parser, token);
+                case "data" -> data = token == JsonToken.VALUE_NULL ? null : decodeStatisticData(parser, token);
+                case "error" -> error = booleanValue(parser, token);
+                case "errorMessage" -> errorMessage = stringValue(parser, token);
+                default -> parser.skipChildren();
+            }
+        }
+        return new StatisticResult(result, data, error, errorMessage);
+    }
+
+    private static StatisticResult.StatisticData decodeStatisticData(JsonParser parser, JsonToken token)
+            throws IOException {
+        expect(parser, token, JsonToken.START_OBJECT);
+        int numberOfValidSubmissions = 0;
+        int numberOfSpamSubmissions = 0;
+        Map<LocalDate, StatisticResult.Statistic> numbersByDate = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case "numberOfValidSubmissions" -> numberOfValidSubmissions = intValue(parser, value);
+                case "numberOfSpamSubmissions" -> numberOfSpamSubmissions = intValue(parser, value);
+                case "numbersByDate" -> numbersByDate = decodeNumbersByDate(parser, value);
+                default -> parser.skipChildren();
+            }
+        }
+        return new StatisticResult.StatisticData(numberOfValidSubmissions, numberOfSpamSubmissions, numbersByDate);
+    }
+
+    private static Map<LocalDate, StatisticResult.Statistic> decodeNumbersByDate(JsonParser parser, JsonToken token)
+            throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        Map<LocalDate, StatisticResult.Statistic> numbersByDate = new LinkedHashMap<>();
+        if (isEmptyArray(parser, token)) {
+            return numbersByDate;
+        }
+        expect(parser, token, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            LocalDate date = LocalDate.ofEpochDay(StatisticParser.parseEpochDay(parser));
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            int numberOfValidSubmissions = 0;
+            int numberOfSpamSubmissions = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (name) {
+                    case "numberOfValidSubmissions" -> numberOfValidSubmissions = intValue(parser, value);
+                    case "numberOfSpamSubmissions" -> numberOfSpamSubmissions = intValue(parser, value);
+                    default -> parser.skipChildren();
+                }
+            }
+            numbersByDate.put(date, new StatisticResult.Statistic(numberOfValidSubmissions, numberOfSpamSubmissions));
+        }
+        return numbersByDate;
+    }
+
+    private static HealthCheckResult decodeHealthCheckResult(JsonParser parser) throws IOException {
+        String service = null;
+        Boolean healthy = null;
+        String databaseStatus = null;
+        String error = null;
+        int statusCode = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (name) {
+                case "service" -> service = stringValue(parser, token);
+                case "healthy" -> healthy = booleanValue(parser, token);
+                case "databaseStatus" -> databaseStatus = stringValue(parser, token);
+                case "error" -> error = stringValue(parser, token);
+                case "statusCode" -> statusCode = intValue(parser, token);
+                default -> parser.skipChildren();
+            }
+        }
+        return new HealthCheckResult(service, healthy, databaseStatus, error, statusCode);
+    }
+
+    private static boolean isEmptyArray(JsonParser parser, JsonToken token) throws IOException {
+        // An empty PHP array is serialized as [] instead of {}
+        if (token != JsonToken.START_ARRAY) {
+            return false;
+        }
+        expect(parser, parser.nextToken(), JsonToken.END_ARRAY);
+        return true;
+    }
+
+    private static void expect(JsonParser parser, JsonToken token, JsonToken expected) throws JsonParseException {
+        if (token != expected) {
+            throw new JsonParseException(parser, String.format("Expected %s, found %s", expected, token));
+        }
+    }
+
+    private static Boolean booleanValue(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_NULL -> null;
+            default -> throw new JsonParseException(parser, "Expected a boolean, found " + token);
+        };
+    }
+
+    private static String stringValue(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            throw new JsonParseException(parser, "Expected a string, found " + token);
+        }
+        return parser.getText();
+    }
+
+    private static int intValue(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_NUMBER_INT -> parser.getIntValue();
+            case VALUE_NULL -> 0;
+            default -> throw new JsonParseException(parser, "Expected an integer, found " + token);
+        };
+    }
+}
@@ -0,0 +1,151 @@
+package io.mosparo.client;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import io.mosparo.client.PreValidationException.Reason;
+
+/**
+ * Rejects obviously malformed submissions before any hashing, signing or communication with mosparo.
+ * <p>
+ * The checks are:
+ * <ul>
+ * <li>the submit and validation tokens are present, not longer than {@code maxTokenLength} and match
+ * {@code tokenPattern},</li>
+ * <li>the form data has no more than {@code maxFieldCount} fields, including the mosparo fields,</li>
+ * <li>every required field is present in the form data.</li>
+ * </ul>
+ * The number of rejections is counted for each {@link Reason}.
+ * <p>
+ * A pre-validation only rejects submissions that mosparo would not verify anyway, passing it does not mean anything about
+ * the validity of the submission.
+ */
+public class SubmissionPreValidator {
+
+    public static final int DEFAULT_MAX_FIELD_COUNT = 1000;
+    public static final int DEFAULT_MAX_TOKEN_LENGTH = 256;
+    public static final Pattern DEFAULT_TOKEN_PATTERN = Pattern.compile("[\\x21-\\x7E]+");
+
+    private final int maxFieldCount;
+    private final int maxTokenLength;
+    private final Pattern tokenPattern;
+
+    private final Map<Reason, LongAdder> rejections = new EnumMap<>(Reason.class);
+    private final LongAdder passed = new LongAdder();
+
+    /**
+     * Creates a pre-validator with default limits: up to {@value #DEFAULT_MAX_FIELD_COUNT} fields and tokens of up to
+     * {@value #DEFAULT_MAX_TOKEN_LENGTH} printable ASCII characters.
+     */
+    public SubmissionPreValidator() {
+        this(DEFAULT_MAX_FIELD_COUNT, DEFAULT_MAX_TOKEN_LENGTH, DEFAULT_TOKEN_PATTERN);
+    }
+
+    /**
+     * Creates a pre-validator.
+     *
+     * @param maxFieldCount the maximum number of fields of the form data, including the mosparo fields
+     * @param maxTokenLength the maximum length of the submit and validation tokens
+     * @param tokenPattern the pattern the submit and validation tokens must match
+     */
+    public SubmissionPreValidator(int maxFieldCount, int maxTokenLength, Pattern tokenPattern) {
+        this.maxFieldCount = maxFieldCount;
+        this.maxTokenLength = maxTokenLength;
+        this.tokenPattern = tokenPattern;
+        for (Reason reason : Reason.values()) {
+            rejections.put(reason, new LongAdder());
+        }
+    }
+
+    /**
+     * Pre-validates form data.
+     *
+     * @param formData the form data, included the mosparo fields
+     * @param requiredFields the fields that must be present in the form data
+     * @throws PreValidationException if the submission is rejected
+     */
+    public void validate(Map<String, Object> formData, Set<String> requiredFields) throws PreValidationException {
+        checkFieldCount(formData.size());
+        checkToken(formData.get(RequestHelper.MOSPARO_SUBMIT_TOKEN_KEY), RequestHelper.MOSPARO_SUBMIT_TOKEN_KEY,
+                Reason.MISSING_SUBMIT_TOKEN, Reason.MALFORMED_SUBMIT_TOKEN);
+        checkToken(formData.get(RequestHelper.MOSPARO_VALIDATION_TOKEN_KEY), RequestHelper.MOSPARO_VALIDATION_TOKEN_KEY,
+                Reason.MISSING_VALIDATION_TOKEN, Reason.MALFORMED_VALIDATION_TOKEN);
+        checkRequiredFields(formData, requiredFields);
+        passed.increment();
+    }
+
+    /**
+     * Pre-validates multi-valued request parameters. The mosparo tokens must have exactly one value.
+     *
+     * @param parameters the request parameters, included the mosparo fields
+     * @param requiredFields the fields that must be present in the parameters
+     * @throws PreValidationException if the submission is rejected
+     */
+    public void validateParameters(Map<String, String[]> parameters, Set<String> requiredFields)
+            throws PreValidationException {
+        checkFieldCount(parameters.size());
+        checkToken(singleValue(parameters.get(RequestHelper.MOSPARO_SUBMIT_TOKEN_KEY)),
+                RequestHelper.MOSPARO_SUBMIT_TOKEN_KEY, Reason.MISSING_SUBMIT_TOKEN, Reason.MALFORMED_SUBMIT_TOKEN);
+        checkToken(singleValue(parameters.get(RequestHelper.MOSPARO_VALIDATION_TOKEN_KEY)),
+                RequestHelper.MOSPARO_VALIDATION_TOKEN_KEY, Reason.MISSING_VALIDATION_TOKEN,
+                Reason.MALFORMED_VALIDATION_TOKEN);
+        checkRequiredFields(parameters, requiredFields);
+        passed.increment();
+    }
+
+    private static Object singleValue(String[] values) {
+        if (values == null) {
+            return null;
+        }
+        // Several values cannot be a token, an array is reported as malformed
+        return values.length == 1 ? values[0] : values;
+    }
+
+    private void checkFieldCount(int fieldCount) throws PreValidationException {
+        if (fieldCount > maxFieldCount) {
+            throw reject(Reason.TOO_MANY_FIELDS,
+                    String.format("Form data has %d fields, more than the maximum of %d", fieldCount, maxFieldCount));
+        }
+    }
+
+    private void checkToken(Object token, String key, Reason missing, Reason malformed) throws PreValidationException {
+        if (token == null) {
+            throw reject(missing, key + " must be provided.");
+        }
+        if (!(token instanceof String value) || value.length() > maxTokenLength || !tokenPattern.matcher(value).matches()) {
+            throw reject(malformed, key + " is malformed.");
+        }
+    }
+
+    private void checkRequiredFields(Map<String, ?> formData, Set<String> requiredFields) throws PreValidationException {
+        for (String requiredField : requiredFields) {
+            if (!formData.containsKey(requiredField)) {
+                throw reject(Reason.MISSING_REQUIRED_FIELD,
+                        String.format("Required field '%s' missing from form data", requiredField));
+            }
+        }
+    }
+
+    private PreValidationException reject(Reason reason, String message) {
+        rejections.get(reason).increment();
+        return new PreValidationException(reason, message);
+    }
+
+    /**
+     * @param reason the reason of the rejections
+     * @return the number of submissions rejected for the given reason
+     */
+    public long getRejections(Reason reason) {
+        return rejections.get(reason).sum();
+    }
+
+    /**
+     * @return the number of submissions that passed the pre-validation
+     */
+    public long getPassed() {
+        return passed.sum();
+    }
+}
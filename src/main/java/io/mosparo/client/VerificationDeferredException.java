@@ -0,0 +1,25 @@
+package io.mosparo.client;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a verification could not be sent to mosparo and its request was appended to the
+ * {@link VerificationJournal}. The submission should be kept in quarantine until the {@link VerificationJournalDrainer}
+ * reports the result of its journal sequence number.
+ */
+public class VerificationDeferredException extends MosparoException {
+
+    private final long journalSequence;
+
+    public VerificationDeferredException(long journalSequence, IOException cause) {
+        super("Verification deferred, mosparo is unreachable: " + cause.getMessage(), cause);
+        this.journalSequence = journalSequence;
+    }
+
+    /**
+     * @return the sequence number of the journaled request
+     */
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+}
@@ -0,0 +1,360 @@
+package io.mosparo.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * A local, append-only journal of the verification requests which could not be sent to mosparo, stored in a
+ * memory-mapped file.
+ * <p>
+ * When it is configured with {@link MosparoClientConfig#getVerificationJournal()}, a verification failing with a
+ * communication error appends its prepared request, with the hashed form data and the signatures, and throws a
+ * {@link VerificationDeferredException}. The original form data is never written. A {@link VerificationJournalDrainer}
+ * sends the journaled requests again once mosparo is healthy.
+ * <p>
+ * An append only writes to the mapped memory, which the operating system writes to the file in the background, so the
+ * journaled requests survive a restart of the process. {@link #force()} also protects them against a crash of the
+ * operating system. Once every journaled request is done, the journal starts again at the beginning of its region of the
+ * file. The file holds two regions of the capacity of the journal: when the active region is full, its pending requests
+ * are copied to the other one, which only becomes active once the copy is complete, so a crash during the compaction
+ * leaves the journal as it was before.
+ *
+ * <pre>
+ * VerificationJournal journal = VerificationJournal.open(Path.of("verifications.journal"), 16 * 1024 * 1024);
+ * MosparoClient client = new MosparoDefaultClient(url, publicKey, privateKey, httpClient,
+ *         MosparoClientConfig.builder().verificationJournal(journal).build());
+ * </pre>
+ */
+public class VerificationJournal implements Closeable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final int MAGIC = 0x4D53564A; // MSVJ
+    private static final int VERSION = 2;
+
+    // Header: magic (int), version (int), capacity (int), active region (int), next sequence (long), reserved (long)
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int ACTIVE_REGION_OFFSET = 12;
+    private static final int NEXT_SEQUENCE_OFFSET = 16;
+    private static final int HEADER_SIZE = 32;
+
+    // Region, twice after the header: write position (long), records
+    private static final int REGION_HEADER_SIZE = 8;
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / 2 - REGION_HEADER_SIZE;
+
+    // Record: payload length (int), status (byte), padding, sequence (long), append time (long), JSON payload
+    private static final int RECORD_STATUS_OFFSET = 4;
+    private static final int RECORD_SEQUENCE_OFFSET = 8;
+    private static final int RECORD_TIME_OFFSET = 16;
+    private static final int RECORD_HEADER_SIZE = 24;
+
+    private static final byte PENDING = 1;
+    private static final byte DONE = 2;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int pending;
+
+    private VerificationJournal(FileChannel channel, MappedByteBuffer buffer, int capacity) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        for (int position = firstRecord(); position < getWritePosition(); position = next(position)) {
+            if (buffer.get(position + RECORD_STATUS_OFFSET) == PENDING) {
+                pending++;
+            }
+        }
+    }
+
+    /**
+     * Opens a verification journal, creating its file if it does not exist.
+     *
+     * @param file the file of the journal
+     * @param capacity the size of the records kept in the journal, in bytes, the file takes twice as much
+     * @return the verification journal
+     * @throws IOException if the file cannot be opened, or was created with another capacity
+     */
+    public static VerificationJournal open(Path file, int capacity) throws IOException {
+        if (capacity <= RECORD_HEADER_SIZE || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException(String.format("capacity must be greater than %d and at most %d",
+                    RECORD_HEADER_SIZE, MAX_CAPACITY));
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            boolean created = channel.size() == 0;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + 2L * (REGION_HEADER_SIZE + capacity));
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (created) {
+                buffer.putInt(MAGIC_OFFSET, MAGIC);
+                buffer.putInt(VERSION_OFFSET, VERSION);
+                buffer.putInt(CAPACITY_OFFSET, capacity);
+                buffer.putInt(ACTIVE_REGION_OFFSET, 0);
+                buffer.putLong(regionStart(0, capacity), regionStart(0, capacity) + REGION_HEADER_SIZE);
+                buffer.putLong(NEXT_SEQUENCE_OFFSET, 1);
+                buffer.force();
+            } else if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException("Not a verification journal: " + file);
+            } else if (buffer.getInt(CAPACITY_OFFSET) != capacity) {
+                throw new IOException(String.format("Verification journal %s has a capacity of %d bytes, not %d", file,
+                        buffer.getInt(CAPACITY_OFFSET), capacity));
+            }
+            return new VerificationJournal(channel, buffer, capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends a verification request to the journal, signed with unknown keys.
+     *
+     * @param request the prepared verification request
+     * @param requiredFields the required fields to check on the result
+     * @return the sequence number of the journaled request
+     * @throws IOException if the journal is full
+     */
+    public long append(VerificationRequest request, Set<String> requiredFields) throws IOException {
+        return append(request, requiredFields, null);
+    }
+
+    /**
+     * Appends a verification request to the journal.
+     *
+     * @param request the prepared verification request
+     * @param requiredFields the required fields to check on the result
+     * @param publicKey the public key of the keys which signed the request, {@code null} if unknown
+     * @return the sequence number of the journaled request
+     * @throws IOException if the journal is full
+     */
+    public synchronized long append(VerificationRequest request, Set<String> requiredFields, String publicKey)
+            throws IOException {
+        byte[] payload = MAPPER.writeValueAsBytes(toJson(request, requiredFields, publicKey));
+        int size = RECORD_HEADER_SIZE + payload.length;
+        if (getWritePosition() + size > firstRecord() + (long) capacity) {
+            compact();
+            if (getWritePosition() + size > firstRecord() + (long) capacity) {
+                throw new IOException(String.format("Verification journal full, %d requests pending", pending));
+            }
+        }
+
+        int position = getWritePosition();
+        long sequence = buffer.getLong(NEXT_SEQUENCE_OFFSET);
+        buffer.put(position + RECORD_HEADER_SIZE, payload);
+        buffer.putLong(position + RECORD_SEQUENCE_OFFSET, sequence);
+        buffer.putLong(position + RECORD_TIME_OFFSET, System.currentTimeMillis());
+        buffer.put(position + RECORD_STATUS_OFFSET, PENDING);
+        buffer.putInt(position, payload.length);
+        // The record is only visible once it is complete
+        buffer.putLong(NEXT_SEQUENCE_OFFSET, sequence + 1);
+        setWritePosition(position + size);
+        pending++;
+        return sequence;
+    }
+
+    /**
+     * Returns the oldest pending requests, in their order of appending.
+     *
+     * @param max the maximum number of returned requests
+     * @return the pending requests
+     * @throws IOException if a record cannot be read
+     */
+    public List<Entry> getPending(int max) throws IOException {
+        return getPending(max, 0);
+    }
+
+    /**
+     * Returns the oldest pending requests appended after a request, in their order of appending.
+     *
+     * @param max the maximum number of returned requests
+     * @param afterSequence the sequence number of the request after which the returned requests were appended
+     * @return the pending requests
+     * @throws IOException if a record cannot be read
+     */
+    public synchronized List<Entry> getPending(int max, long afterSequence) throws IOException {
+        List<Entry> entries = new ArrayList<>(Math.min(max, pending));
+        for (int position = firstRecord(); position < getWritePosition() && entries.size() < max; position = next(position)) {
+            if (buffer.get(position + RECORD_STATUS_OFFSET) == PENDING
+                    && buffer.getLong(position + RECORD_SEQUENCE_OFFSET) > afterSequence) {
+                entries.add(read(position));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Marks a journaled request as done, it will not be returned as pending anymore.
+     *
+     * @param entry the done request
+     */
+    public synchronized void markDone(Entry entry) {
+        int position = find(entry);
+        if (position < 0) {
+            return;
+        }
+        buffer.put(position + RECORD_STATUS_OFFSET, DONE);
+        if (--pending == 0) {
+            setWritePosition(firstRecord());
+        }
+    }
+
+    /**
+     * @return the number of pending requests
+     */
+    public synchronized int getPendingCount() {
+        return pending;
+    }
+
+    /**
+     * Writes the journal to the storage device.
+     */
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    private int find(Entry entry) {
+        // The record was moved if the journal was compacted since it was read
+        int position = entry.position;
+        if (position >= firstRecord() && position < getWritePosition()
+                && buffer.getLong(position + RECORD_SEQUENCE_OFFSET) == entry.sequence
+                && buffer.get(position + RECORD_STATUS_OFFSET) == PENDING) {
+            return position;
+        }
+        for (position = firstRecord(); position < getWritePosition(); position = next(position)) {
+            if (buffer.getLong(position + RECORD_SEQUENCE_OFFSET) == entry.sequence) {
+                return buffer.get(position + RECORD_STATUS_OFFSET) == PENDING ? position : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copies the pending records to the other region, and makes it the active one. The active region is only switched
+     * once the copy is written to the storage device, until then the journal is unchanged.
+     */
+    private void compact() {
+        int writePosition = getWritePosition();
+        if (pending == countRecords(writePosition)) {
+            // Nothing to reclaim
+            return;
+        }
+        int region = 1 - buffer.getInt(ACTIVE_REGION_OFFSET);
+        int target = regionStart(region, capacity) + REGION_HEADER_SIZE;
+        for (int position = firstRecord(); position < writePosition; position = next(position)) {
+            if (buffer.get(position + RECORD_STATUS_OFFSET) == PENDING) {
+                int size = next(position) - position;
+                buffer.put(target, buffer, position, size);
+                target += size;
+            }
+        }
+        buffer.putLong(regionStart(region, capacity), target);
+        buffer.force();
+        buffer.putInt(ACTIVE_REGION_OFFSET, region);
+    }
+
+    private int countRecords(int writePosition) {
+        int records = 0;
+        for (int position = firstRecord(); position < writePosition; position = next(position)) {
+            records++;
+        }
+        return records;
+    }
+
+    private int next(int position) {
+        return position + RECORD_HEADER_SIZE + buffer.getInt(position);
+    }
+
+    private static int regionStart(int region, int capacity) {
+        return HEADER_SIZE + region * (REGION_HEADER_SIZE + capacity);
+    }
+
+    private int firstRecord() {
+        return regionStart(buffer.getInt(ACTIVE_REGION_OFFSET), capacity) + REGION_HEADER_SIZE;
+    }
+
+    private int getWritePosition() {
+        return (int) buffer.getLong(regionStart(buffer.getInt(ACTIVE_REGION_OFFSET), capacity));
+    }
+
+    private void setWritePosition(int position) {
+        buffer.putLong(regionStart(buffer.getInt(ACTIVE_REGION_OFFSET), capacity), position);
+    }
+
+    private Entry read(int position) throws IOException {
+        byte[] payload = new byte[buffer.getInt(position)];
+        buffer.get(position + RECORD_HEADER_SIZE, payload);
+        JsonNode json = MAPPER.readTree(payload);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> formData = MAPPER.convertValue(json.get("formData"), LinkedHashMap.class);
+        VerificationRequest request = new VerificationRequest(json.get("submitToken").asText(),
+                json.get("validationSignature").asText(), json.get("formSignature").asText(), formData,
+                json.get("verificationSignature").asText());
+        Set<String> requiredFields = new LinkedHashSet<>();
+        json.get("requiredFields").forEach(field -> requiredFields.add(field.asText()));
+
+        return new Entry(buffer.getLong(position + RECORD_SEQUENCE_OFFSET), request, requiredFields,
+                json.path("publicKey").textValue(), buffer.getLong(position + RECORD_TIME_OFFSET), position);
+    }
+
+    private static ObjectNode toJson(VerificationRequest request, Set<String> requiredFields, String publicKey) {
+        ObjectNode json = MAPPER.createObjectNode();
+        json.put("submitToken", request.getSubmitToken());
+        json.put("validationSignature", request.getValidationSignature());
+        json.put("formSignature", request.getFormSignature());
+        json.set("formData", MAPPER.valueToTree(request.getFormData()));
+        json.put("verificationSignature", request.getVerificationSignature());
+        requiredFields.forEach(json.putArray("requiredFields")::add);
+        json.put("publicKey", publicKey);
+        return json;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    /**
+     * A journaled verification request.
+     */
+    @Value
+    public static class Entry {
+
+        long sequence;
+        VerificationRequest request;
+        Set<String> requiredFields;
+
+        // The public key of the keys which signed the request, null if unknown
+        String publicKey;
+        long appendedAtMillis;
+
+        // Position of the record when it was read
+        @Getter(AccessLevel.NONE)
+        transient int position;
+    }
+}
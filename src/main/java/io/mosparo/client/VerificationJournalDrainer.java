@@ -0,0 +1,172 @@
+package io.mosparo.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies the requests of a {@link VerificationJournal} once mosparo is healthy again.
+ * <p>
+ * Every run checks the health of mosparo first, then verifies the pending requests in batches, in their order of
+ * appending, and reports the results to a {@link DeferredVerificationListener}. A communication error, a call shed or
+ * rejected by the client, or a {@code 429} or server error status of mosparo stops the run, the remaining requests are
+ * verified by a later run. The other failures, such as a verification error of mosparo or a signature mismatch, are
+ * reported and done.
+ * <p>
+ * A request is verified with the keys which signed it when it was journaled: the current keys of the client, or its
+ * previous keys during the dual-key window of {@link MosparoDefaultClient#rotateSigningKeys}. A request signed with other
+ * keys, by the client of another project sharing the journal or with keys rotated out since, is left pending for
+ * another drainer; it can be dropped with {@link VerificationJournal#markDone}.
+ *
+ * <pre>
+ * VerificationJournalDrainer drainer = new VerificationJournalDrainer(client, journal, listener, 100);
+ * drainer.start(scheduler, Duration.ofSeconds(30));
+ * </pre>
+ */
+public class VerificationJournalDrainer implements Closeable {
+
+    private final MosparoDefaultClient client;
+    private final VerificationJournal journal;
+    private final DeferredVerificationListener listener;
+    private final int batchSize;
+
+    private ScheduledFuture<?> schedule;
+
+    /**
+     * Creates a drainer of a verification journal.
+     *
+     * @param client the client verifying the journaled requests
+     * @param journal the journal of the deferred verifications
+     * @param listener the listener of the results
+     * @param batchSize the maximum number of requests read from the journal at once
+     */
+    public VerificationJournalDrainer(MosparoDefaultClient client, VerificationJournal journal,
+            DeferredVerificationListener listener, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.client = client;
+        this.journal = journal;
+        this.listener = listener;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Runs the drainer periodically, starting immediately to verify the requests journaled before a restart.
+     *
+     * @param scheduler the scheduler running the drainer
+     * @param interval the interval between the end of a run and the start of the next one
+     */
+    public synchronized void start(ScheduledExecutorService scheduler, Duration interval) {
+        if (schedule != null) {
+            throw new IllegalStateException("VerificationJournalDrainer already started");
+        }
+        schedule = scheduler.scheduleWithFixedDelay(this::run, 0, interval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void run() {
+        try {
+            drain();
+        } catch (IOException | RuntimeException e) {
+            // The pending requests are verified by the next run
+            try {
+                listener.onDrainFailed(e);
+            } catch (RuntimeException listenerError) {
+                // An exception would cancel the periodic runs
+            }
+        }
+    }
+
+    /**
+     * Verifies the pending requests if mosparo is healthy.
+     *
+     * @return the number of requests done
+     * @throws IOException if the journal cannot be read
+     */
+    public synchronized int drain() throws IOException {
+        if (journal.getPendingCount() == 0) {
+            return 0;
+        }
+        try {
+            if (!client.healthCheck().isHealthy()) {
+                return 0;
+            }
+        } catch (IOException | MosparoException e) {
+            // mosparo is still unreachable or unavailable
+            return 0;
+        }
+
+        int done = 0;
+        long last = 0;
+        List<VerificationJournal.Entry> batch;
+        while (!(batch = journal.getPending(batchSize, last)).isEmpty()) {
+            for (VerificationJournal.Entry entry : batch) {
+                last = entry.getSequence();
+                RequestHelper helper = client.helper(entry.getPublicKey());
+                if (helper == null) {
+                    // Signed with keys the client does not sign with
+                    continue;
+                }
+                if (!verify(entry, helper)) {
+                    return done;
+                }
+                done++;
+            }
+        }
+        return done;
+    }
+
+    /**
+     * @return {@code false} if the request could not be sent to mosparo, or mosparo could not verify it yet
+     */
+    private boolean verify(VerificationJournal.Entry entry, RequestHelper helper) {
+        VerificationResult result;
+        MosparoException exception = null;
+        try {
+            result = client.verify(helper, entry.getRequest(), null);
+            client.checkRequiredFields(result, entry.getRequiredFields());
+            client.recordOutcome(result);
+        } catch (IOException e) {
+            return false;
+        } catch (MosparoException e) {
+            if (isTransient(e)) {
+                return false;
+            }
+            result = null;
+            exception = e;
+        }
+
+        try {
+            if (exception == null) {
+                listener.onVerified(entry, result);
+            } else {
+                listener.onFailed(entry, exception);
+            }
+        } finally {
+            journal.markDone(entry);
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the request was not sent, or mosparo is overloaded or unavailable: the request is kept
+     */
+    private static boolean isTransient(MosparoException e) {
+        return e instanceof BulkheadFullException || e instanceof LoadSheddingException
+                || e instanceof HttpStatusException status && status.isOverload();
+    }
+
+    /**
+     * Stops the periodic runs, without interrupting a run in progress. The scheduler is not shut down.
+     */
+    @Override
+    public synchronized void close() {
+        if (schedule != null) {
+            schedule.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.mosparo.client;
+
+import lombok.Value;
+
+/**
+ * The outcome of the verification of an item by a {@link VerificationProcessor}: either the result returned by mosparo,
+ * or the exception which prevented the verification.
+ *
+ * @param <T> the type of the verified items
+ */
+@Value
+public class VerificationOutcome<T> {
+
+    T item;
+    VerificationResult result;
+    Exception exception;
+
+    /**
+     * @return {@code true} if the submission was verified and is valid
+     */
+    public boolean isValid() {
+        return result != null && result.isValid();
+    }
+
+    /**
+     * @return {@code true} if the submission could not be verified
+     */
+    public boolean hasException() {
+        return exception != null;
+    }
+}
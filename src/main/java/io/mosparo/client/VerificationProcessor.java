@@ -0,0 +1,313 @@
+package io.mosparo.client;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * A {@link Flow.Processor} verifying the submissions of a stream.
+ * <p>
+ * At most {@code maxConcurrency} items are requested from the upstream publisher and not yet emitted downstream, so the
+ * verifications in progress and the results waiting for downstream demand are bounded, and a slow subscriber slows down
+ * the publisher instead of filling a queue. An item is only hashed and signed once it is dispatched to the executor.
+ * <p>
+ * The results are emitted in the order of the items, or as soon as they are available. A failed verification does not
+ * terminate the stream, it is emitted as a {@link VerificationOutcome} with its exception. An error of the upstream
+ * publisher is emitted after the results of the items received before it.
+ * <p>
+ * The processor bounds the verifications, it does not make them non-blocking: each verification is a blocking call of
+ * the client, which holds a thread of the executor until mosparo responds, so reaching {@code maxConcurrency}
+ * verifications in progress takes as many threads. On Java 21, a virtual thread executor makes these threads cheap.
+ * <p>
+ * The processor supports a single subscriber. No Reactor module is provided: with Reactor, the processor is adapted by
+ * {@code JdkFlowAdapter} from {@code reactor-core}.
+ *
+ * <pre>
+ * VerificationProcessor&lt;Message&gt; processor = new VerificationProcessor&lt;&gt;(client, Message::getFormData,
+ *         Set.of("name", "email"), executor, 16, true);
+ * publisher.subscribe(processor);
+ * processor.subscribe(subscriber);
+ * </pre>
+ *
+ * @param <T> the type of the items, which carry the form data
+ */
+public class VerificationProcessor<T> implements Flow.Processor<T, VerificationOutcome<T>> {
+
+    private final MosparoClient client;
+    private final Function<T, Map<String, Object>> formDataExtractor;
+    private final Set<String> requiredFields;
+    private final Executor executor;
+    private final int maxConcurrency;
+    private final boolean ordered;
+
+    // Items in progress or waiting for demand, in arrival order if ordered, otherwise only the completed ones
+    private final Deque<Slot<T>> slots = new ArrayDeque<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private int inProgress;
+    private long demand;
+    private boolean started;
+    private boolean upstreamDone;
+    private Throwable upstreamError;
+    private boolean terminated;
+    private Throwable invalidRequest;
+    private volatile boolean cancelled;
+
+    private Flow.Subscription upstream;
+    private Flow.Subscriber<? super VerificationOutcome<T>> downstream;
+
+    /**
+     * Creates a verification processor.
+     *
+     * @param client the client verifying the submissions
+     * @param formDataExtractor the function returning the form data of an item
+     * @param requiredFields the required fields of the form
+     * @param executor the executor running the blocking verifications
+     * @param maxConcurrency the maximum number of items requested and not yet emitted
+     * @param ordered {@code true} to emit the results in the order of the items
+     */
+    public VerificationProcessor(MosparoClient client, Function<T, Map<String, Object>> formDataExtractor,
+            Set<String> requiredFields, Executor executor, int maxConcurrency, boolean ordered) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        this.client = client;
+        this.formDataExtractor = formDataExtractor;
+        this.requiredFields = requiredFields;
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+        this.ordered = ordered;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super VerificationOutcome<T>> subscriber) {
+        Objects.requireNonNull(subscriber);
+        synchronized (this) {
+            if (downstream != null) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(new IllegalStateException("VerificationProcessor supports a single subscriber"));
+                return;
+            }
+            downstream = subscriber;
+        }
+        subscriber.onSubscribe(new DownstreamSubscription());
+        start();
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+        }
+        start();
+    }
+
+    private void start() {
+        synchronized (this) {
+            if (started || upstream == null || downstream == null) {
+                return;
+            }
+            started = true;
+        }
+        if (cancelled) {
+            upstream.cancel();
+        } else {
+            upstream.request(maxConcurrency);
+        }
+    }
+
+    @Override
+    public void onNext(T item) {
+        Slot<T> slot = new Slot<>(item);
+        synchronized (this) {
+            if (upstreamDone || cancelled) {
+                return;
+            }
+            inProgress++;
+            if (ordered) {
+                slots.add(slot);
+            }
+        }
+        try {
+            executor.execute(() -> verify(slot));
+        } catch (RejectedExecutionException e) {
+            complete(slot, new VerificationOutcome<>(item, null, e));
+        }
+    }
+
+    private void verify(Slot<T> slot) {
+        VerificationOutcome<T> outcome = null;
+        try {
+            if (cancelled) {
+                outcome = new VerificationOutcome<>(slot.item, null, null);
+            } else {
+                VerificationResult result = client.verifySubmission(formDataExtractor.apply(slot.item), requiredFields);
+                outcome = new VerificationOutcome<>(slot.item, result, null);
+            }
+        } catch (Exception e) {
+            outcome = new VerificationOutcome<>(slot.item, null, e);
+        } catch (Error e) {
+            // Emitted like a failed verification, and left to the executor
+            outcome = new VerificationOutcome<>(slot.item, null, new ExecutionException(e));
+            throw e;
+        } finally {
+            // The item is accounted for even if the outcome could not be created, so the stream still terminates
+            complete(slot, outcome != null ? outcome : new VerificationOutcome<>(slot.item, null, null));
+        }
+    }
+
+    private void complete(Slot<T> slot, VerificationOutcome<T> outcome) {
+        synchronized (this) {
+            slot.outcome = outcome;
+            inProgress--;
+            if (!ordered) {
+                slots.add(slot);
+            }
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        synchronized (this) {
+            if (upstreamDone) {
+                return;
+            }
+            upstreamDone = true;
+            upstreamError = throwable;
+        }
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            if (upstreamDone) {
+                return;
+            }
+            upstreamDone = true;
+        }
+        drain();
+    }
+
+    /**
+     * Emits the available results within the downstream demand, and the termination signal. The emissions are
+     * serialized: a thread finding a drain in progress leaves the work to it.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (true) {
+                VerificationOutcome<T> outcome = null;
+                boolean complete = false;
+                Throwable error = null;
+                synchronized (this) {
+                    if (downstream == null) {
+                        // An upstream completing before any subscription is terminated on subscription
+                        break;
+                    }
+                    Slot<T> head = slots.peek();
+                    if (invalidRequest != null && !terminated) {
+                        terminated = true;
+                        complete = true;
+                        error = invalidRequest;
+                    } else if (cancelled || terminated) {
+                        slots.clear();
+                        break;
+                    } else if (head != null && head.outcome != null && demand > 0) {
+                        slots.poll();
+                        demand--;
+                        outcome = head.outcome;
+                    } else if (upstreamDone && slots.isEmpty() && inProgress == 0) {
+                        terminated = true;
+                        complete = true;
+                        error = upstreamError;
+                    } else {
+                        break;
+                    }
+                }
+
+                if (outcome != null) {
+                    downstream.onNext(outcome);
+                    // The item left the processor, the next one can be requested
+                    upstream.request(1);
+                } else if (complete) {
+                    if (error != null) {
+                        downstream.onError(error);
+                    } else {
+                        downstream.onComplete();
+                    }
+                    break;
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private class DownstreamSubscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                synchronized (VerificationProcessor.this) {
+                    invalidRequest = new IllegalArgumentException("The requested number of items must be positive");
+                }
+                cancel();
+                return;
+            }
+            synchronized (VerificationProcessor.this) {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            Flow.Subscription subscription;
+            synchronized (VerificationProcessor.this) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                subscription = started ? upstream : null;
+            }
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            drain();
+        }
+    }
+
+    private static class Slot<T> {
+
+        final T item;
+        VerificationOutcome<T> outcome;
+
+        Slot(T item) {
+            this.item = item;
+        }
+    }
+}
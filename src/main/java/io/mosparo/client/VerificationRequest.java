@@ -22,4 +22,4 @@ public class VerificationRequest {
     // The verification signature is not sent with the request, it serves to verify the result
     @JsonIgnore
     String verificationSignature;
-}
\ No newline at end of file
+}
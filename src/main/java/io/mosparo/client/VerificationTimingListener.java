@@ -0,0 +1,25 @@
+package io.mosparo.client;
+
+/**
+ * Receives the timings of every verification of a client, successful or not, for example to log the slow ones.
+ * <p>
+ * It is called on the thread of the verification, before the result is returned, so it should be fast.
+ *
+ * <pre>
+ * VerificationTimingListener listener = timings -&gt; {
+ *     if (timings.getTotalNanos() &gt; TimeUnit.SECONDS.toNanos(1)) {
+ *         log.warn("Slow verification: {}", timings);
+ *     }
+ * };
+ * </pre>
+ */
+@FunctionalInterface
+public interface VerificationTimingListener {
+
+    /**
+     * Called at the end of a verification.
+     *
+     * @param timings the timings of the verification
+     */
+    void onVerification(VerificationTimings timings);
+}
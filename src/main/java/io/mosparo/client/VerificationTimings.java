@@ -0,0 +1,104 @@
+package io.mosparo.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time spent in each phase of a verification, measured with {@link System#nanoTime()} checkpoints.
+ * <p>
+ * A failed verification only has the durations of the phases it reached. The phases are reported to the
+ * {@link VerificationTimingListener} of the client.
+ */
+public final class VerificationTimings {
+
+    /**
+     * The phases of a verification, in their order of execution.
+     */
+    public enum Phase {
+        /** Hashing of the form data and signing of the verification request. */
+        BUILD_REQUEST,
+        /** Serialization and signing of the HTTP request, and compression of its body. */
+        BUILD_HTTP_REQUEST,
+        /** Wait for the fair share scheduler, the bulkhead and the concurrency limiter. */
+        ACQUIRE,
+        /** Lease of a pooled connection, sending of the request and wait for the response headers of mosparo. */
+        EXECUTE,
+        /** Reading and parsing of the response body. */
+        PARSE,
+        /** Check of the verification signature returned by mosparo. */
+        CHECK_SIGNATURE
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long start;
+    // The end of each phase, 0 if it was not reached
+    private final long[] ends = new long[PHASES.length];
+
+    VerificationTimings() {
+        this.start = System.nanoTime();
+    }
+
+    void mark(Phase phase) {
+        ends[phase.ordinal()] = System.nanoTime();
+    }
+
+    /**
+     * Returns the duration of a phase, from the end of the previous phase reached.
+     *
+     * @param phase the phase
+     * @return the duration in nanoseconds, or {@code -1} if the phase was not reached
+     */
+    public long getNanos(Phase phase) {
+        int index = phase.ordinal();
+        if (ends[index] == 0) {
+            return -1;
+        }
+        long previous = start;
+        for (int i = index - 1; i >= 0; i--) {
+            if (ends[i] != 0) {
+                previous = ends[i];
+                break;
+            }
+        }
+        return ends[index] - previous;
+    }
+
+    /**
+     * @return the duration from the start of the verification to the end of the last phase reached, in nanoseconds
+     */
+    public long getTotalNanos() {
+        for (int i = PHASES.length - 1; i >= 0; i--) {
+            if (ends[i] != 0) {
+                return ends[i] - start;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return {@code true} if every phase was reached, so mosparo returned a trusted result
+     */
+    public boolean isComplete() {
+        return ends[Phase.CHECK_SIGNATURE.ordinal()] != 0;
+    }
+
+    /**
+     * @return the durations of the reached phases in microseconds, for example
+     *         {@code total=5210us BUILD_REQUEST=120us ... CHECK_SIGNATURE=8us}
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("total=").append(micros(getTotalNanos())).append("us");
+        for (Phase phase : PHASES) {
+            long nanos = getNanos(phase);
+            if (nanos >= 0) {
+                builder.append(' ').append(phase).append('=').append(micros(nanos)).append("us");
+            }
+        }
+        return builder.toString();
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,70 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveTimeoutsTest {
+
+    static final long MILLIS = 1_000_000;
+
+    @Test
+    void testMaxUntilEnoughSamples() {
+        AdaptiveTimeouts timeouts = new AdaptiveTimeouts(0.99, 3, Duration.ofMillis(10), Duration.ofSeconds(5));
+
+        assertEquals(5000, timeouts.getTimeoutMillis("/api"));
+        for (int i = 0; i < AdaptiveTimeouts.MIN_SAMPLES - 1; i++) {
+            timeouts.record("/api", 20 * MILLIS);
+        }
+        assertEquals(5000, timeouts.getTimeoutMillis("/api"));
+    }
+
+    @Test
+    void testFollowsPercentile() {
+        AdaptiveTimeouts timeouts = new AdaptiveTimeouts(0.8, 2, Duration.ofMillis(10), Duration.ofSeconds(5));
+
+        // About 90% of the calls take 20 ms, 10% take 100 ms
+        for (int i = 0; i < AdaptiveTimeouts.WINDOW_SIZE; i++) {
+            timeouts.record("/api", (i % 10 == 0 ? 100 : 20) * MILLIS);
+        }
+        assertEquals(40, timeouts.getTimeoutMillis("/api"));
+        assertEquals(5000, timeouts.getTimeoutMillis("/other"));
+
+        // Then the latency increases
+        for (int i = 0; i < AdaptiveTimeouts.WINDOW_SIZE; i++) {
+            timeouts.record("/api", 300 * MILLIS);
+        }
+        assertEquals(600, timeouts.getTimeoutMillis("/api"));
+    }
+
+    @Test
+    void testTimeoutsRaiseTheTimeout() {
+        AdaptiveTimeouts timeouts = new AdaptiveTimeouts(0.9, 2, Duration.ofMillis(10), Duration.ofSeconds(5));
+
+        for (int i = 0; i < AdaptiveTimeouts.WINDOW_SIZE; i++) {
+            timeouts.record("/api", 20 * MILLIS);
+        }
+        assertEquals(40, timeouts.getTimeoutMillis("/api"));
+
+        // mosparo slows down, the calls time out
+        for (int i = 0; i < AdaptiveTimeouts.WINDOW_SIZE / 4; i++) {
+            timeouts.recordTimeout("/api");
+        }
+        assertTrue(timeouts.getTimeoutMillis("/api") > 40);
+    }
+
+    @Test
+    void testBounded() {
+        AdaptiveTimeouts timeouts = new AdaptiveTimeouts(0.99, 3, Duration.ofMillis(100), Duration.ofSeconds(1));
+
+        for (int i = 0; i < AdaptiveTimeouts.WINDOW_SIZE; i++) {
+            timeouts.record("/fast", MILLIS);
+            timeouts.record("/slow", 2000 * MILLIS);
+        }
+        assertEquals(100, timeouts.getTimeoutMillis("/fast"));
+        assertEquals(1000, timeouts.getTimeoutMillis("/slow"));
+    }
+}
@@ -0,0 +1,70 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class BulkheadTest {
+
+    @Test
+    void testAcquireAndRelease() throws IOException, MosparoException {
+        Bulkhead bulkhead = new Bulkhead("test", 2, Duration.ZERO);
+
+        bulkhead.acquire(null);
+        bulkhead.acquire(null);
+        assertEquals(0, bulkhead.getAvailablePermits());
+        bulkhead.release();
+        bulkhead.acquire(null);
+
+        assertEquals(3, bulkhead.getAcquisitions());
+        assertEquals(0, bulkhead.getRejections());
+    }
+
+    @Test
+    void testRejectedAfterMaxWait() throws IOException, MosparoException {
+        Bulkhead bulkhead = new Bulkhead("test", 1, Duration.ofMillis(50));
+        bulkhead.acquire(null);
+
+        BulkheadFullException thrown = assertThrows(BulkheadFullException.class, () -> bulkhead.acquire(null));
+
+        assertEquals("test", thrown.getBulkheadName());
+        assertEquals(1, bulkhead.getRejections());
+        assertTrue(bulkhead.getMaxObservedWaitTime().toMillis() >= 50);
+    }
+
+    @Test
+    void testDeadlineShorterThanMaxWait() throws IOException, MosparoException {
+        Bulkhead bulkhead = new Bulkhead("test", 1, Duration.ofSeconds(10));
+        bulkhead.acquire(null);
+
+        assertThrows(DeadlineExceededException.class, () -> bulkhead.acquire(Deadline.after(Duration.ofMillis(20))));
+        assertEquals(1, bulkhead.getRejections());
+    }
+
+    @Test
+    void testForPool() {
+        Bulkheads bulkheads = Bulkheads.forPool(20);
+
+        assertEquals(14, bulkheads.getVerification().getMaxConcurrentCalls());
+        assertEquals(5, bulkheads.getStatistic().getMaxConcurrentCalls());
+        assertEquals(1, bulkheads.getHealthCheck().getMaxConcurrentCalls());
+        assertThrows(IllegalArgumentException.class, () -> Bulkheads.forPool(2));
+    }
+
+    @Test
+    void testForEndpoint() {
+        Bulkheads bulkheads = Bulkheads.forPool(3);
+
+        assertSame(bulkheads.getVerification(), bulkheads.forEndpoint("/mosparo/api/v1/verification/verify"));
+        assertSame(bulkheads.getStatistic(), bulkheads.forEndpoint("/api/v1/statistic/by-date"));
+        assertSame(bulkheads.getHealthCheck(), bulkheads.forEndpoint("/api/v1/health/check"));
+        assertNull(bulkheads.forEndpoint("/other"));
+    }
+}
@@ -0,0 +1,135 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimiterTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void testLimitGrowsWhileRttIsStable() throws IOException, MosparoException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 1, 100, Duration.ZERO, 0);
+
+        for (int i = 0; i < 50; i++) {
+            useLimit(limiter, RTT);
+        }
+
+        assertTrue(limiter.getLimit() > 10);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testLimitShrinksWhenRttGrows() throws IOException, MosparoException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(50, 1, 100, Duration.ZERO, 0);
+        useLimit(limiter, RTT);
+        int limit = limiter.getLimit();
+
+        for (int i = 0; i < 10; i++) {
+            useLimit(limiter, 4 * RTT);
+        }
+
+        assertTrue(limiter.getLimit() < limit);
+        assertEquals(Duration.ofNanos(RTT), limiter.getMinRtt());
+    }
+
+    @Test
+    void testLimitNotGrownWhenUnused() throws IOException, MosparoException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 1, 100, Duration.ZERO, 0);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire(null);
+            limiter.release(RTT, false);
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void testDropsBackOff() throws IOException, MosparoException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 5, 100, Duration.ZERO, 0);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire(null);
+            limiter.release(RTT, true);
+        }
+
+        assertEquals(5, limiter.getLimit());
+        assertEquals(20, limiter.getDrops());
+    }
+
+    @Test
+    void testReleaseWithoutSample() throws IOException, MosparoException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 1, 100, Duration.ZERO, 0);
+
+        limiter.acquire(null);
+        limiter.release();
+
+        assertEquals(10, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getDrops());
+        assertEquals(Duration.ZERO, limiter.getMinRtt());
+    }
+
+    @Test
+    void testShedOverLimit() throws IOException, MosparoException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, Duration.ofMillis(20), 1);
+        limiter.acquire(null);
+
+        assertThrows(LoadSheddingException.class, () -> limiter.acquire(null));
+        assertEquals(1, limiter.getShed());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    void testQueuedCallProceedsOnRelease() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, Duration.ofSeconds(5), 1);
+        limiter.acquire(null);
+
+        CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> {
+            try {
+                limiter.acquire(null);
+            } catch (IOException | MosparoException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (limiter.getQueued() == 0) {
+            Thread.sleep(5);
+        }
+        // The queue is full
+        assertThrows(LoadSheddingException.class, () -> limiter.acquire(null));
+
+        limiter.release(RTT, false);
+        queued.get(5, TimeUnit.SECONDS);
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    void testDeadlineShorterThanQueueWait() throws IOException, MosparoException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, Duration.ofSeconds(10), 1);
+        limiter.acquire(null);
+
+        assertThrows(DeadlineExceededException.class, () -> limiter.acquire(Deadline.after(Duration.ofMillis(20))));
+    }
+
+    /**
+     * Uses the whole limit with calls of the given round-trip time.
+     */
+    private static void useLimit(ConcurrencyLimiter limiter, long rttNanos) throws IOException, MosparoException {
+        int limit = limiter.getLimit();
+        for (int i = 0; i < limit; i++) {
+            limiter.acquire(null);
+        }
+        for (int i = 0; i < limit; i++) {
+            limiter.release(rttNanos, false);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.mosparo.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class DeadlineTest {
+
+    @Test
+    void testNotExpired() {
+        Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+
+        assertFalse(deadline.isExpired());
+        assertThat(deadline.remainingMillis()).isBetween(59_000L, 60_000L);
+        assertThat(deadline.remaining()).isPositive();
+        assertDoesNotThrow(() -> deadline.check("test"));
+    }
+
+    @Test
+    void testExpired() {
+        Deadline deadline = Deadline.after(Duration.ofMillis(-1));
+
+        assertTrue(deadline.isExpired());
+        assertEquals(0, deadline.remainingMillis());
+        assertEquals(Duration.ZERO, deadline.remaining());
+        DeadlineExceededException thrown = assertThrows(DeadlineExceededException.class, () -> deadline.check("test"));
+        assertEquals("Deadline exceeded before test", thrown.getMessage());
+    }
+}
@@ -0,0 +1,146 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class FairShareSchedulerTest {
+
+    @Test
+    void testTenantLimit() throws IOException, MosparoException {
+        FairShareScheduler scheduler = new FairShareScheduler(4, 2, Duration.ZERO, 10);
+
+        scheduler.acquire("noisy", null);
+        scheduler.acquire("noisy", null);
+        // The noisy tenant is at its limit, the others still get slots
+        assertThrows(LoadSheddingException.class, () -> scheduler.acquire("noisy", null));
+        scheduler.acquire("quiet", null);
+
+        assertEquals(3, scheduler.getInFlight());
+        assertEquals(2, scheduler.getInFlight("noisy"));
+        assertEquals(1, scheduler.getShed());
+
+        scheduler.release("noisy");
+        scheduler.acquire("noisy", null);
+        scheduler.release("noisy");
+        scheduler.release("noisy");
+        scheduler.release("quiet");
+        assertEquals(0, scheduler.getInFlight());
+        assertEquals(0, scheduler.getInFlight("noisy"));
+    }
+
+    @Test
+    void testRoundRobinBetweenTenants() throws Exception {
+        assertEquals(List.of("a", "b", "a", "b", "a", "a"), grantOrder(Collections.emptyList()));
+    }
+
+    @Test
+    void testWeightedRoundRobin() throws Exception {
+        assertEquals(List.of("a", "a", "b", "a", "a", "b"), grantOrder(List.of("a")));
+    }
+
+    @Test
+    void testQueueWaitAndLength() throws Exception {
+        FairShareScheduler scheduler = new FairShareScheduler(1, 1, Duration.ofMillis(20), 1);
+        scheduler.acquire("a", null);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> waiting = executor.submit(() -> {
+                assertThrows(LoadSheddingException.class, () -> scheduler.acquire("b", null));
+                return null;
+            });
+            while (scheduler.getQueued() == 0 && !waiting.isDone()) {
+                Thread.sleep(1);
+            }
+            // The queue of the tenant is full
+            assertThrows(LoadSheddingException.class, () -> scheduler.acquire("b", null));
+            waiting.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThrows(DeadlineExceededException.class,
+                () -> scheduler.acquire("b", Deadline.after(Duration.ofMillis(5))));
+        assertEquals(0, scheduler.getQueued());
+        assertEquals(3, scheduler.getShed());
+
+        scheduler.release("a");
+        scheduler.acquire("b", null);
+        scheduler.release("b");
+    }
+
+    @Test
+    void testInterruptedAfterGrantReleasesSlot() throws Exception {
+        FairShareScheduler scheduler = new FairShareScheduler(1, 1, Duration.ofSeconds(10), 10);
+
+        for (int i = 0; i < 200; i++) {
+            scheduler.acquire("holder", null);
+            Thread waiting = new Thread(() -> {
+                try {
+                    scheduler.acquire("a", null);
+                    scheduler.release("a");
+                } catch (IOException | MosparoException e) {
+                    // Interrupted while waiting
+                }
+            });
+            waiting.start();
+            while (scheduler.getQueued() == 0) {
+                Thread.sleep(1);
+            }
+            // The slot is handed to the call while it wakes up from the interrupt
+            waiting.interrupt();
+            scheduler.release("holder");
+            waiting.join();
+
+            assertEquals(0, scheduler.getInFlight());
+            assertEquals(0, scheduler.getQueued());
+        }
+    }
+
+    /**
+     * Queues four calls of tenant "a", then two of tenant "b" behind a single slot, and returns the tenants in the order
+     * their calls got the slot.
+     */
+    private static List<String> grantOrder(List<String> doubleWeight) throws Exception {
+        FairShareScheduler scheduler = new FairShareScheduler(1, 1, Duration.ofSeconds(10), 10);
+        doubleWeight.forEach(tenant -> scheduler.setWeight(tenant, 2));
+        scheduler.acquire("holder", null);
+
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            List<Future<?>> calls = new ArrayList<>();
+            for (String tenant : List.of("a", "a", "a", "a", "b", "b")) {
+                int queued = scheduler.getQueued();
+                calls.add(executor.submit(() -> {
+                    scheduler.acquire(tenant, null);
+                    order.add(tenant);
+                    scheduler.release(tenant);
+                    return null;
+                }));
+                while (scheduler.getQueued() == queued) {
+                    Thread.sleep(1);
+                }
+            }
+
+            scheduler.release("holder");
+            for (Future<?> call : calls) {
+                call.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return order;
+    }
+}
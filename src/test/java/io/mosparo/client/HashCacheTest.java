@@ -0,0 +1,83 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class HashCacheTest {
+
+    @Test
+    void testIsCacheableByField() {
+        HashCache cache = HashCache.forFields(10, Set.of("country"));
+
+        assertTrue(cache.isCacheable("country", "Switzerland"));
+        assertFalse(cache.isCacheable("name", "Switzerland"));
+        assertFalse(cache.isCacheable(null, "Switzerland"));
+        assertFalse(cache.isCacheable("country", "x".repeat(HashCache.MAX_CACHEABLE_LENGTH + 1)));
+    }
+
+    @Test
+    void testIsCacheableByLength() {
+        HashCache cache = HashCache.forShortValues(10, 3);
+
+        assertTrue(cache.isCacheable("newsletter", "yes"));
+        assertTrue(cache.isCacheable(null, "no"));
+        assertFalse(cache.isCacheable("newsletter", "maybe"));
+    }
+
+    @Test
+    void testHitsAndMisses() {
+        HashCache cache = HashCache.forShortValues(10, 3);
+
+        assertEquals("hash-yes", cache.getHash("yes", value -> "hash-" + value));
+        assertEquals("hash-yes", cache.getHash("yes", value -> "other"));
+        assertEquals("hash-yes", cache.getHash("yes", value -> "other"));
+        assertEquals("hash-no", cache.getHash("no", value -> "hash-" + value));
+
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate());
+        assertEquals(2, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitRate());
+    }
+
+    @Test
+    void testBounded() {
+        HashCache cache = HashCache.forShortValues(2, 3);
+
+        cache.getHash("a", value -> "hash-" + value);
+        cache.getHash("b", value -> "hash-" + value);
+        assertEquals("hash-c", cache.getHash("c", value -> "hash-" + value));
+        assertEquals("hash-c", cache.getHash("c", value -> "other"));
+
+        assertEquals(2, cache.size());
+        assertEquals(3, cache.getMisses());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void testFrequentValuesSurviveNewValues() {
+        HashCache cache = HashCache.forShortValues(4, 8);
+        cache.getHash("yes", value -> "hash-" + value);
+        cache.getHash("no", value -> "hash-" + value);
+
+        // Values seen once replace each other, the values found again stay cached
+        for (int i = 0; i < 100; i++) {
+            cache.getHash("yes", value -> "other");
+            cache.getHash("no", value -> "other");
+            cache.getHash("junk" + i, value -> "hash-" + value);
+        }
+
+        assertEquals("hash-yes", cache.getHash("yes", value -> "other"));
+        assertEquals("hash-no", cache.getHash("no", value -> "other"));
+        assertEquals(4, cache.size());
+        assertEquals(98, cache.getEvictions());
+    }
+}
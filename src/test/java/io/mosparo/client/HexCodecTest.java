@@ -0,0 +1,54 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.commons.codec.binary.Hex;
+import org.junit.jupiter.api.Test;
+
+class HexCodecTest {
+
+    @Test
+    void testEncodeLikeCommonsCodec() {
+        byte[] all = new byte[256];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = (byte) i;
+        }
+        assertEquals(Hex.encodeHexString(all), HexCodec.encode(all));
+        assertEquals("", HexCodec.encode(new byte[0]));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            byte[] digest = new byte[32];
+            random.nextBytes(digest);
+            assertEquals(Hex.encodeHexString(digest), HexCodec.encode(digest));
+        }
+    }
+
+    @Test
+    void testEncodeIntoBuffer() {
+        byte[] out = "[....]".getBytes(StandardCharsets.ISO_8859_1);
+
+        assertEquals(5, HexCodec.encode(new byte[] { (byte) 0xa0, 0x1f }, out, 1));
+        assertArrayEquals("[a01f]".getBytes(StandardCharsets.ISO_8859_1), out);
+    }
+
+    @Test
+    void testEqualsConstantTime() {
+        String signature = "ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3";
+
+        assertTrue(HexCodec.equalsConstantTime(signature, new String(signature)));
+        assertFalse(HexCodec.equalsConstantTime(signature, null));
+        assertFalse(HexCodec.equalsConstantTime(signature, ""));
+        assertFalse(HexCodec.equalsConstantTime(signature, signature.substring(1)));
+        assertFalse(HexCodec.equalsConstantTime(signature, "f" + signature.substring(1)));
+        assertFalse(HexCodec.equalsConstantTime(signature, signature.substring(0, 63) + "4"));
+        // Not decoded, so the case matters
+        assertFalse(HexCodec.equalsConstantTime(signature, signature.toUpperCase()));
+    }
+}
@@ -1,8 +1,12 @@
 package io.mosparo.client;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
 import static com.github.tomakehurst.wiremock.client.WireMock.ok;
 import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
@@ -18,13 +22,28 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.github.tomakehurst.wiremock.http.Fault;
 import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
@@ -88,6 +107,321 @@ class MosparoDefaultClientTest {
         assertNull(result.getErrorMessage());
     }
 
+    @Test
+    void testVerifySubmissionWithStreamingResponseCodec() throws IOException, MosparoException {
+        Map<String, Object> formData = Map.of(
+                "lastname", "Example",
+                "firstname", "John",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+
+        stubFor(post("/api/v1/verification/verify")
+                .willReturn(okJson("""
+                        {
+                          "valid": true,
+                          "verificationSignature": "ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3",
+                          "verifiedFields": {
+                            "firstname": "valid",
+                            "lastname": "valid"
+                          },
+                          "issues": []
+                        }""")));
+        stubFor(get("/api/v1/health/check").willReturn(okJson("""
+                {"service": "mosparo", "healthy": true, "databaseStatus": "connected"}""")));
+
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                HttpClientBuilder.create().build(),
+                MosparoClientConfig.builder().responseCodec(new StreamingResponseCodec()).build());
+        VerificationResult result = client.verifySubmission(formData, Set.of("firstname", "lastname"));
+
+        assertTrue(result.isValid());
+        assertEquals(Map.of("firstname", "valid", "lastname", "valid"), result.getVerifiedFields());
+        assertTrue(client.healthCheck().isHealthy());
+    }
+
+    @Test
+    void testPrepareAndSendAgainAfterConnectionError() throws IOException, MosparoException {
+        Map<String, Object> formData = Map.of(
+                "lastname", "Example",
+                "firstname", "John",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+
+        MosparoDefaultClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey");
+        PreparedVerification prepared = client.prepare(formData, Set.of("firstname", "lastname"));
+        assertFalse(prepared.isCompressed());
+        assertEquals("ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3",
+                prepared.getRequest().getVerificationSignature());
+        assertThrows(UnsupportedOperationException.class, () -> prepared.getRequest().getFormData().clear());
+
+        stubFor(post("/api/v1/verification/verify")
+                .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+        assertThrows(IOException.class, () -> client.send(prepared));
+
+        stubFor(post("/api/v1/verification/verify")
+                .willReturn(okJson("""
+                        {
+                          "valid": true,
+                          "verificationSignature": "ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3",
+                          "verifiedFields": {
+                            "firstname": "valid"
+                          },
+                          "issues": []
+                        }""")));
+        MosparoException thrown = assertThrows(MosparoException.class, () -> client.send(prepared));
+        assertEquals("Required field 'lastname' not verified", thrown.getMessage());
+
+        stubFor(post("/api/v1/verification/verify")
+                .willReturn(okJson("""
+                        {
+                          "valid": true,
+                          "verificationSignature": "ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3",
+                          "verifiedFields": {
+                            "firstname": "valid",
+                            "lastname": "valid"
+                          },
+                          "issues": []
+                        }""")));
+        assertTrue(client.send(prepared).isValid());
+
+        // The same signed request is sent every time
+        verify(3, postRequestedFor(urlEqualTo("/api/v1/verification/verify"))
+                .withHeader("Authorization", equalTo(prepared.getAuthorization()))
+                .withRequestBody(equalToJson("""
+                        {
+                            "submitToken": "submitToken",
+                            "validationSignature": "a20d6b36f87420850ef281ee977a554df2a749ed1892944e8ed22a1bc9c882a1",
+                            "formSignature": "cca193d4d38890d7aa0c27bc590da0a2a98ffc304dc19e947b5da8d4498f015c",
+                            "formData": {
+                                "firstname":"a8cfcd74832004951b4408cdb0a5dbcd8c7e52d43f7fe244bf720582e05241da",
+                                "lastname":"d029f87e3d80f8fd9b1be67c7426b4cc1ff47b4a9d0a8461c826a59d8c5eb6cd"
+                            }
+                        }
+                        """)));
+    }
+
+    @Test
+    void testPrepareCompressedRequest() throws IOException, MosparoException {
+        Map<String, Object> formData = Map.of(
+                "lastname", "Example",
+                "firstname", "John",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+
+        stubFor(post("/api/v1/verification/verify")
+                .withHeader("Content-Encoding", equalTo("gzip"))
+                .willReturn(okJson("""
+                        {
+                          "valid": true,
+                          "verificationSignature": "ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3",
+                          "verifiedFields": {
+                            "firstname": "valid",
+                            "lastname": "valid"
+                          },
+                          "issues": []
+                        }""")));
+
+        MosparoDefaultClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                HttpClientBuilder.create().build(), MosparoClientConfig.builder()
+                        .requestCompression(new RequestCompression(1, Deflater.BEST_SPEED, 1))
+                        .build());
+        PreparedVerification prepared = client.prepare(formData, Set.of("firstname", "lastname"));
+
+        assertTrue(prepared.isCompressed());
+        assertTrue(client.send(prepared).isValid());
+    }
+
+    @Test
+    void testVerifySubmissionCompressedRequest() throws IOException, MosparoException {
+        Map<String, Object> formData = Map.of(
+                "lastname", "Example",
+                "firstname", "John",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+
+        stubFor(post("/api/v1/verification/verify")
+                .willReturn(okJson("""
+                        {
+                          "valid": true,
+                          "verificationSignature": "ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3",
+                          "verifiedFields": {
+                            "firstname": "valid",
+                            "lastname": "valid"
+                          },
+                          "issues": []
+                        }""")));
+
+        RequestCompression compression = new RequestCompression(0, Deflater.DEFAULT_COMPRESSION, 1);
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                HttpClientBuilder.create().build(), MosparoClientConfig.builder().requestCompression(compression).build());
+        VerificationResult result = client.verifySubmission(formData, Set.of("firstname", "lastname"));
+
+        // The body is received compressed, with the signature of the uncompressed body
+        verify(1, postRequestedFor(urlEqualTo("/api/v1/verification/verify"))
+                .withHeader("Content-Encoding", equalTo("gzip"))
+                .withRequestBody(equalToJson("""
+                        {
+                            "submitToken": "submitToken",
+                            "validationSignature": "a20d6b36f87420850ef281ee977a554df2a749ed1892944e8ed22a1bc9c882a1",
+                            "formSignature": "cca193d4d38890d7aa0c27bc590da0a2a98ffc304dc19e947b5da8d4498f015c",
+                            "formData": {
+                                "firstname":"a8cfcd74832004951b4408cdb0a5dbcd8c7e52d43f7fe244bf720582e05241da",
+                                "lastname":"d029f87e3d80f8fd9b1be67c7426b4cc1ff47b4a9d0a8461c826a59d8c5eb6cd"
+                            }
+                        }
+                        """)));
+        assertTrue(result.isValid());
+        assertEquals(1, compression.getCompressedRequests());
+    }
+
+    @Test
+    void testVerifySubmissionBelowCompressionThreshold() throws IOException, MosparoException {
+        Map<String, Object> formData = Map.of(
+                "lastname", "Example",
+                "firstname", "John",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+
+        stubFor(post("/api/v1/verification/verify")
+                .willReturn(okJson("""
+                        {
+                          "valid": true,
+                          "verificationSignature": "ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3",
+                          "verifiedFields": {
+                            "firstname": "valid",
+                            "lastname": "valid"
+                          },
+                          "issues": []
+                        }""")));
+
+        RequestCompression compression = new RequestCompression();
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                HttpClientBuilder.create().build(), MosparoClientConfig.builder().requestCompression(compression).build());
+        VerificationResult result = client.verifySubmission(formData, Set.of("firstname", "lastname"));
+
+        verify(1, postRequestedFor(urlEqualTo("/api/v1/verification/verify"))
+                .withoutHeader("Content-Encoding"));
+        assertTrue(result.isValid());
+        assertEquals(0, compression.getCompressedRequests());
+    }
+
+    @Test
+    void testRotateSigningKeys() throws IOException, MosparoException {
+        Map<String, Object> formData = Map.of(
+                "lastname", "Example",
+                "firstname", "John",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+        stubMosparoSigningWith(new RequestHelper("publicKey2", "privateKey2"), formData);
+
+        MosparoDefaultClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey");
+        client.rotateSigningKeys("publicKey2", "privateKey2", Duration.ofMinutes(1));
+        VerificationResult result = client.verifySubmission(formData, Set.of("firstname", "lastname"));
+
+        verify(1, postRequestedFor(urlEqualTo("/api/v1/verification/verify")));
+        assertTrue(result.isValid());
+    }
+
+    @Test
+    void testRotateSigningKeysDualKeyWindow() throws IOException, MosparoException {
+        Map<String, Object> formData = Map.of(
+                "lastname", "Example",
+                "firstname", "John",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+        // mosparo still has the previous keys
+        stubMosparoSigningWith(new RequestHelper("publicKey", "privateKey"), formData);
+
+        MosparoDefaultClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey");
+        client.rotateSigningKeys("publicKey2", "privateKey2", Duration.ofMinutes(1));
+        assertTrue(client.verifySubmission(formData, Set.of("firstname", "lastname")).isValid());
+        assertEquals(2, client.statisticByDate(null, null).getData().getNumberOfValidSubmissions());
+        verify(2, postRequestedFor(urlEqualTo("/api/v1/verification/verify")));
+
+        client.rotateSigningKeys("publicKey3", "privateKey3", Duration.ZERO);
+        HttpStatusException thrown = assertThrows(HttpStatusException.class,
+                () -> client.verifySubmission(formData, Set.of("firstname", "lastname")));
+        assertEquals(401, thrown.getStatusCode());
+        verify(3, postRequestedFor(urlEqualTo("/api/v1/verification/verify")));
+    }
+
+    /**
+     * Stubs a mosparo rejecting the requests not signed by the keys of the helper, and signing its results with them.
+     */
+    private static void stubMosparoSigningWith(RequestHelper helper, Map<String, Object> formData)
+            throws MosparoException {
+        VerificationRequest request = helper.buildVerificationRequest(formData);
+        stubFor(post("/api/v1/verification/verify")
+                .atPriority(1)
+                .withHeader("Authorization", equalTo(
+                        helper.generateAuthHeaderValue("/api/v1/verification/verify", helper.toJson(request))))
+                .willReturn(okJson("""
+                        {
+                          "valid": true,
+                          "verificationSignature": "%s",
+                          "verifiedFields": {
+                            "firstname": "valid",
+                            "lastname": "valid"
+                          },
+                          "issues": []
+                        }""".formatted(request.getVerificationSignature()))));
+        stubFor(get("/api/v1/statistic/by-date")
+                .atPriority(1)
+                .withHeader("Authorization", equalTo(
+                        helper.generateAuthHeaderValue("/api/v1/statistic/by-date", "{}")))
+                .willReturn(okJson("""
+                        {
+                          "result": true,
+                          "data": {
+                            "numberOfValidSubmissions": 2,
+                            "numberOfSpamSubmissions": 0,
+                            "numbersByDate": {}
+                          }
+                        }""")));
+        stubFor(any(anyUrl())
+                .atPriority(2)
+                .willReturn(aResponse().withStatus(401)));
+    }
+
+    @Test
+    void testVerifySubmissionParametersIsValid() throws IOException, MosparoException {
+        Map<String, String[]> parameters = Map.of(
+                "lastname", new String[] { "Example" },
+                "firstname", new String[] { "John" },
+                "_mosparo_submitToken", new String[] { "submitToken" },
+                "_mosparo_validationToken", new String[] { "validationToken" });
+
+        stubFor(post("/api/v1/verification/verify")
+                .willReturn(okJson("""
+                        {
+                          "valid": true,
+                          "verificationSignature": "ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3",
+                          "verifiedFields": {
+                            "firstname": "valid",
+                            "lastname": "valid"
+                          },
+                          "issues": []
+                        }""")));
+
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey");
+        VerificationResult result = client.verifySubmissionParameters(parameters, Set.of("firstname", "lastname"));
+
+        verify(1, postRequestedFor(urlEqualTo("/api/v1/verification/verify"))
+                .withRequestBody(equalToJson("""
+                        {
+                            "submitToken": "submitToken",
+                            "validationSignature": "a20d6b36f87420850ef281ee977a554df2a749ed1892944e8ed22a1bc9c882a1",
+                            "formSignature": "cca193d4d38890d7aa0c27bc590da0a2a98ffc304dc19e947b5da8d4498f015c",
+                            "formData": {
+                                "firstname":"a8cfcd74832004951b4408cdb0a5dbcd8c7e52d43f7fe244bf720582e05241da",
+                                "lastname":"d029f87e3d80f8fd9b1be67c7426b4cc1ff47b4a9d0a8461c826a59d8c5eb6cd"
+                            }
+                        }
+                        """)));
+
+        assertTrue(result.isValid());
+    }
+
     @Test
     void testVerifySubmissionNullRequiredFields() {
         MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey");
@@ -132,6 +466,27 @@ class MosparoDefaultClientTest {
         assertEquals("_mosparo_validationToken must be provided.", thrown.getMessage());
     }
 
+    @Test
+    void testVerifySubmissionPreValidationRejects() {
+        Map<String, Object> formData = Map.of(
+                "firstname", "John",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+
+        SubmissionPreValidator preValidator = new SubmissionPreValidator();
+        MosparoClientConfig config = MosparoClientConfig.builder().preValidator(preValidator).build();
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                HttpClientBuilder.create().build(), config);
+
+        PreValidationException thrown = assertThrows(PreValidationException.class,
+                () -> client.verifySubmission(formData, Set.of("firstname", "lastname")));
+
+        assertEquals(PreValidationException.Reason.MISSING_REQUIRED_FIELD, thrown.getReason());
+        assertEquals(1, preValidator.getRejections(PreValidationException.Reason.MISSING_REQUIRED_FIELD));
+        // Rejected before any request to mosparo
+        verify(0, postRequestedFor(urlEqualTo("/api/v1/verification/verify")));
+    }
+
     @Test
     void testVerifySubmissionMismatchSignature() {
         Map<String, Object> formData = Map.of(
@@ -249,6 +604,276 @@ class MosparoDefaultClientTest {
         assertEquals("Connection reset", thrown.getMessage());
     }
 
+    @Test
+    void testReplayGuardRejectsReplayedSubmission(@TempDir Path directory) throws IOException, MosparoException {
+        Map<String, Object> formData = Map.of(
+                "firstname", "John",
+                "lastname", "Example",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+
+        stubFor(post("/api/v1/verification/verify")
+                .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+        try (ReplayGuard guard = ReplayGuard.open(directory.resolve("guard"), 1024, Duration.ofMinutes(10))) {
+            MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                    HttpClientBuilder.create().build(), MosparoClientConfig.builder().replayGuard(guard).build());
+
+            // The token of a verification which could not be sent is released
+            assertThrows(IOException.class, () -> client.verifySubmission(formData, Set.of("firstname", "lastname")));
+
+            stubFor(post("/api/v1/verification/verify")
+                    .willReturn(okJson("""
+                            {
+                              "valid": true,
+                              "verificationSignature": "ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3",
+                              "verifiedFields": {
+                                "firstname": "valid",
+                                "lastname": "valid"
+                              },
+                              "issues": []
+                            }""")));
+            assertTrue(client.verifySubmission(formData, Set.of("firstname", "lastname")).isValid());
+
+            PreValidationException thrown = assertThrows(PreValidationException.class,
+                    () -> client.verifySubmission(formData, Set.of("firstname", "lastname")));
+            assertEquals(PreValidationException.Reason.REPLAYED_SUBMIT_TOKEN, thrown.getReason());
+            assertEquals(1, guard.getReplays());
+            verify(2, postRequestedFor(urlEqualTo("/api/v1/verification/verify")));
+        }
+    }
+
+    @Test
+    void testReplayGuardReleasesTokenOfShedCall(@TempDir Path directory) throws IOException, MosparoException {
+        Map<String, Object> formData = Map.of(
+                "firstname", "John",
+                "lastname", "Example",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+
+        stubFor(post("/api/v1/verification/verify")
+                .willReturn(okJson("""
+                        {
+                          "valid": true,
+                          "verificationSignature": "ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3",
+                          "verifiedFields": {
+                            "firstname": "valid",
+                            "lastname": "valid"
+                          },
+                          "issues": []
+                        }""")));
+
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, Duration.ZERO, 0);
+        try (ReplayGuard guard = ReplayGuard.open(directory.resolve("guard"), 1024, Duration.ofMinutes(10))) {
+            MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                    HttpClientBuilder.create().build(),
+                    MosparoClientConfig.builder().replayGuard(guard).concurrencyLimiter(limiter).build());
+
+            // The only slot is taken, the call is shed before being sent
+            limiter.acquire(null);
+            assertThrows(LoadSheddingException.class,
+                    () -> client.verifySubmission(formData, Set.of("firstname", "lastname")));
+            limiter.release();
+
+            assertTrue(client.verifySubmission(formData, Set.of("firstname", "lastname")).isValid());
+            assertEquals(0, guard.getReplays());
+            verify(1, postRequestedFor(urlEqualTo("/api/v1/verification/verify")));
+        }
+    }
+
+    @Test
+    void testReplayGuardReleasesTokenOnErrorStatus(@TempDir Path directory) throws IOException, MosparoException {
+        Map<String, Object> formData = Map.of(
+                "firstname", "John",
+                "lastname", "Example",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+
+        stubFor(post("/api/v1/verification/verify").willReturn(aResponse().withStatus(503)));
+
+        try (ReplayGuard guard = ReplayGuard.open(directory.resolve("guard"), 1024, Duration.ofMinutes(10))) {
+            MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                    HttpClientBuilder.create().build(), MosparoClientConfig.builder().replayGuard(guard).build());
+
+            HttpStatusException thrown = assertThrows(HttpStatusException.class,
+                    () -> client.verifySubmission(formData, Set.of("firstname", "lastname")));
+            assertEquals(503, thrown.getStatusCode());
+
+            stubFor(post("/api/v1/verification/verify")
+                    .willReturn(okJson("""
+                            {
+                              "valid": true,
+                              "verificationSignature": "ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3",
+                              "verifiedFields": {
+                                "firstname": "valid",
+                                "lastname": "valid"
+                              },
+                              "issues": []
+                            }""")));
+            assertTrue(client.verifySubmission(formData, Set.of("firstname", "lastname")).isValid());
+            assertEquals(0, guard.getReplays());
+            verify(2, postRequestedFor(urlEqualTo("/api/v1/verification/verify")));
+        }
+    }
+
+    @Test
+    void testReplayGuardReleasesTokenOfInvalidRequest(@TempDir Path directory) throws IOException, MosparoException {
+        Map<String, Object> formData = Map.of(
+                "firstname", "John",
+                "_mosparo_submitToken", "submitToken");
+
+        try (ReplayGuard guard = ReplayGuard.open(directory.resolve("guard"), 1024, Duration.ofMinutes(10))) {
+            MosparoDefaultClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                    HttpClientBuilder.create().build(), MosparoClientConfig.builder().replayGuard(guard).build());
+
+            // Without validation token, the request cannot be built
+            assertThrows(MosparoException.class, () -> client.verifySubmission(formData, Set.of("firstname")));
+            assertThrows(MosparoException.class, () -> client.prepare(formData, Set.of("firstname")));
+
+            assertTrue(guard.tryRecord("submitToken"));
+        }
+    }
+
+    @Test
+    void testOutcomeCounters() throws IOException, MosparoException {
+        Map<String, Object> formData = Map.of(
+                "firstname", "John",
+                "lastname", "Example",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+
+        stubFor(post("/api/v1/verification/verify")
+                .willReturn(okJson("""
+                        {
+                          "valid": true,
+                          "verificationSignature": "ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3",
+                          "verifiedFields": {
+                            "firstname": "valid",
+                            "lastname": "valid"
+                          },
+                          "issues": []
+                        }""")));
+
+        OutcomeCounters counters = new OutcomeCounters();
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                HttpClientBuilder.create().build(),
+                MosparoClientConfig.builder().outcomeCounters(counters).outcomeFormId("contact").build());
+        client.verifySubmission(formData, Set.of("firstname", "lastname"));
+
+        assertEquals(1, counters.snapshot("contact").getNumberOfValidSubmissions());
+        assertEquals(0, counters.snapshot("contact").getNumberOfSpamSubmissions());
+    }
+
+    @Test
+    void testOutcomeCountersSkipBypassedRequiredField() throws IOException, MosparoException {
+        Map<String, Object> formData = Map.of(
+                "firstname", "John",
+                "lastname", "Example",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+
+        // The lastname was turned into an ignored field in the browser
+        stubFor(post("/api/v1/verification/verify")
+                .willReturn(okJson("""
+                        {
+                          "valid": true,
+                          "verificationSignature": "ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3",
+                          "verifiedFields": {
+                            "firstname": "valid"
+                          },
+                          "issues": []
+                        }""")));
+
+        OutcomeCounters counters = new OutcomeCounters();
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                HttpClientBuilder.create().build(),
+                MosparoClientConfig.builder().outcomeCounters(counters).outcomeFormId("contact").build());
+        assertThrows(MosparoException.class, () -> client.verifySubmission(formData, Set.of("firstname", "lastname")));
+
+        assertEquals(0, counters.snapshot("contact").getNumberOfValidSubmissions());
+    }
+
+    @Test
+    void testVerificationTimings() throws IOException, MosparoException {
+        Map<String, Object> formData = Map.of(
+                "firstname", "John",
+                "lastname", "Example",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+
+        stubFor(post("/api/v1/verification/verify")
+                .willReturn(okJson("""
+                        {
+                          "valid": true,
+                          "verificationSignature": "ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3",
+                          "verifiedFields": {
+                            "firstname": "valid",
+                            "lastname": "valid"
+                          },
+                          "issues": []
+                        }""").withFixedDelay(20)));
+
+        List<VerificationTimings> recorded = new ArrayList<>();
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                HttpClientBuilder.create().build(), MosparoClientConfig.builder().timingListener(recorded::add).build());
+        client.verifySubmission(formData, Set.of("firstname", "lastname"));
+
+        assertEquals(1, recorded.size());
+        VerificationTimings timings = recorded.get(0);
+        assertTrue(timings.isComplete());
+        for (VerificationTimings.Phase phase : VerificationTimings.Phase.values()) {
+            assertTrue(timings.getNanos(phase) >= 0, phase.name());
+        }
+        // The response delay of mosparo is measured in the execution of the request
+        assertTrue(timings.getNanos(VerificationTimings.Phase.EXECUTE) >= TimeUnit.MILLISECONDS.toNanos(20));
+
+        stubFor(post("/api/v1/verification/verify")
+                .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+        assertThrows(IOException.class, () -> client.verifySubmission(formData, Set.of("firstname", "lastname")));
+
+        assertEquals(2, recorded.size());
+        timings = recorded.get(1);
+        assertFalse(timings.isComplete());
+        assertTrue(timings.getNanos(VerificationTimings.Phase.ACQUIRE) >= 0);
+        assertEquals(-1, timings.getNanos(VerificationTimings.Phase.EXECUTE));
+    }
+
+    @Test
+    void testVerifySubmissionDeadlineExpired() {
+        Map<String, Object> formData = Map.of(
+                "firstname", "John",
+                "lastname", "Example",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey");
+        DeadlineExceededException thrown = assertThrows(DeadlineExceededException.class,
+                () -> client.verifySubmission(formData, Set.of("firstname", "lastname"), Deadline.after(Duration.ZERO)));
+
+        assertEquals("Deadline exceeded before buildVerificationRequest", thrown.getMessage());
+        verify(0, postRequestedFor(urlEqualTo("/api/v1/verification/verify")));
+    }
+
+    @Test
+    void testVerifySubmissionDeadlineBoundsReadTimeout() {
+        Map<String, Object> formData = Map.of(
+                "firstname", "John",
+                "lastname", "Example",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+
+        stubFor(post("/api/v1/verification/verify")
+                .willReturn(okJson("{}").withFixedDelay(5000)));
+
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey");
+        long start = System.nanoTime();
+        assertThrows(SocketTimeoutException.class,
+                () -> client.verifySubmission(formData, Set.of("firstname", "lastname"),
+                        Deadline.after(Duration.ofMillis(300))));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+    }
+
     @Test
     void testVerifySubmissionError() {
         Map<String, Object> formData = Map.of(
@@ -310,6 +935,386 @@ class MosparoDefaultClientTest {
 
     }
 
+    @Test
+    void testStatisticSeriesByDate() throws IOException, MosparoException {
+        stubFor(get("/api/v1/statistic/by-date?startDate=2022-12-30").willReturn(okJson("""
+                {
+                  "result":true,
+                  "data":{
+                    "numberOfValidSubmissions":5,
+                    "numberOfSpamSubmissions":7,
+                    "numbersByDate":{
+                      "2022-12-30":{
+                        "numberOfValidSubmissions":3,
+                        "numberOfSpamSubmissions":4
+                      },
+                      "2022-12-31":{
+                        "numberOfValidSubmissions":2,
+                        "numberOfSpamSubmissions":3
+                      }
+                    }
+                  }
+                }
+                """)));
+
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey");
+
+        StatisticSeries series = client.statisticSeriesByDate(null, LocalDate.of(2022, 12, 30));
+
+        assertEquals(2, series.size());
+        assertEquals(5, series.getTotalValidSubmissions());
+        assertEquals(7, series.getTotalSpamSubmissions());
+        assertEquals(4, series.getNumberOfSpamSubmissions(LocalDate.of(2022, 12, 30)));
+        assertEquals(2, series.getNumberOfValidSubmissions(LocalDate.of(2022, 12, 31)));
+    }
+
+    @Test
+    void testStatisticByDateVisitorReturnsError() {
+        stubFor(get("/api/v1/statistic/by-date").willReturn(okJson("""
+                {
+                  "error": true,
+                  "errorMessage": "Request not valid."
+                }
+                """)));
+
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey");
+
+        MosparoException thrown = assertThrows(MosparoException.class,
+                () -> client.statisticByDate(null, null, (epochDay, valid, spam) -> {
+                }));
+        assertEquals("Request not valid.", thrown.getMessage());
+    }
+
+    @Test
+    void testStatisticByDateResponseTooLarge() {
+        stubFor(get("/api/v1/statistic/by-date").willReturn(okJson(largeStatisticResult(1000))));
+        ResponseLimits limits = new ResponseLimits(1024, 1024);
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                HttpClientBuilder.create().build(), MosparoClientConfig.builder().responseLimits(limits).build());
+
+        MosparoException thrown = assertThrows(MosparoException.class, () -> client.statisticByDate(null, null));
+        assertEquals("Response from API too large.", thrown.getMessage());
+        assertEquals(1, limits.getTruncatedResponses());
+    }
+
+    @Test
+    void testStatisticByDateChunkedResponseTooLarge() {
+        // Without a declared length, the response is aborted while it is parsed
+        stubFor(get("/api/v1/statistic/by-date").willReturn(aResponse().withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody(largeStatisticResult(1000))
+                .withChunkedDribbleDelay(20, 20)));
+        ResponseLimits limits = new ResponseLimits(1024, 1024);
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                HttpClientBuilder.create().build(), MosparoClientConfig.builder().responseLimits(limits).build());
+
+        MosparoException thrown = assertThrows(MosparoException.class,
+                () -> client.statisticByDate(null, null, (epochDay, valid, spam) -> {
+                }));
+        assertEquals("Response from API too large.", thrown.getMessage());
+        assertEquals(1, limits.getTruncatedResponses());
+    }
+
+    @Test
+    void testStatisticByDateWithinResponseLimits() throws IOException, MosparoException {
+        stubFor(get("/api/v1/statistic/by-date").willReturn(okJson(largeStatisticResult(10))));
+        ResponseLimits limits = new ResponseLimits();
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                HttpClientBuilder.create().build(), MosparoClientConfig.builder().responseLimits(limits).build());
+
+        StatisticResult result = client.statisticByDate(null, null);
+
+        assertEquals(10, result.getData().getNumbersByDate().size());
+        assertEquals(0, limits.getTruncatedResponses());
+    }
+
+    @Test
+    void testLargeErrorResponseDiscardsConnection() {
+        stubFor(get("/api/v1/statistic/by-date").willReturn(aResponse().withStatus(500)
+                .withStatusMessage("Internal Server Error")
+                .withBody("x".repeat(64 * 1024))));
+        ResponseLimits limits = new ResponseLimits();
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                HttpClientBuilder.create().build(), MosparoClientConfig.builder().responseLimits(limits).build());
+
+        MosparoException thrown = assertThrows(MosparoException.class, () -> client.statisticByDate(null, null));
+        assertEquals("Internal Server Error", thrown.getMessage());
+        assertEquals(1, limits.getDiscardedConnections());
+    }
+
+    private static String largeStatisticResult(int days) {
+        StringBuilder numbersByDate = new StringBuilder();
+        LocalDate date = LocalDate.of(2022, 1, 1);
+        for (int i = 0; i < days; i++) {
+            if (i > 0) {
+                numbersByDate.append(',');
+            }
+            numbersByDate.append('"').append(date.plusDays(i))
+                    .append("\":{\"numberOfValidSubmissions\":1,\"numberOfSpamSubmissions\":1}");
+        }
+        return "{\"result\":true,\"data\":{\"numberOfValidSubmissions\":" + days + ",\"numberOfSpamSubmissions\":" + days
+                + ",\"numbersByDate\":{" + numbersByDate + "}}}";
+    }
+
+    @Test
+    void testStatisticBulkheadFullDoesNotBlockHealthCheck() throws Exception {
+        stubFor(get("/api/v1/statistic/by-date").willReturn(okJson("""
+                {
+                  "result":true,
+                  "data":{
+                    "numberOfValidSubmissions":0,
+                    "numberOfSpamSubmissions":0,
+                    "numbersByDate":{}
+                  }
+                }
+                """).withFixedDelay(500)));
+        stubFor(get("/api/v1/health/check").willReturn(okJson("""
+                {
+                  "service": "mosparo",
+                  "healthy": true,
+                  "databaseStatus": "connected"
+                }
+                """)));
+        Bulkheads bulkheads = new Bulkheads(new Bulkhead("verification", 2, Duration.ofSeconds(1)),
+                new Bulkhead("statistic", 1, Duration.ZERO), new Bulkhead("healthCheck", 1, Duration.ZERO));
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                HttpClientBuilder.create().build(), MosparoClientConfig.builder().bulkheads(bulkheads).build());
+
+        CompletableFuture<StatisticResult> slowStatistic = CompletableFuture.supplyAsync(() -> {
+            try {
+                return client.statisticByDate(null, null);
+            } catch (IOException | MosparoException e) {
+                throw new CompletionException(e);
+            }
+        });
+        while (bulkheads.getStatistic().getAvailablePermits() > 0) {
+            Thread.sleep(5);
+        }
+
+        assertThrows(BulkheadFullException.class, () -> client.statisticByDate(null, null));
+        assertTrue(client.healthCheck().isHealthy());
+        assertTrue(slowStatistic.get().getResult());
+        assertEquals(1, bulkheads.getStatistic().getRejections());
+        assertEquals(1, bulkheads.getStatistic().getAvailablePermits());
+    }
+
+    @Test
+    void testFairShareSchedulerIsolatesTenants() throws Exception {
+        stubFor(get("/api/v1/health/check").willReturn(okJson("""
+                {
+                  "service": "mosparo",
+                  "healthy": true,
+                  "databaseStatus": "connected"
+                }
+                """).withFixedDelay(500)));
+        FairShareScheduler scheduler = new FairShareScheduler(2, 1, Duration.ZERO, 0);
+        MosparoClientConfig config = MosparoClientConfig.builder().fairShareScheduler(scheduler).build();
+        MosparoClient noisy = new MosparoDefaultClient(mosparoUrl, "noisyPublicKey", "privateKey",
+                HttpClientBuilder.create().build(), config);
+        MosparoClient quiet = new MosparoDefaultClient(mosparoUrl, "quietPublicKey", "privateKey",
+                HttpClientBuilder.create().build(), config);
+
+        CompletableFuture<HealthCheckResult> slowCall = CompletableFuture.supplyAsync(() -> {
+            try {
+                return noisy.healthCheck();
+            } catch (IOException | MosparoException e) {
+                throw new CompletionException(e);
+            }
+        });
+        while (scheduler.getInFlight("noisyPublicKey") == 0) {
+            Thread.sleep(5);
+        }
+
+        assertThrows(LoadSheddingException.class, noisy::healthCheck);
+        assertTrue(quiet.healthCheck().isHealthy());
+        assertTrue(slowCall.get().isHealthy());
+        assertEquals(1, scheduler.getShed());
+        assertEquals(0, scheduler.getInFlight());
+    }
+
+    @Test
+    void testConcurrencyLimiterShedsCallOverLimit() throws Exception {
+        stubFor(get("/api/v1/health/check").willReturn(okJson("""
+                {
+                  "service": "mosparo",
+                  "healthy": true,
+                  "databaseStatus": "connected"
+                }
+                """).withFixedDelay(500)));
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, Duration.ZERO, 0);
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                HttpClientBuilder.create().build(), MosparoClientConfig.builder().concurrencyLimiter(limiter).build());
+
+        CompletableFuture<HealthCheckResult> slowCall = CompletableFuture.supplyAsync(() -> {
+            try {
+                return client.healthCheck();
+            } catch (IOException | MosparoException e) {
+                throw new CompletionException(e);
+            }
+        });
+        while (limiter.getInFlight() == 0) {
+            Thread.sleep(5);
+        }
+
+        assertThrows(LoadSheddingException.class, client::healthCheck);
+        assertTrue(slowCall.get().isHealthy());
+        assertEquals(1, limiter.getShed());
+        assertEquals(0, limiter.getInFlight());
+        assertTrue(limiter.getMinRtt().toMillis() >= 500);
+    }
+
+    @Test
+    void testConcurrencyLimiterCountsOverloadStatusAsDrop() {
+        stubFor(get("/api/v1/health/check").willReturn(aResponse().withStatus(503)));
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 1, 100, Duration.ZERO, 0);
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                HttpClientBuilder.create().build(), MosparoClientConfig.builder().concurrencyLimiter(limiter).build());
+
+        HttpStatusException thrown = assertThrows(HttpStatusException.class, client::healthCheck);
+
+        assertEquals(503, thrown.getStatusCode());
+        assertEquals(1, limiter.getDrops());
+        assertEquals(9, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testAdaptiveTimeoutsSkipErrorStatusesAndRecordTimeouts() throws IOException, MosparoException {
+        String endpoint = "/api/v1/health/check";
+        String healthy = """
+                {"service": "mosparo", "healthy": true, "databaseStatus": "connected"}""";
+        AdaptiveTimeouts timeouts = new AdaptiveTimeouts(0.99, 3, Duration.ofMillis(100), Duration.ofSeconds(5));
+        MosparoClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                HttpClientBuilder.create().build(), MosparoClientConfig.builder().adaptiveTimeouts(timeouts).build());
+
+        // Fast error responses would lower the timeout
+        stubFor(get(endpoint).willReturn(aResponse().withStatus(503)));
+        for (int i = 0; i < 2 * AdaptiveTimeouts.MIN_SAMPLES; i++) {
+            assertThrows(HttpStatusException.class, client::healthCheck);
+        }
+        assertEquals(5000, timeouts.getTimeoutMillis(endpoint));
+
+        stubFor(get(endpoint).willReturn(okJson(healthy)));
+        for (int i = 0; i < 2 * AdaptiveTimeouts.MIN_SAMPLES; i++) {
+            client.healthCheck();
+        }
+        long timeout = timeouts.getTimeoutMillis(endpoint);
+        assertTrue(timeout < 5000);
+
+        // mosparo slows down, the timed out calls raise the timeout until the calls complete again
+        stubFor(get(endpoint).willReturn(okJson(healthy).withFixedDelay((int) (2 * timeout))));
+        int timedOut = 0;
+        while (true) {
+            try {
+                client.healthCheck();
+                break;
+            } catch (SocketTimeoutException e) {
+                timedOut++;
+                assertTrue(timedOut <= AdaptiveTimeouts.WINDOW_SIZE);
+            }
+        }
+        assertTrue(timedOut > 0);
+        assertTrue(timeouts.getTimeoutMillis(endpoint) > timeout);
+    }
+
+    @Test
+    void testConcurrencyLimiterDoesNotSampleUnsentCall() throws Exception {
+        Map<String, Object> formData = Map.of(
+                "firstname", "John",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 1, 100, Duration.ZERO, 0);
+        MosparoDefaultClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey",
+                HttpClientBuilder.create().build(), MosparoClientConfig.builder().concurrencyLimiter(limiter).build());
+        PreparedVerification prepared = client.prepare(formData, Set.of("firstname"));
+
+        assertThrows(DeadlineExceededException.class, () -> client.send(prepared, Deadline.after(Duration.ZERO)));
+
+        verify(0, postRequestedFor(urlEqualTo("/api/v1/verification/verify")));
+        assertEquals(0, limiter.getDrops());
+        assertEquals(Duration.ZERO, limiter.getMinRtt());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testCloseDrainsCallsInProgress() throws Exception {
+        stubFor(get("/api/v1/health/check").willReturn(okJson("""
+                {
+                  "service": "mosparo",
+                  "healthy": true,
+                  "databaseStatus": "connected"
+                }
+                """).withFixedDelay(300)));
+        MosparoDefaultClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey");
+
+        CompletableFuture<HealthCheckResult> slowCall = CompletableFuture.supplyAsync(() -> {
+            try {
+                return client.healthCheck();
+            } catch (IOException | MosparoException e) {
+                throw new CompletionException(e);
+            }
+        });
+        while (client.getInFlight() == 0) {
+            Thread.sleep(5);
+        }
+
+        assertTrue(client.close(Duration.ofSeconds(5)));
+        assertTrue(client.isClosed());
+        assertTrue(slowCall.get().isHealthy());
+        assertThrows(IllegalStateException.class, client::healthCheck);
+        assertEquals(0, client.getInFlight());
+    }
+
+    @Test
+    void testCloseAbortsCallsAfterDrainTimeout() throws Exception {
+        stubFor(get("/api/v1/health/check").willReturn(okJson("""
+                {
+                  "service": "mosparo",
+                  "healthy": true,
+                  "databaseStatus": "connected"
+                }
+                """).withFixedDelay(2000)));
+        MosparoDefaultClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey");
+
+        CompletableFuture<HealthCheckResult> slowCall = CompletableFuture.supplyAsync(() -> {
+            try {
+                return client.healthCheck();
+            } catch (IOException | MosparoException e) {
+                throw new CompletionException(e);
+            }
+        });
+        while (client.getInFlight() == 0) {
+            Thread.sleep(5);
+        }
+
+        long start = System.nanoTime();
+        assertFalse(client.close(Duration.ofMillis(100)));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> slowCall.get(1, TimeUnit.SECONDS));
+        assertThat(e).hasCauseInstanceOf(IOException.class);
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1500));
+    }
+
+    @Test
+    void testCloseLeavesProvidedHttpClientOpen() throws IOException, MosparoException {
+        stubFor(get("/api/v1/health/check").willReturn(okJson("""
+                {
+                  "service": "mosparo",
+                  "healthy": true,
+                  "databaseStatus": "connected"
+                }
+                """)));
+        CloseableHttpClient httpClient = HttpClientBuilder.create().build();
+        MosparoDefaultClient client = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey", httpClient,
+                MosparoClientConfig.DEFAULT);
+
+        assertTrue(client.close(Duration.ZERO));
+
+        MosparoClient other = new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey", httpClient,
+                MosparoClientConfig.DEFAULT);
+        assertTrue(other.healthCheck().isHealthy());
+        httpClient.close();
+    }
+
     @Test
     void testStatisticByDateWithRange() throws IOException, MosparoException {
         stubFor(get("/api/v1/statistic/by-date?range=3600").willReturn(okJson("""
@@ -0,0 +1,162 @@
+package io.mosparo.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class OutcomeCountersTest {
+
+    static final VerificationResult VALID = new VerificationResult(true, "sign",
+            Map.of("name", VerificationResult.FIELD_VALID), List.of(), null, null);
+    static final VerificationResult INVALID = new VerificationResult(false, null,
+            Map.of("name", VerificationResult.FIELD_VALID, "email", VerificationResult.FIELD_INVALID),
+            List.of(new VerificationResult.Issue("email", "Field not valid.")), null, null);
+
+    @Test
+    void testRecordAndSnapshot() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-03-10T10:15:30Z"));
+        OutcomeCounters counters = new OutcomeCounters(Duration.ofMinutes(60), clock);
+
+        counters.record("contact", VALID);
+        counters.record("contact", INVALID);
+        clock.instant = clock.instant.plusSeconds(60);
+        counters.record("contact", INVALID);
+        counters.record("newsletter", VALID);
+
+        OutcomeCounters.OutcomeSnapshot snapshot = counters.snapshot("contact");
+
+        assertEquals(1, snapshot.getNumberOfValidSubmissions());
+        assertEquals(2, snapshot.getNumberOfSpamSubmissions());
+        assertThat(snapshot.getNumbersByMinute()).containsExactly(
+                entry(Instant.parse("2024-03-10T10:15:00Z"), new StatisticResult.Statistic(1, 1)),
+                entry(Instant.parse("2024-03-10T10:16:00Z"), new StatisticResult.Statistic(0, 1)));
+        assertThat(snapshot.getInvalidFields()).containsExactly(entry("email", 2L));
+
+        assertEquals(1, counters.snapshot("newsletter").getNumberOfValidSubmissions());
+        assertTrue(counters.snapshot("unknown").getNumbersByMinute().isEmpty());
+    }
+
+    @Test
+    void testRetention() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-03-10T10:15:30Z"));
+        OutcomeCounters counters = new OutcomeCounters(Duration.ofMinutes(5), clock);
+
+        counters.record("contact", INVALID);
+        clock.instant = clock.instant.plusSeconds(4 * 60);
+        counters.record("contact", VALID);
+        assertEquals(1, counters.snapshot("contact").getNumberOfSpamSubmissions());
+
+        // The first minute expired, and its bucket is reused
+        clock.instant = clock.instant.plusSeconds(60);
+        assertEquals(0, counters.snapshot("contact").getNumberOfSpamSubmissions());
+        counters.record("contact", VALID);
+
+        OutcomeCounters.OutcomeSnapshot snapshot = counters.snapshot("contact");
+        assertEquals(2, snapshot.getNumberOfValidSubmissions());
+        assertEquals(0, snapshot.getNumberOfSpamSubmissions());
+        assertTrue(snapshot.getInvalidFields().isEmpty());
+    }
+
+    @Test
+    void testToStatisticResult() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-03-10T23:59:30Z"));
+        OutcomeCounters counters = new OutcomeCounters(Duration.ofMinutes(60), clock);
+
+        counters.record("contact", VALID);
+        clock.instant = clock.instant.plusSeconds(60);
+        counters.record("contact", INVALID);
+        counters.record("contact", VALID);
+
+        StatisticResult result = counters.snapshot("contact").toStatisticResult(ZoneOffset.UTC);
+
+        assertTrue(result.getResult());
+        assertEquals(2, result.getData().getNumberOfValidSubmissions());
+        assertEquals(1, result.getData().getNumberOfSpamSubmissions());
+        assertThat(result.getData().getNumbersByDate()).containsExactly(
+                entry(LocalDate.of(2024, 3, 10), new StatisticResult.Statistic(1, 0)),
+                entry(LocalDate.of(2024, 3, 11), new StatisticResult.Statistic(1, 1)));
+    }
+
+    @Test
+    void testErrorResultsNotCounted() {
+        OutcomeCounters counters = new OutcomeCounters();
+
+        counters.record("contact", new VerificationResult(null, null, null, null, true, "Validation failed."));
+
+        OutcomeCounters.OutcomeSnapshot snapshot = counters.snapshot("contact");
+        assertEquals(0, snapshot.getNumberOfSpamSubmissions());
+        assertTrue(snapshot.getNumbersByMinute().isEmpty());
+    }
+
+    @Test
+    void testInvalidFieldNamesCapped() {
+        OutcomeCounters counters = new OutcomeCounters(Duration.ofMinutes(60), 2,
+                new MutableClock(Instant.parse("2024-03-10T10:15:30Z")));
+
+        for (String field : List.of("email", "name", "bot1", "bot2", "email")) {
+            counters.record("contact", new VerificationResult(false, null,
+                    Map.of(field, VerificationResult.FIELD_INVALID), List.of(), null, null));
+        }
+
+        assertThat(counters.snapshot("contact").getInvalidFields()).containsOnly(
+                entry("email", 2L), entry("name", 1L), entry(OutcomeCounters.OTHER_FIELDS, 2L));
+    }
+
+    @Test
+    void testConcurrentRecords() throws InterruptedException {
+        OutcomeCounters counters = new OutcomeCounters();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    counters.record("contact", j % 2 == 0 ? VALID : INVALID);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        OutcomeCounters.OutcomeSnapshot snapshot = counters.snapshot("contact");
+        assertEquals(8000, snapshot.getNumberOfValidSubmissions() + snapshot.getNumberOfSpamSubmissions());
+    }
+
+    static class MutableClock extends Clock {
+
+        Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
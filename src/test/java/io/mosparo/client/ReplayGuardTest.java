@@ -0,0 +1,213 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReplayGuardTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-10T12:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRejectsReplayedTokens() throws IOException {
+        try (ReplayGuard guard = ReplayGuard.open(directory.resolve("guard"), 1024, Duration.ofMinutes(10),
+                clock(NOW))) {
+            assertTrue(guard.tryRecord("submitToken1"));
+            assertTrue(guard.tryRecord("submitToken2"));
+            assertFalse(guard.tryRecord("submitToken1"));
+            assertFalse(guard.tryRecord("submitToken2"));
+            assertEquals(2, guard.getReplays());
+        }
+    }
+
+    @Test
+    void testSharedBetweenProcesses() throws IOException {
+        Path file = directory.resolve("guard");
+        Duration ttl = Duration.ofMinutes(10);
+
+        // Every instance maps the file, like the JVMs of a host
+        OutcomeCountersTest.MutableClock time = new OutcomeCountersTest.MutableClock(NOW);
+        try (ReplayGuard first = ReplayGuard.open(file, 1024, ttl, time);
+                ReplayGuard second = ReplayGuard.open(file, 1024, ttl, time)) {
+            assertTrue(first.tryRecord("submitToken"));
+            time.instant = NOW.plusSeconds(60);
+            assertFalse(second.tryRecord("submitToken"));
+
+            // The token expired, then is used again
+            time.instant = NOW.plus(ttl);
+            assertTrue(second.tryRecord("submitToken"));
+            assertFalse(first.tryRecord("submitToken"));
+        }
+        try (ReplayGuard reopened = ReplayGuard.open(file, 1024, ttl, clock(NOW.plus(ttl)))) {
+            assertFalse(reopened.tryRecord("submitToken"));
+        }
+    }
+
+    @Test
+    void testClockSkew() throws IOException {
+        Path file = directory.resolve("guard");
+        Duration ttl = Duration.ofMinutes(10);
+
+        try (ReplayGuard guard = ReplayGuard.open(file, 1024, ttl, clock(NOW));
+                ReplayGuard slightlyAhead = ReplayGuard.open(file, 1024, ttl, clock(NOW.plusSeconds(30)));
+                ReplayGuard farAhead = ReplayGuard.open(file, 1024, ttl, clock(NOW.plus(Duration.ofHours(1))))) {
+            assertTrue(slightlyAhead.tryRecord("submitToken1"));
+            assertFalse(guard.tryRecord("submitToken1"));
+
+            // A stamp beyond the clock skew cannot be trusted, it does not keep the token for longer than its ttl
+            assertTrue(farAhead.tryRecord("submitToken2"));
+            assertTrue(guard.tryRecord("submitToken2"));
+        }
+    }
+
+    @Test
+    void testTokensExpireAfterMonths() throws IOException {
+        Path file = directory.resolve("guard");
+        Duration ttl = Duration.ofMinutes(10);
+
+        OutcomeCountersTest.MutableClock time = new OutcomeCountersTest.MutableClock(NOW);
+        try (ReplayGuard guard = ReplayGuard.open(file, 1024, ttl, time)) {
+            assertTrue(guard.tryRecord("submitToken"));
+
+            // Beyond the range of a 24 bits stamp of seconds
+            time.instant = NOW.plus(Duration.ofDays(100));
+            assertTrue(guard.tryRecord("submitToken"));
+            assertFalse(guard.tryRecord("submitToken"));
+
+            time.instant = NOW.plus(Duration.ofDays(100 * 365));
+            assertTrue(guard.tryRecord("submitToken"));
+        }
+    }
+
+    @Test
+    void testRelease() throws IOException {
+        try (ReplayGuard guard = ReplayGuard.open(directory.resolve("guard"), 1024, Duration.ofMinutes(10),
+                clock(NOW))) {
+            assertTrue(guard.tryRecord("submitToken"));
+            guard.release("submitToken");
+            guard.release("unknownToken");
+
+            assertTrue(guard.tryRecord("submitToken"));
+            assertFalse(guard.tryRecord("submitToken"));
+        }
+    }
+
+    @Test
+    void testFullTableLetsTokensThrough() throws IOException {
+        try (ReplayGuard guard = ReplayGuard.open(directory.resolve("guard"), 3, Duration.ofMinutes(10),
+                clock(NOW))) {
+            // Rounded up to 4 slots
+            for (int i = 0; i < 4; i++) {
+                assertTrue(guard.tryRecord("submitToken" + i));
+            }
+            assertTrue(guard.tryRecord("submitToken4"));
+            assertTrue(guard.tryRecord("submitToken4"));
+            assertEquals(2, guard.getOverflows());
+            assertFalse(guard.tryRecord("submitToken0"));
+        }
+    }
+
+    @Test
+    void testConcurrentUsesAcceptedOnce() throws Exception {
+        Path file = directory.resolve("guard");
+        int tokens = 2000;
+        int threads = 8;
+        AtomicIntegerArray accepted = new AtomicIntegerArray(tokens);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (ReplayGuard first = ReplayGuard.open(file, 4096, Duration.ofMinutes(10), clock(NOW));
+                ReplayGuard second = ReplayGuard.open(file, 4096, Duration.ofMinutes(10), clock(NOW))) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                ReplayGuard guard = t % 2 == 0 ? first : second;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < tokens; i++) {
+                        if (guard.tryRecord("submitToken" + i)) {
+                            accepted.incrementAndGet(i);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(0, first.getOverflows() + second.getOverflows());
+            assertEquals((long) tokens * (threads - 1), first.getReplays() + second.getReplays());
+        } finally {
+            executor.shutdownNow();
+        }
+        for (int i = 0; i < tokens; i++) {
+            assertEquals(1, accepted.get(i), "submitToken" + i);
+        }
+    }
+
+    @Test
+    void testConcurrentOpensInOneJvm() throws Exception {
+        Path file = directory.resolve("guard");
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<ReplayGuard> guards = new ArrayList<>();
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<ReplayGuard>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return ReplayGuard.open(file, 1024, Duration.ofMinutes(10), clock(NOW));
+                }));
+            }
+            start.countDown();
+            for (Future<ReplayGuard> future : futures) {
+                guards.add(future.get(10, TimeUnit.SECONDS));
+            }
+
+            assertTrue(guards.get(0).tryRecord("submitToken"));
+            assertFalse(guards.get(threads - 1).tryRecord("submitToken"));
+        } finally {
+            executor.shutdownNow();
+            for (ReplayGuard guard : guards) {
+                guard.close();
+            }
+        }
+    }
+
+    @Test
+    void testOpenWithOtherSlots() throws IOException {
+        Path file = directory.resolve("guard");
+        ReplayGuard.open(file, 1024, Duration.ofMinutes(10)).close();
+
+        assertThrows(IOException.class, () -> ReplayGuard.open(file, 2048, Duration.ofMinutes(10)));
+        Path other = Files.writeString(directory.resolve("other"), "not a replay guard");
+        assertThrows(IOException.class, () -> ReplayGuard.open(other, 1024, Duration.ofMinutes(10)));
+    }
+
+    private static Clock clock(Instant instant) {
+        return Clock.fixed(instant, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,73 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+
+class RequestCompressionTest {
+
+    @Test
+    void testCompressIsReadableGzip() throws IOException {
+        RequestCompression compression = new RequestCompression(0, Deflater.BEST_SPEED, 1);
+        byte[] body = largeBody(500);
+
+        // The second compression reuses the pooled deflater
+        for (int i = 0; i < 2; i++) {
+            byte[] compressed = compression.compress(body);
+            assertArrayEquals(body, gunzip(compressed));
+        }
+        assertEquals(2, compression.getCompressedRequests());
+        assertEquals(2L * body.length, compression.getUncompressedBytes());
+        assertTrue(compression.getCompressedBytes() < compression.getUncompressedBytes() * 3 / 4);
+    }
+
+    @Test
+    void testCompressEmptyBody() throws IOException {
+        RequestCompression compression = new RequestCompression(0, Deflater.DEFAULT_COMPRESSION, 1);
+
+        assertArrayEquals(new byte[0], gunzip(compression.compress(new byte[0])));
+    }
+
+    @Test
+    void testThreshold() {
+        RequestCompression compression = new RequestCompression();
+
+        assertFalse(compression.shouldCompress(new byte[RequestCompression.DEFAULT_THRESHOLD - 1]));
+        assertTrue(compression.shouldCompress(new byte[RequestCompression.DEFAULT_THRESHOLD]));
+    }
+
+    @Test
+    void testInvalidLevel() {
+        assertThrows(IllegalArgumentException.class, () -> new RequestCompression(0, 10, 1));
+    }
+
+    private static byte[] largeBody(int fields) {
+        // Like a verification request: a hash per field
+        StringBuilder builder = new StringBuilder("{\"formData\":{");
+        for (int i = 0; i < fields; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("\"field").append(i).append("\":\"")
+                    .append(DigestUtils.sha256Hex(String.valueOf(i))).append('"');
+        }
+        return builder.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
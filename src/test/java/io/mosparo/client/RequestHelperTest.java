@@ -3,11 +3,26 @@ package io.mosparo.client;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.commons.codec.digest.HmacAlgorithms;
+import org.apache.commons.codec.digest.HmacUtils;
 import org.junit.jupiter.api.Test;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -29,6 +44,27 @@ class RequestHelperTest {
         assertEquals("0646b5f2e09db205a8b3eb0e7429645561a1b9fdff1fcdb1fed9cd585108d850", helper.createHmacHash(data));
     }
 
+    @Test
+    void testCreateHmacHashConcurrently() throws InterruptedException {
+        RequestHelper helper = new RequestHelper(publicKey, privateKey);
+        String expected = helper.createHmacHash("testData");
+
+        AtomicInteger mismatches = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    if (!expected.equals(helper.createHmacHash("testData"))) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(0, mismatches.get());
+    }
+
     @Test
     void testPrepareAndHash() {
         RequestHelper helper = new RequestHelper(publicKey, privateKey);
@@ -51,6 +87,60 @@ class RequestHelperTest {
                 helper.prepareAndHash("Teststreet\r\nTest\r\nStreet"));
     }
 
+    @Test
+    void testPrepareAndHashStreams() {
+        RequestHelper helper = new RequestHelper(publicKey, privateKey);
+
+        assertEquals("f0026e9b4550ae1b057893f70438648e9233301a0ba1a91d5057d225527b0de1",
+                helper.prepareAndHash(new StringBuilder("Teststreet\r\nTest\r\nStreet")));
+        assertEquals("f0026e9b4550ae1b057893f70438648e9233301a0ba1a91d5057d225527b0de1",
+                helper.prepareAndHash(new StringReader("Teststreet\r\nTest\r\nStreet")));
+        assertEquals("f0026e9b4550ae1b057893f70438648e9233301a0ba1a91d5057d225527b0de1",
+                helper.prepareAndHash(new ByteArrayInputStream("Teststreet\r\nTest\r\nStreet".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void testBuildVerificationRequestUnreadableValue() {
+        RequestHelper helper = new RequestHelper(publicKey, privateKey);
+
+        Map<String, Object> formData = Map.of(
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken",
+                "message", new Reader() {
+                    @Override
+                    public int read(char[] cbuf, int off, int len) throws IOException {
+                        throw new IOException("Stream closed");
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                });
+
+        MosparoException thrown = assertThrows(MosparoException.class, () -> helper.buildVerificationRequest(formData));
+        assertEquals("Unable to read form data.", thrown.getMessage());
+    }
+
+    @Test
+    void testPrepareAndHashWithCache() {
+        HashCache cache = HashCache.forFields(10, Set.of("street"));
+        RequestHelper helper = new RequestHelper(publicKey, privateKey, cache);
+
+        Map<String, Object> formData = Map.of(
+                "street", "Teststreet",
+                "number", 123);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(helper.prepareAndHashFormData(formData)).containsExactly(
+                    entry("number", "a665a45920422f9d417e4867efdc4fb8a04a1f3fff1fa07e998e86f7f7a27ae3"),
+                    entry("street", "cc0bdb0377d3ba87046028784e8a4319972a7c9df31c645e80e14e8dd8735b6b"));
+        }
+
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
     @Test
     void testPrepareAndHashList() {
         RequestHelper helper = new RequestHelper(publicKey, privateKey);
@@ -149,4 +239,85 @@ class RequestHelperTest {
         assertEquals("08288d6a1a3e72cf6b2981e15a3a0be52d9606c590165fb95247c25e5570e874",
                 helper.generateFormDataSignature(formData));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testPrepareAndHashParameters() {
+        RequestHelper helper = new RequestHelper(publicKey, privateKey);
+
+        Map<String, String[]> parameters = Map.of(
+                "_mosparo_submitToken", new String[] { "submitToken" },
+                "_mosparo_validationToken", new String[] { "validationToken" },
+                "name", new String[] { "Test Tester" },
+                "email", new String[] { "test@example.com", "test2@example.com" },
+                "website", new String[0]);
+
+        Map<String, Object> formData = Map.of(
+                "name", "Test Tester",
+                "email", List.of("test@example.com", "test2@example.com"),
+                "website", "");
+
+        SortedMap<String, Object> actual = helper.prepareAndHashParameters(parameters);
+
+        assertThat(actual).containsOnlyKeys("email", "name", "website");
+        assertThat(actual).isEqualTo(helper.prepareAndHashFormData(formData));
+    }
+
+    @Test
+    void testBuildVerificationRequestFromParameters() throws MosparoException {
+        RequestHelper helper = new RequestHelper(publicKey, privateKey);
+
+        Map<String, String[]> parameters = Map.of(
+                "_mosparo_submitToken", new String[] { "submitToken" },
+                "_mosparo_validationToken", new String[] { "validationToken" },
+                "firstname", new String[] { "John" });
+
+        Map<String, Object> formData = Map.of(
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken",
+                "firstname", "John");
+
+        assertEquals(helper.buildVerificationRequest(formData), helper.buildVerificationRequestFromParameters(parameters));
+    }
+
+    @Test
+    void testToFormData() throws MosparoException {
+        RequestHelper helper = new RequestHelper(publicKey, privateKey);
+
+        Map<String, String[]> parameters = Map.of(
+                "_mosparo_submitToken", new String[] { "submitToken" },
+                "_mosparo_validationToken", new String[] { "validationToken" },
+                "name", new String[] { "Test Tester" },
+                "email", new String[] { "test@example.com", "test2@example.com" },
+                "website", new String[0]);
+
+        Map<String, Object> formData = RequestHelper.toFormData(parameters);
+
+        assertEquals(List.of("test@example.com", "test2@example.com"), formData.get("email"));
+        assertEquals("", formData.get("website"));
+        assertEquals(helper.buildVerificationRequestFromParameters(parameters), helper.buildVerificationRequest(formData));
+    }
+
+    @Test
+    void testBuildVerificationRequestFromParametersMultipleTokens() {
+        RequestHelper helper = new RequestHelper(publicKey, privateKey);
+
+        Map<String, String[]> parameters = Map.of(
+                "_mosparo_submitToken", new String[] { "submitToken", "otherToken" },
+                "_mosparo_validationToken", new String[] { "validationToken" });
+
+        MosparoException thrown = assertThrows(MosparoException.class,
+                () -> helper.buildVerificationRequestFromParameters(parameters));
+        assertEquals("_mosparo_submitToken must be a String value.", thrown.getMessage());
+    }
+
+    @Test
+    void testGenerateAuthHeaderValueEmptyBodyCached() {
+        RequestHelper helper = new RequestHelper("publicKey", "privateKey");
+        String expected = Base64.getEncoder().encodeToString(("publicKey:"
+                + new HmacUtils(HmacAlgorithms.HMAC_SHA_256, "privateKey").hmacHex("/api/v1/statistic/by-date{}"))
+                .getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(expected, helper.generateAuthHeaderValue("/api/v1/statistic/by-date", "{}"));
+        assertEquals(expected, helper.generateAuthHeaderValue("/api/v1/statistic/by-date", "{}"));
+    }
+}
@@ -0,0 +1,52 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.jupiter.api.Test;
+
+class ResponseLimitsTest {
+
+    @Test
+    void testLimitAllowsResponseOfMaxSize() throws IOException {
+        ResponseLimits limits = new ResponseLimits(16, 0);
+        byte[] body = new byte[16];
+
+        try (InputStream in = limits.limit(new ByteArrayInputStream(body))) {
+            assertArrayEquals(body, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void testLimitRejectsLargerResponse() {
+        ResponseLimits limits = new ResponseLimits(16, 0);
+        InputStream in = limits.limit(new ByteArrayInputStream(new byte[17]));
+
+        assertThrows(ResponseLimits.ResponseTooLargeException.class, in::readAllBytes);
+    }
+
+    @Test
+    void testLimitSingleByteReads() throws IOException {
+        ResponseLimits limits = new ResponseLimits(2, 0);
+        InputStream in = limits.limit(new ByteArrayInputStream(new byte[3]));
+
+        assertEquals(0, in.read());
+        assertEquals(0, in.read());
+        assertThrows(ResponseLimits.ResponseTooLargeException.class, in::read);
+    }
+
+    @Test
+    void testDefaults() {
+        ResponseLimits limits = new ResponseLimits();
+
+        assertEquals(ResponseLimits.DEFAULT_MAX_RESPONSE_SIZE, limits.getMaxResponseSize());
+        assertEquals(ResponseLimits.DEFAULT_MAX_DRAIN_SIZE, limits.getMaxDrainSize());
+        assertEquals(0, limits.getTruncatedResponses());
+        assertEquals(0, limits.getDiscardedConnections());
+    }
+}
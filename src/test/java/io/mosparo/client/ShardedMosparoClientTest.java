@@ -0,0 +1,133 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.junit.jupiter.api.Test;
+
+class ShardedMosparoClientTest {
+
+    private static final int PROJECTS = 1000;
+
+    @Test
+    void testConsistentHashing() {
+        ShardedMosparoClient clients = new ShardedMosparoClient(List.of(cluster("a"), cluster("b"), cluster("c")), 128);
+        addProjects(clients);
+
+        Map<String, String> before = clusters(clients);
+        Map<String, Integer> counts = new HashMap<>();
+        before.values().forEach(cluster -> counts.merge(cluster, 1, Integer::sum));
+        for (String cluster : List.of("a", "b", "c")) {
+            // Each cluster hosts about a third of the projects
+            assertTrue(counts.get(cluster) > PROJECTS / 5, cluster + ": " + counts);
+        }
+
+        clients.addCluster(cluster("d"));
+        Map<String, String> after = clusters(clients);
+        int moved = 0;
+        for (Map.Entry<String, String> entry : after.entrySet()) {
+            if (!entry.getValue().equals(before.get(entry.getKey()))) {
+                // Only the projects taken over by the new cluster move
+                assertEquals("d", entry.getValue());
+                moved++;
+            }
+        }
+        assertTrue(moved > PROJECTS / 8 && moved < PROJECTS / 2, "moved: " + moved);
+
+        clients.removeCluster("d");
+        assertEquals(before, clusters(clients));
+    }
+
+    @Test
+    void testMoveProjectAtRuntime() {
+        ShardedMosparoClient clients = new ShardedMosparoClient(List.of(cluster("a"), cluster("b")), 64);
+        clients.addProject("publicKey", "privateKey");
+
+        MosparoDefaultClient client = clients.forProject("publicKey");
+        // The client is cached
+        assertSame(client, clients.forProject("publicKey"));
+
+        String hashed = clients.getClusterName("publicKey");
+        String other = hashed.equals("a") ? "b" : "a";
+        clients.assign("publicKey", hashed);
+        // The project stays on the same cluster, so it keeps its client
+        assertSame(client, clients.forProject("publicKey"));
+
+        clients.assign("publicKey", other);
+        assertEquals(other, clients.getClusterName("publicKey"));
+        MosparoDefaultClient moved = clients.forProject("publicKey");
+        assertNotSame(client, moved);
+        assertSame(moved, clients.forProject("publicKey"));
+
+        // The projects of a removed cluster move to the others
+        clients.removeCluster(other);
+        assertEquals(hashed, clients.getClusterName("publicKey"));
+
+        clients.addCluster(cluster(other));
+        clients.assign("publicKey", other);
+        clients.unassign("publicKey");
+        assertEquals(hashed, clients.getClusterName("publicKey"));
+    }
+
+    @Test
+    void testReplacePrivateKey() {
+        ShardedMosparoClient clients = new ShardedMosparoClient(List.of(cluster("a"), cluster("b")), 64);
+        clients.addProject("publicKey", "privateKey");
+        MosparoDefaultClient client = clients.forProject("publicKey");
+
+        clients.addProject("publicKey", "privateKey");
+        assertSame(client, clients.forProject("publicKey"));
+
+        // The project stays on its cluster, but its client signs with the new key
+        clients.addProject("publicKey", "privateKey2");
+        MosparoDefaultClient replaced = clients.forProject("publicKey");
+        assertNotSame(client, replaced);
+        assertSame(replaced, clients.forProject("publicKey"));
+    }
+
+    @Test
+    void testUnknownProjectOrCluster() {
+        ShardedMosparoClient clients = new ShardedMosparoClient(List.of(cluster("a")), 16);
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> clients.forProject("publicKey"));
+        assertEquals("Unknown project: publicKey", thrown.getMessage());
+
+        clients.addProject("publicKey", "privateKey");
+        clients.forProject("publicKey");
+        clients.removeProject("publicKey");
+        assertThrows(IllegalArgumentException.class, () -> clients.forProject("publicKey"));
+
+        thrown = assertThrows(IllegalArgumentException.class, () -> clients.assign("publicKey", "b"));
+        assertEquals("Unknown cluster: b", thrown.getMessage());
+        thrown = assertThrows(IllegalArgumentException.class, () -> clients.addCluster(cluster("a")));
+        assertEquals("Duplicate cluster: a", thrown.getMessage());
+    }
+
+    private static ShardedMosparoClient.Cluster cluster(String name) {
+        return new ShardedMosparoClient.Cluster(name, "http://" + name + ".example.com",
+                HttpClientBuilder.create().build(), MosparoClientConfig.DEFAULT);
+    }
+
+    private static void addProjects(ShardedMosparoClient clients) {
+        for (int i = 0; i < PROJECTS; i++) {
+            clients.addProject("publicKey" + i, "privateKey" + i);
+        }
+    }
+
+    private static Map<String, String> clusters(ShardedMosparoClient clients) {
+        Map<String, String> clusters = new HashMap<>();
+        for (int i = 0; i < PROJECTS; i++) {
+            clusters.put("publicKey" + i, clients.getClusterName("publicKey" + i));
+        }
+        return clusters;
+    }
+}
@@ -0,0 +1,64 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.codec.digest.HmacAlgorithms;
+import org.apache.commons.codec.digest.HmacUtils;
+import org.junit.jupiter.api.Test;
+
+class SigningKeysTest {
+
+    @Test
+    void testHmacHex() {
+        SigningKeys keys = new SigningKeys("publicKey", "privateKey");
+
+        assertEquals("publicKey", keys.getPublicKey());
+        assertEquals(new HmacUtils(HmacAlgorithms.HMAC_SHA_256, "privateKey").hmacHex("data"), keys.hmacHex("data"));
+    }
+
+    @Test
+    void testCredentials() {
+        SigningKeys keys = new SigningKeys("publicKëy", "privateKey");
+
+        assertEquals("publicKëy:" + keys.hmacHex("/api/v1/health/check[]"),
+                new String(keys.credentials("/api/v1/health/check[]"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testHmacHexConcurrently() throws Exception {
+        SigningKeys keys = new SigningKeys("publicKey", "privateKey");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    HmacUtils expected = new HmacUtils(HmacAlgorithms.HMAC_SHA_256, "privateKey");
+                    for (int i = 0; i < 1000; i++) {
+                        String data = thread + "-" + i;
+                        assertEquals(expected.hmacHex(data), keys.hmacHex(data));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testInvalidPrivateKey() {
+        assertThrows(IllegalArgumentException.class, () -> new SigningKeys("publicKey", ""));
+    }
+}
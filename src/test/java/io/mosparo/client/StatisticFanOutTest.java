@@ -0,0 +1,174 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class StatisticFanOutTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(16);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testMergesChunksOfEachProject() throws IOException {
+        StubClient shop = new StubClient(Map.of(DAY, 1, DAY.plusDays(1), 2, DAY.plusDays(2), 3), null);
+        StubClient blog = new StubClient(Map.of(DAY, 10), null);
+
+        StatisticFanOut.Result result = new StatisticFanOut(executor, 4).fetch(List.of(
+                new StatisticQuery("shop", shop, null, DAY),
+                new StatisticQuery("shop", shop, null, DAY.plusDays(2)),
+                new StatisticQuery("blog", blog, null, DAY)));
+
+        assertTrue(result.isComplete());
+        assertEquals(List.of("shop", "blog"), new ArrayList<>(result.getSeries().keySet()));
+        StatisticSeries series = result.getSeries("shop");
+        assertEquals(3, series.size());
+        assertEquals(2, series.getNumberOfValidSubmissions(DAY.plusDays(1)));
+        assertEquals(3, series.getNumberOfValidSubmissions(DAY.plusDays(2)));
+        assertEquals(10, result.getSeries("blog").getNumberOfValidSubmissions(DAY));
+    }
+
+    @Test
+    void testPartialResults() throws IOException {
+        StubClient shop = new StubClient(Map.of(DAY, 1), null);
+        StubClient failing = new StubClient(Map.of(), new MosparoException("Request not valid."));
+
+        StatisticQuery failed = new StatisticQuery("blog", failing, null, DAY);
+        StatisticFanOut.Result result = new StatisticFanOut(executor, 4).fetch(List.of(
+                new StatisticQuery("shop", shop, null, DAY), failed));
+
+        assertFalse(result.isComplete());
+        assertEquals(1, result.getSeries("shop").size());
+        assertTrue(result.getSeries("blog").isEmpty());
+        assertInstanceOf(MosparoException.class, result.getErrors().get(failed));
+        assertEquals(List.of("blog"), result.getIncompleteProjects());
+    }
+
+    @Test
+    void testQueryFailingWithError() throws IOException {
+        StubClient shop = new StubClient(Map.of(DAY, 1), null);
+        StubClient failing = new StubClient(Map.of(), null) {
+            @Override
+            public StatisticResult.Statistic statisticByDate(Integer range, LocalDate startDate,
+                    DailyStatisticVisitor visitor) {
+                throw new AssertionError("Broken client");
+            }
+        };
+
+        StatisticQuery failed = new StatisticQuery("blog", failing, null, DAY);
+        StatisticFanOut.Result result = new StatisticFanOut(executor, 4).fetch(List.of(
+                new StatisticQuery("shop", shop, null, DAY), failed));
+
+        assertEquals(1, result.getSeries("shop").size());
+        Exception error = result.getErrors().get(failed);
+        assertInstanceOf(ExecutionException.class, error);
+        assertInstanceOf(AssertionError.class, error.getCause());
+    }
+
+    @Test
+    void testDuplicateQueries() {
+        StubClient shop = new StubClient(Map.of(DAY, 1), null);
+        StatisticQuery query = new StatisticQuery("shop", shop, null, DAY);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new StatisticFanOut(executor, 4).fetch(List.of(query, new StatisticQuery("shop", shop, null, DAY))));
+    }
+
+    @Test
+    void testConcurrencyCap() throws IOException {
+        AtomicInteger concurrency = new AtomicInteger();
+        AtomicInteger maxConcurrency = new AtomicInteger();
+        List<StatisticQuery> queries = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            StubClient client = new StubClient(Map.of(DAY, i), null) {
+                @Override
+                public StatisticResult.Statistic statisticByDate(Integer range, LocalDate startDate,
+                        DailyStatisticVisitor visitor) throws IOException, MosparoException {
+                    maxConcurrency.accumulateAndGet(concurrency.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(5);
+                        return super.statisticByDate(range, startDate, visitor);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    } finally {
+                        concurrency.decrementAndGet();
+                    }
+                }
+            };
+            queries.add(new StatisticQuery("project" + i, client, null, DAY));
+        }
+
+        StatisticFanOut.Result result = new StatisticFanOut(executor, 3).fetch(queries);
+
+        assertTrue(result.isComplete());
+        assertEquals(40, result.getSeries().size());
+        assertTrue(maxConcurrency.get() <= 3);
+    }
+
+    static class StubClient implements MosparoClient {
+
+        final Map<LocalDate, Integer> validByDate;
+        final MosparoException error;
+
+        StubClient(Map<LocalDate, Integer> validByDate, MosparoException error) {
+            this.validByDate = validByDate;
+            this.error = error;
+        }
+
+        @Override
+        public StatisticResult.Statistic statisticByDate(Integer range, LocalDate startDate,
+                DailyStatisticVisitor visitor) throws IOException, MosparoException {
+            if (error != null) {
+                throw error;
+            }
+            validByDate.forEach((date, valid) -> {
+                if (!date.isBefore(startDate)) {
+                    visitor.visit(date.toEpochDay(), valid, 0);
+                }
+            });
+            return new StatisticResult.Statistic(0, 0);
+        }
+
+        @Override
+        public StatisticResult statisticByDate(Integer range, LocalDate startDate) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public VerificationResult verifySubmission(Map<String, Object> formData) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public VerificationResult verifySubmission(Map<String, Object> formData, Set<String> requiredFields) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public HealthCheckResult healthCheck() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
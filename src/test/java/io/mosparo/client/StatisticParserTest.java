@@ -0,0 +1,86 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+
+class StatisticParserTest {
+
+    JsonFactory factory = new JsonFactory();
+
+    @Test
+    void testParse() throws IOException, MosparoException {
+        List<String> days = new ArrayList<>();
+
+        StatisticResult.Statistic totals = parse("""
+                {
+                  "result":true,
+                  "unknown":{"nested":[1, 2, {"a":"b"}]},
+                  "data":{
+                    "numberOfValidSubmissions":5,
+                    "numberOfSpamSubmissions":7,
+                    "numbersByDate":{
+                      "2022-12-30":{
+                        "numberOfValidSubmissions":3,
+                        "numberOfSpamSubmissions":4
+                      },
+                      "2022-12-31":{
+                        "numberOfSpamSubmissions":3,
+                        "numberOfValidSubmissions":2,
+                        "other":null
+                      }
+                    }
+                  }
+                }
+                """, (epochDay, valid, spam) -> days.add(LocalDate.ofEpochDay(epochDay) + "=" + valid + "/" + spam));
+
+        assertEquals(new StatisticResult.Statistic(5, 7), totals);
+        assertEquals(List.of("2022-12-30=3/4", "2022-12-31=2/3"), days);
+    }
+
+    @Test
+    void testParseEmptyNumbersByDate() throws IOException, MosparoException {
+        StatisticResult.Statistic totals = parse("""
+                {"result":true,"data":{"numberOfValidSubmissions":0,"numberOfSpamSubmissions":0,"numbersByDate":[]}}
+                """, (epochDay, valid, spam) -> {
+            throw new AssertionError("No day expected");
+        });
+
+        assertEquals(new StatisticResult.Statistic(0, 0), totals);
+    }
+
+    @Test
+    void testParseError() {
+        MosparoException thrown = assertThrows(MosparoException.class, () -> parse("""
+                {"error": true, "errorMessage": "Request not valid."}
+                """, (epochDay, valid, spam) -> {
+        }));
+
+        assertEquals("Request not valid.", thrown.getMessage());
+    }
+
+    @Test
+    void testParseInvalidDate() {
+        assertThrows(JsonParseException.class, () -> parse("""
+                {"data":{"numbersByDate":{"2022-02-30":{"numberOfValidSubmissions":1}}}}
+                """, (epochDay, valid, spam) -> {
+        }));
+    }
+
+    private StatisticResult.Statistic parse(String json, DailyStatisticVisitor visitor)
+            throws IOException, MosparoException {
+        try (JsonParser parser = factory.createParser(json)) {
+            return StatisticParser.parse(parser, visitor);
+        }
+    }
+}
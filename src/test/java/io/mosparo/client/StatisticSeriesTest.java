@@ -0,0 +1,113 @@
+package io.mosparo.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class StatisticSeriesTest {
+
+    @Test
+    void testBuildUnordered() {
+        LocalDate date = LocalDate.of(2022, 12, 30);
+
+        StatisticSeries.Builder builder = StatisticSeries.builder();
+        builder.visit(date.toEpochDay(), 3, 4);
+        builder.visit(date.plusDays(40).toEpochDay(), 1, 1);
+        builder.visit(date.minusDays(2).toEpochDay(), 2, 3);
+        StatisticSeries series = builder.build();
+
+        assertEquals(43, series.size());
+        assertEquals(date.minusDays(2), series.getFirstDate());
+        assertEquals(date.plusDays(40), series.getLastDate());
+        assertEquals(3, series.getNumberOfValidSubmissions(date));
+        assertEquals(4, series.getNumberOfSpamSubmissions(date));
+        assertEquals(0, series.getNumberOfValidSubmissions(date.plusDays(1)));
+        assertEquals(0, series.getNumberOfValidSubmissions(date.minusDays(100)));
+        assertEquals(6, series.getTotalValidSubmissions());
+        assertEquals(8, series.getTotalSpamSubmissions());
+    }
+
+    @Test
+    void testLastVisitWins() {
+        LocalDate date = LocalDate.of(2022, 12, 30);
+
+        StatisticSeries.Builder builder = StatisticSeries.builder();
+        builder.visit(date.toEpochDay(), 3, 4);
+        builder.visit(date.toEpochDay(), 5, 6);
+
+        assertThat(builder.build().toMap()).containsExactly(entry(date, new StatisticResult.Statistic(5, 6)));
+    }
+
+    @Test
+    void testForEach() {
+        LocalDate date = LocalDate.of(2022, 12, 30);
+
+        StatisticSeries.Builder builder = StatisticSeries.builder();
+        builder.visit(date.plusDays(2).toEpochDay(), 1, 2);
+        builder.visit(date.toEpochDay(), 3, 4);
+
+        List<String> days = new ArrayList<>();
+        builder.build().forEach(
+                (epochDay, valid, spam) -> days.add(LocalDate.ofEpochDay(epochDay) + "=" + valid + "/" + spam));
+
+        assertEquals(List.of("2022-12-30=3/4", "2022-12-31=0/0", "2023-01-01=1/2"), days);
+    }
+
+    @Test
+    void testEmpty() {
+        StatisticSeries series = StatisticSeries.builder().build();
+
+        assertTrue(series.isEmpty());
+        assertNull(series.getFirstDate());
+        assertEquals(0, series.getNumberOfValidSubmissions(LocalDate.of(2022, 12, 30)));
+        assertTrue(series.toMap().isEmpty());
+    }
+
+    @Test
+    void testSeriesOfClientWithoutStreaming() throws Exception {
+        StatisticResult result = new StatisticResult(true, new StatisticResult.StatisticData(4, 6, Map.of(
+                LocalDate.of(2022, 12, 30), new StatisticResult.Statistic(3, 4),
+                LocalDate.of(2023, 1, 1), new StatisticResult.Statistic(1, 2))), null, null);
+        // Only the methods without default implementation
+        MosparoClient client = new MosparoClient() {
+            @Override
+            public VerificationResult verifySubmission(Map<String, Object> formData) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public VerificationResult verifySubmission(Map<String, Object> formData, Set<String> requiredFields) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public StatisticResult statisticByDate(Integer range, LocalDate startDate) {
+                return result;
+            }
+
+            @Override
+            public HealthCheckResult healthCheck() {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        StatisticSeries series = client.statisticSeriesByDate(null, null);
+
+        assertEquals(LocalDate.of(2022, 12, 30), series.getFirstDate());
+        assertEquals(3, series.getNumberOfValidSubmissions(LocalDate.of(2022, 12, 30)));
+        assertEquals(2, series.getNumberOfSpamSubmissions(LocalDate.of(2023, 1, 1)));
+        assertEquals(new StatisticResult.Statistic(4, 6),
+                client.statisticByDate(null, null, (epochDay, valid, spam) -> {
+                }));
+    }
+}
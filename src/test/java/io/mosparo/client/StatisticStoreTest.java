@@ -0,0 +1,199 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StatisticStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testUpdateAndQuery() throws IOException, MosparoException {
+        LocalDate today = LocalDate.of(2024, 3, 10);
+        StubClient client = new StubClient(Map.of(
+                today.minusDays(1), new StatisticResult.Statistic(3, 1),
+                today, new StatisticResult.Statistic(5, 5)));
+
+        try (StatisticStore store = StatisticStore.open(directory.resolve("store"), 30, clock(today))) {
+            assertNull(store.getLastUpdate());
+            store.update(client);
+
+            // The first update fetches the whole capacity
+            assertEquals(List.of(today.minusDays(29)), client.startDates);
+            assertEquals(today, store.getLastUpdate());
+            assertEquals(new StatisticResult.Statistic(3, 1), store.get(today.minusDays(1)));
+            assertEquals(new StatisticResult.Statistic(0, 0), store.get(today.minusDays(2)));
+            assertEquals(new StatisticResult.Statistic(8, 6), store.getSumOfLastDays(7));
+            assertEquals(new StatisticResult.Statistic(5, 5), store.getSumOfLastDays(1));
+            assertEquals(6.0 / 14, store.getSpamRate(7));
+            assertEquals(0, store.getSpamRate(today.minusDays(10), today.minusDays(5)));
+        }
+    }
+
+    @Test
+    void testIncrementalUpdateAfterRestart() throws IOException, MosparoException {
+        Path file = directory.resolve("store");
+        LocalDate day1 = LocalDate.of(2024, 3, 10);
+        LocalDate day2 = day1.plusDays(2);
+
+        try (StatisticStore store = StatisticStore.open(file, 30, clock(day1))) {
+            store.update(new StubClient(Map.of(day1, new StatisticResult.Statistic(1, 2))));
+        }
+
+        // mosparo has deleted the older days, and returns the final numbers of day1
+        StubClient client = new StubClient(Map.of(
+                day1, new StatisticResult.Statistic(4, 2),
+                day2, new StatisticResult.Statistic(1, 0)));
+        try (StatisticStore store = StatisticStore.open(file, 30, clock(day2))) {
+            store.update(client);
+
+            assertEquals(List.of(day1), client.startDates);
+            assertEquals(new StatisticResult.Statistic(4, 2), store.get(day1));
+            assertEquals(new StatisticResult.Statistic(1, 0), store.get(day2));
+            assertEquals(new StatisticResult.Statistic(5, 2), store.getSum(LocalDate.MIN, LocalDate.MAX));
+        }
+    }
+
+    @Test
+    void testDaysOutsideOfCapacity() throws IOException, MosparoException {
+        Path file = directory.resolve("store");
+        LocalDate day1 = LocalDate.of(2024, 3, 10);
+        LocalDate day2 = day1.plusDays(10);
+
+        try (StatisticStore store = StatisticStore.open(file, 7, clock(day1))) {
+            store.update(new StubClient(Map.of(day1, new StatisticResult.Statistic(1, 2))));
+        }
+        try (StatisticStore store = StatisticStore.open(file, 7, clock(day2))) {
+            store.update(new StubClient(Map.of()));
+
+            // day1 and day1 + 7 share the same slot, day1 is no longer stored
+            assertEquals(new StatisticResult.Statistic(0, 0), store.get(day1));
+            assertEquals(new StatisticResult.Statistic(0, 0), store.get(day1.plusDays(7)));
+        }
+    }
+
+    @Test
+    void testSumsDoNotOverflow() throws IOException, MosparoException {
+        LocalDate today = LocalDate.of(2024, 3, 10);
+        StubClient client = new StubClient(Map.of(
+                today.minusDays(1), new StatisticResult.Statistic(Integer.MAX_VALUE, Integer.MAX_VALUE),
+                today, new StatisticResult.Statistic(Integer.MAX_VALUE, 0)));
+
+        try (StatisticStore store = StatisticStore.open(directory.resolve("store"), 30, clock(today))) {
+            store.update(client);
+
+            assertEquals(new StatisticResult.Statistic(Integer.MAX_VALUE, Integer.MAX_VALUE), store.getSumOfLastDays(2));
+            assertEquals(1.0 / 3, store.getSpamRate(2), 1e-9);
+        }
+    }
+
+    @Test
+    void testQueriesDoNotWaitForUpdate() throws Exception {
+        LocalDate today = LocalDate.of(2024, 3, 10);
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StubClient client = new StubClient(Map.of(today, new StatisticResult.Statistic(1, 1))) {
+            @Override
+            public StatisticResult.Statistic statisticByDate(Integer range, LocalDate startDate,
+                    DailyStatisticVisitor visitor) {
+                fetching.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.statisticByDate(range, startDate, visitor);
+            }
+        };
+
+        try (StatisticStore store = StatisticStore.open(directory.resolve("store"), 30, clock(today))) {
+            CompletableFuture<Void> update = CompletableFuture.runAsync(() -> {
+                try {
+                    store.update(client);
+                } catch (IOException | MosparoException e) {
+                    throw new CompletionException(e);
+                }
+            });
+            assertTrue(fetching.await(5, TimeUnit.SECONDS));
+
+            // Answered while the update waits for mosparo
+            assertNull(store.getLastUpdate());
+            assertEquals(new StatisticResult.Statistic(0, 0), store.getSumOfLastDays(7));
+
+            release.countDown();
+            update.get(5, TimeUnit.SECONDS);
+            assertEquals(new StatisticResult.Statistic(1, 1), store.getSumOfLastDays(7));
+        }
+    }
+
+    @Test
+    void testOpenWithOtherCapacity() throws IOException {
+        Path file = directory.resolve("store");
+        StatisticStore.open(file, 30).close();
+
+        assertThrows(IOException.class, () -> StatisticStore.open(file, 31));
+    }
+
+    private static Clock clock(LocalDate date) {
+        return Clock.fixed(date.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+    }
+
+    static class StubClient implements MosparoClient {
+
+        final Map<LocalDate, StatisticResult.Statistic> numbersByDate;
+        final List<LocalDate> startDates = new ArrayList<>();
+
+        StubClient(Map<LocalDate, StatisticResult.Statistic> numbersByDate) {
+            this.numbersByDate = numbersByDate;
+        }
+
+        @Override
+        public StatisticResult statisticByDate(Integer range, LocalDate startDate) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public StatisticResult.Statistic statisticByDate(Integer range, LocalDate startDate,
+                DailyStatisticVisitor visitor) {
+            startDates.add(startDate);
+            numbersByDate.forEach((date, statistic) -> visitor.visit(date.toEpochDay(),
+                    statistic.getNumberOfValidSubmissions(), statistic.getNumberOfSpamSubmissions()));
+            return new StatisticResult.Statistic(0, 0);
+        }
+
+        @Override
+        public VerificationResult verifySubmission(Map<String, Object> formData) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public VerificationResult verifySubmission(Map<String, Object> formData, Set<String> requiredFields) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public HealthCheckResult healthCheck() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
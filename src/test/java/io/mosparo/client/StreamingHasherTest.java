@@ -0,0 +1,84 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+
+class StreamingHasherTest {
+
+    static final List<String> VALUES = List.of("", "Test Tester", "Teststreet\r\nTest\r\nStreet", "\r", "\r\r\n",
+            "a\rb\n", "\r\n\r\n", "end\r", "Zürich – 東京 😀\r\n");
+
+    @Test
+    void testSha256HexCharSequence() {
+        for (String value : VALUES) {
+            assertEquals(expected(value), StreamingHasher.sha256Hex(new StringBuilder(value)), value);
+        }
+    }
+
+    @Test
+    void testSha256HexUnpairedSurrogates() {
+        for (String value : List.of("lone \uD83D surrogate", "\uDE00 low", "trailing \uD83D", "\uD83D\uD83D\uDE00")) {
+            assertEquals(expected(value), StreamingHasher.sha256Hex(value), value);
+        }
+    }
+
+    @Test
+    void testSha256HexReaderOneCharAtATime() throws IOException {
+        // Every CRLF and surrogate pair is split across reads
+        for (String value : VALUES) {
+            assertEquals(expected(value), StreamingHasher.sha256Hex(new OneCharReader(new StringReader(value))), value);
+        }
+    }
+
+    @Test
+    void testSha256HexInputStream() throws IOException {
+        for (String value : VALUES) {
+            InputStream in = new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+            assertEquals(expected(value), StreamingHasher.sha256Hex(in), value);
+        }
+    }
+
+    @Test
+    void testSha256HexLargeValue() throws IOException {
+        for (int size : List.of(StreamingHasher.BUFFER_SIZE - 1, StreamingHasher.BUFFER_SIZE, 3 * StreamingHasher.BUFFER_SIZE)) {
+            // Places CRLF sequences and multibyte characters at every possible buffer boundary
+            StringBuilder builder = new StringBuilder(size);
+            while (builder.length() < size) {
+                builder.append("ab\r\né😀");
+            }
+            String value = builder.toString();
+
+            assertEquals(expected(value), StreamingHasher.sha256Hex(value));
+            assertEquals(expected(value), StreamingHasher.sha256Hex(new StringReader(value)));
+            assertEquals(expected(value),
+                    StreamingHasher.sha256Hex(new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8))));
+        }
+    }
+
+    private static String expected(String value) {
+        return DigestUtils.sha256Hex(value.replace("\r\n", "\n"));
+    }
+
+    private static class OneCharReader extends FilterReader {
+
+        OneCharReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            return super.read(cbuf, off, Math.min(len, 1));
+        }
+    }
+}
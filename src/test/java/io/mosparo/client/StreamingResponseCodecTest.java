@@ -0,0 +1,132 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class StreamingResponseCodecTest {
+
+    private final StreamingResponseCodec codec = new StreamingResponseCodec();
+    private final ObjectMapper mapper = new RequestHelper("publicKey", "privateKey").getMapper();
+
+    @Test
+    void testSupports() {
+        assertTrue(codec.supports(VerificationResult.class));
+        assertTrue(codec.supports(StatisticResult.class));
+        assertTrue(codec.supports(HealthCheckResult.class));
+        assertFalse(codec.supports(VerificationRequest.class));
+    }
+
+    @Test
+    void testSameResultsAsJackson() throws IOException {
+        List<String> verificationResults = List.of("""
+                {
+                  "valid": true,
+                  "verificationSignature": "ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3",
+                  "verifiedFields": {"firstname": "valid", "lastname": "valid", "email": "not-verified"},
+                  "issues": []
+                }""", """
+                {
+                  "valid": false,
+                  "verifiedFields": {"firstname": "invalid"},
+                  "issues": [{"name": "firstname", "message": "Field not valid."}, {"name": "lastname"}]
+                }""", """
+                {"error": true, "errorMessage": "Validation failed.", "valid": null, "issues": null}""");
+        for (String json : verificationResults) {
+            assertEquals(mapper.readValue(json, VerificationResult.class), decode(json, VerificationResult.class), json);
+        }
+
+        String statistic = """
+                {
+                  "result": true,
+                  "data": {
+                    "numberOfValidSubmissions": 3,
+                    "numberOfSpamSubmissions": 1,
+                    "numbersByDate": {
+                      "2024-03-09": {"numberOfValidSubmissions": 1, "numberOfSpamSubmissions": 1},
+                      "2024-03-10": {"numberOfValidSubmissions": 2, "numberOfSpamSubmissions": 0}
+                    }
+                  }
+                }""";
+        StatisticResult statisticResult = decode(statistic, StatisticResult.class);
+        assertEquals(mapper.readValue(statistic, StatisticResult.class), statisticResult);
+        assertEquals(List.of(LocalDate.of(2024, 3, 9), LocalDate.of(2024, 3, 10)),
+                List.copyOf(statisticResult.getData().getNumbersByDate().keySet()));
+
+        List<String> healthChecks = List.of("""
+                {"service": "mosparo", "healthy": true, "databaseStatus": "connected", "error": null}""", """
+                {"service": "mosparo", "healthy": false, "databaseStatus": "error", "error": "Connection refused"}""");
+        for (String json : healthChecks) {
+            assertEquals(mapper.readValue(json, HealthCheckResult.class), decode(json, HealthCheckResult.class), json);
+        }
+    }
+
+    @Test
+    void testInternedFieldStatuses() throws IOException {
+        VerificationResult result = decode("""
+                {"verifiedFields": {"a": "valid", "b": "invalid", "c": "not-verified", "d": "other"}}""",
+                VerificationResult.class);
+
+        assertSame(VerificationResult.FIELD_VALID, result.getVerifiedFields().get("a"));
+        assertSame(VerificationResult.FIELD_INVALID, result.getVerifiedFields().get("b"));
+        assertSame(VerificationResult.FIELD_NOT_VERIFIED, result.getVerifiedFields().get("c"));
+        assertEquals("other", result.getVerifiedFields().get("d"));
+    }
+
+    @Test
+    void testSkipsUnknownProperties() throws IOException {
+        VerificationResult result = decode("""
+                {
+                  "debugInformation": {"rules": [{"type": "word", "items": [1, 2, {"x": null}]}]},
+                  "valid": true,
+                  "verifiedFields": {"firstname": "valid"},
+                  "issues": [{"name": "firstname", "message": "m", "details": {"a": [1]}}],
+                  "score": 1.5
+                }""", VerificationResult.class);
+
+        assertTrue(result.isValid());
+        assertEquals(Map.of("firstname", "valid"), result.getVerifiedFields());
+        assertEquals(List.of(new VerificationResult.Issue("firstname", "m")), result.getIssues());
+    }
+
+    @Test
+    void testEmptyPhpArrays() throws IOException {
+        VerificationResult verificationResult = decode("""
+                {"valid": false, "verifiedFields": [], "issues": []}""", VerificationResult.class);
+        assertEquals(Map.of(), verificationResult.getVerifiedFields());
+
+        StatisticResult statisticResult = decode("""
+                {"result": true, "data": {"numberOfValidSubmissions": 0, "numberOfSpamSubmissions": 0,
+                 "numbersByDate": []}}""", StatisticResult.class);
+        assertEquals(Map.of(), statisticResult.getData().getNumbersByDate());
+    }
+
+    @Test
+    void testInvalidResponses() {
+        assertThrows(JsonParseException.class, () -> decode("[]", VerificationResult.class));
+        assertThrows(JsonParseException.class, () -> decode("{\"valid\": [true]}", VerificationResult.class));
+        assertThrows(JsonParseException.class, () -> decode("{\"issues\": [\"name\"]}", VerificationResult.class));
+        assertThrows(JsonParseException.class, () -> decode("{\"verifiedFields\": [1]}", VerificationResult.class));
+        assertThrows(JsonParseException.class, () -> decode("""
+                {"data": {"numbersByDate": {"2024-13-01": {}}}}""", StatisticResult.class));
+        assertThrows(JsonParseException.class, () -> decode("{\"valid\": tru", VerificationResult.class));
+    }
+
+    private <T> T decode(String json, Class<T> type) throws IOException {
+        return codec.decode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), type);
+    }
+}
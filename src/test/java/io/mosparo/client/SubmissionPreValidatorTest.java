@@ -0,0 +1,104 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import io.mosparo.client.PreValidationException.Reason;
+
+class SubmissionPreValidatorTest {
+
+    @Test
+    void testValid() {
+        SubmissionPreValidator validator = new SubmissionPreValidator();
+
+        Map<String, Object> formData = Map.of(
+                "firstname", "John",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+
+        assertDoesNotThrow(() -> validator.validate(formData, Set.of("firstname")));
+        assertEquals(1, validator.getPassed());
+    }
+
+    @Test
+    void testMissingSubmitToken() {
+        SubmissionPreValidator validator = new SubmissionPreValidator();
+
+        Map<String, Object> formData = Map.of(
+                "firstname", "John",
+                "_mosparo_validationToken", "validationToken");
+
+        PreValidationException thrown = assertThrows(PreValidationException.class,
+                () -> validator.validate(formData, Set.of("firstname")));
+        assertEquals(Reason.MISSING_SUBMIT_TOKEN, thrown.getReason());
+        assertEquals("_mosparo_submitToken must be provided.", thrown.getMessage());
+        assertEquals(1, validator.getRejections(Reason.MISSING_SUBMIT_TOKEN));
+        assertEquals(0, validator.getPassed());
+    }
+
+    @Test
+    void testMalformedValidationToken() {
+        SubmissionPreValidator validator = new SubmissionPreValidator(10, 16, Pattern.compile("[A-Za-z]+"));
+
+        for (Object token : new Object[] { 42, "not a token", "x".repeat(17) }) {
+            Map<String, Object> formData = Map.of(
+                    "_mosparo_submitToken", "submitToken",
+                    "_mosparo_validationToken", token);
+
+            PreValidationException thrown = assertThrows(PreValidationException.class,
+                    () -> validator.validate(formData, Set.of()));
+            assertEquals(Reason.MALFORMED_VALIDATION_TOKEN, thrown.getReason());
+        }
+        assertEquals(3, validator.getRejections(Reason.MALFORMED_VALIDATION_TOKEN));
+    }
+
+    @Test
+    void testMissingRequiredField() {
+        SubmissionPreValidator validator = new SubmissionPreValidator();
+
+        Map<String, Object> formData = Map.of(
+                "firstname", "John",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+
+        PreValidationException thrown = assertThrows(PreValidationException.class,
+                () -> validator.validate(formData, Set.of("firstname", "lastname")));
+        assertEquals(Reason.MISSING_REQUIRED_FIELD, thrown.getReason());
+        assertEquals("Required field 'lastname' missing from form data", thrown.getMessage());
+    }
+
+    @Test
+    void testTooManyFields() {
+        SubmissionPreValidator validator = new SubmissionPreValidator(3, 256, SubmissionPreValidator.DEFAULT_TOKEN_PATTERN);
+
+        Map<String, Object> formData = new HashMap<>();
+        for (int i = 0; i < 4; i++) {
+            formData.put("field" + i, "value");
+        }
+
+        PreValidationException thrown = assertThrows(PreValidationException.class,
+                () -> validator.validate(formData, Set.of()));
+        assertEquals(Reason.TOO_MANY_FIELDS, thrown.getReason());
+    }
+
+    @Test
+    void testParametersWithSeveralTokens() {
+        SubmissionPreValidator validator = new SubmissionPreValidator();
+
+        Map<String, String[]> parameters = Map.of(
+                "_mosparo_submitToken", new String[] { "submitToken", "otherToken" },
+                "_mosparo_validationToken", new String[] { "validationToken" });
+
+        PreValidationException thrown = assertThrows(PreValidationException.class,
+                () -> validator.validateParameters(parameters, Set.of()));
+        assertEquals(Reason.MALFORMED_SUBMIT_TOKEN, thrown.getReason());
+    }
+}
@@ -0,0 +1,253 @@
+package io.mosparo.client;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+
+@WireMockTest
+class VerificationJournalDrainerTest {
+
+    private static final Map<String, Object> FORM_DATA = Map.of(
+            "firstname", "John",
+            "lastname", "Example",
+            "_mosparo_submitToken", "submitToken",
+            "_mosparo_validationToken", "validationToken");
+
+    private static final String VALID_RESULT = """
+            {
+              "valid": true,
+              "verificationSignature": "ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3",
+              "verifiedFields": {
+                "firstname": "valid",
+                "lastname": "valid"
+              },
+              "issues": []
+            }""";
+
+    private static final String HEALTHY = """
+            {"service": "mosparo", "healthy": true, "databaseStatus": "connected"}""";
+
+    private static String mosparoUrl;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void prepare(WireMockRuntimeInfo wmRuntimeInfo) {
+        mosparoUrl = wmRuntimeInfo.getHttpBaseUrl();
+    }
+
+    @Test
+    void testDeferredVerificationAfterRestart() throws IOException, MosparoException {
+        Path file = directory.resolve("journal");
+        stubFor(post("/api/v1/verification/verify").willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+        long sequence;
+        try (VerificationJournal journal = VerificationJournal.open(file, 4096)) {
+            MosparoClient client = client(journal);
+            VerificationDeferredException thrown = assertThrows(VerificationDeferredException.class,
+                    () -> client.verifySubmission(FORM_DATA, Set.of("firstname", "lastname")));
+            assertInstanceOf(IOException.class, thrown.getCause());
+            sequence = thrown.getJournalSequence();
+        }
+
+        stubFor(post("/api/v1/verification/verify").willReturn(okJson(VALID_RESULT)));
+        stubFor(get("/api/v1/health/check").willReturn(okJson(HEALTHY)));
+
+        try (VerificationJournal journal = VerificationJournal.open(file, 4096)) {
+            assertEquals("publicKey", journal.getPending(1).get(0).getPublicKey());
+            RecordingListener listener = new RecordingListener();
+            VerificationJournalDrainer drainer = new VerificationJournalDrainer(client(journal), journal, listener, 10);
+
+            assertEquals(1, drainer.drain());
+            assertEquals(1, listener.verified.size());
+            assertTrue(listener.failed.isEmpty());
+            assertEquals(sequence, listener.verified.get(0).getSequence());
+            assertTrue(listener.results.get(0).isValid());
+            assertEquals(0, journal.getPendingCount());
+
+            // The failed request and its replay, nothing is sent while the journal is empty
+            assertEquals(0, drainer.drain());
+            verify(2, postRequestedFor(urlEqualTo("/api/v1/verification/verify")));
+        }
+    }
+
+    @Test
+    void testDrainWaitsForHealthyMosparo() throws IOException, MosparoException {
+        stubFor(get("/api/v1/health/check").willReturn(aResponse().withStatus(503)));
+
+        try (VerificationJournal journal = VerificationJournal.open(directory.resolve("journal"), 4096)) {
+            MosparoDefaultClient client = client(journal);
+            journal.append(new RequestHelper("publicKey", "privateKey").buildVerificationRequest(FORM_DATA), Set.of());
+            RecordingListener listener = new RecordingListener();
+            VerificationJournalDrainer drainer = new VerificationJournalDrainer(client, journal, listener, 10);
+
+            assertEquals(0, drainer.drain());
+            assertEquals(1, journal.getPendingCount());
+            assertTrue(listener.verified.isEmpty());
+        }
+    }
+
+    @Test
+    void testDrainStopsOnUnavailableMosparo() throws IOException, MosparoException {
+        stubFor(get("/api/v1/health/check").willReturn(okJson(HEALTHY)));
+        stubFor(post("/api/v1/verification/verify").willReturn(aResponse().withStatus(503)));
+
+        try (VerificationJournal journal = VerificationJournal.open(directory.resolve("journal"), 4096)) {
+            RequestHelper helper = new RequestHelper("publicKey", "privateKey");
+            journal.append(helper.buildVerificationRequest(FORM_DATA), Set.of());
+            journal.append(helper.buildVerificationRequest(FORM_DATA), Set.of());
+            RecordingListener listener = new RecordingListener();
+            VerificationJournalDrainer drainer = new VerificationJournalDrainer(client(journal), journal, listener, 10);
+
+            assertEquals(0, drainer.drain());
+            assertTrue(listener.verified.isEmpty());
+            assertTrue(listener.failed.isEmpty());
+            assertEquals(2, journal.getPendingCount());
+            verify(1, postRequestedFor(urlEqualTo("/api/v1/verification/verify")));
+
+            stubFor(post("/api/v1/verification/verify").willReturn(okJson(VALID_RESULT)));
+
+            assertEquals(2, drainer.drain());
+            assertEquals(2, listener.verified.size());
+            assertEquals(0, journal.getPendingCount());
+        }
+    }
+
+    @Test
+    void testDrainReportsMissingRequiredField() throws IOException, MosparoException {
+        stubFor(get("/api/v1/health/check").willReturn(okJson(HEALTHY)));
+        stubFor(post("/api/v1/verification/verify").willReturn(okJson(VALID_RESULT)));
+
+        try (VerificationJournal journal = VerificationJournal.open(directory.resolve("journal"), 4096)) {
+            journal.append(new RequestHelper("publicKey", "privateKey").buildVerificationRequest(FORM_DATA),
+                    Set.of("firstname", "email"));
+            RecordingListener listener = new RecordingListener();
+            VerificationJournalDrainer drainer = new VerificationJournalDrainer(client(journal), journal, listener, 10);
+
+            assertEquals(1, drainer.drain());
+            assertTrue(listener.verified.isEmpty());
+            assertEquals(1, listener.failed.size());
+            assertEquals("Required field 'email' not verified", listener.exceptions.get(0).getMessage());
+            assertEquals(0, journal.getPendingCount());
+        }
+    }
+
+    @Test
+    void testDrainWithTheKeysOfTheRequests() throws IOException, MosparoException {
+        stubFor(get("/api/v1/health/check").willReturn(okJson(HEALTHY)));
+        stubFor(post("/api/v1/verification/verify").willReturn(okJson(VALID_RESULT)));
+
+        try (VerificationJournal journal = VerificationJournal.open(directory.resolve("journal"), 4096)) {
+            // Journaled before a key rotation, and by the client of another project
+            journal.append(new RequestHelper("publicKey", "privateKey").buildVerificationRequest(FORM_DATA), Set.of(),
+                    "publicKey");
+            journal.append(new RequestHelper("otherKey", "otherPrivateKey").buildVerificationRequest(FORM_DATA),
+                    Set.of(), "otherKey");
+            MosparoDefaultClient client = client(journal);
+            client.rotateSigningKeys("publicKey2", "privateKey2", Duration.ofMinutes(1));
+            RecordingListener listener = new RecordingListener();
+            VerificationJournalDrainer drainer = new VerificationJournalDrainer(client, journal, listener, 1);
+
+            assertEquals(1, drainer.drain());
+            assertEquals(1, listener.verified.size());
+            assertTrue(listener.results.get(0).isValid());
+            assertEquals(1, journal.getPendingCount());
+            assertEquals("otherKey", journal.getPending(1).get(0).getPublicKey());
+            verify(1, postRequestedFor(urlEqualTo("/api/v1/verification/verify")));
+        }
+    }
+
+    @Test
+    void testPeriodicRunReportsErrors() throws Exception {
+        stubFor(get("/api/v1/health/check").willReturn(okJson(HEALTHY)));
+        stubFor(post("/api/v1/verification/verify").willReturn(okJson(VALID_RESULT)));
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try (VerificationJournal journal = VerificationJournal.open(directory.resolve("journal"), 4096)) {
+            journal.append(new RequestHelper("publicKey", "privateKey").buildVerificationRequest(FORM_DATA), Set.of());
+            CompletableFuture<Exception> runError = new CompletableFuture<>();
+            DeferredVerificationListener listener = new RecordingListener() {
+                @Override
+                public void onVerified(VerificationJournal.Entry entry, VerificationResult result) {
+                    if (!runError.isDone()) {
+                        throw new IllegalStateException("Listener failure");
+                    }
+                    super.onVerified(entry, result);
+                }
+
+                @Override
+                public void onDrainFailed(Exception exception) {
+                    runError.complete(exception);
+                }
+            };
+            try (VerificationJournalDrainer drainer = new VerificationJournalDrainer(client(journal), journal, listener,
+                    10)) {
+                drainer.start(scheduler, Duration.ofMillis(10));
+
+                assertEquals("Listener failure", runError.get(5, TimeUnit.SECONDS).getMessage());
+                // The request is done even though the listener failed, the runs go on
+                while (journal.getPendingCount() > 0) {
+                    Thread.sleep(10);
+                }
+            }
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static MosparoDefaultClient client(VerificationJournal journal) {
+        return new MosparoDefaultClient(mosparoUrl, "publicKey", "privateKey", HttpClientBuilder.create().build(),
+                MosparoClientConfig.builder().verificationJournal(journal).build());
+    }
+
+    private static class RecordingListener implements DeferredVerificationListener {
+
+        final List<VerificationJournal.Entry> verified = new ArrayList<>();
+        final List<VerificationResult> results = new ArrayList<>();
+        final List<VerificationJournal.Entry> failed = new ArrayList<>();
+        final List<MosparoException> exceptions = new ArrayList<>();
+
+        @Override
+        public void onVerified(VerificationJournal.Entry entry, VerificationResult result) {
+            verified.add(entry);
+            results.add(result);
+        }
+
+        @Override
+        public void onFailed(VerificationJournal.Entry entry, MosparoException exception) {
+            failed.add(entry);
+            exceptions.add(exception);
+        }
+    }
+}
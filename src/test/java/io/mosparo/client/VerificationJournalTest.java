@@ -0,0 +1,144 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class VerificationJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAppendSurvivesRestart() throws IOException {
+        Path file = directory.resolve("journal");
+        VerificationRequest request = request("submitToken1");
+
+        long sequence;
+        try (VerificationJournal journal = VerificationJournal.open(file, 4096)) {
+            sequence = journal.append(request, Set.of("firstname"));
+            assertEquals(1, journal.getPendingCount());
+        }
+
+        try (VerificationJournal journal = VerificationJournal.open(file, 4096)) {
+            assertEquals(1, journal.getPendingCount());
+            List<VerificationJournal.Entry> pending = journal.getPending(10);
+            assertEquals(1, pending.size());
+
+            VerificationJournal.Entry entry = pending.get(0);
+            assertEquals(sequence, entry.getSequence());
+            assertEquals(request, entry.getRequest());
+            assertEquals(Set.of("firstname"), entry.getRequiredFields());
+            assertTrue(entry.getAppendedAtMillis() > 0);
+        }
+    }
+
+    @Test
+    void testMarkDone() throws IOException {
+        try (VerificationJournal journal = VerificationJournal.open(directory.resolve("journal"), 4096)) {
+            long first = journal.append(request("submitToken1"), Set.of());
+            long second = journal.append(request("submitToken2"), Set.of());
+            assertEquals(first + 1, second);
+
+            List<VerificationJournal.Entry> pending = journal.getPending(1);
+            assertEquals(1, pending.size());
+            assertEquals(first, pending.get(0).getSequence());
+
+            journal.markDone(pending.get(0));
+            // Marking a request twice has no effect
+            journal.markDone(pending.get(0));
+            assertEquals(1, journal.getPendingCount());
+            assertEquals(second, journal.getPending(10).get(0).getSequence());
+
+            journal.markDone(journal.getPending(10).get(0));
+            assertEquals(0, journal.getPendingCount());
+            assertTrue(journal.getPending(10).isEmpty());
+
+            // The sequence numbers keep increasing after the journal started again at the beginning of the file
+            assertEquals(second + 1, journal.append(request("submitToken3"), Set.of()));
+        }
+    }
+
+    @Test
+    void testCompactionWhenFull() throws IOException {
+        try (VerificationJournal journal = VerificationJournal.open(directory.resolve("journal"), 1024)) {
+            long first = journal.append(request("submitToken001"), Set.of());
+            VerificationJournal.Entry firstEntry = journal.getPending(1).get(0);
+            int appended = 1;
+            IOException full = null;
+            while (full == null) {
+                try {
+                    journal.append(request(String.format("submitToken%03d", appended + 1)), Set.of());
+                    appended++;
+                } catch (IOException e) {
+                    full = e;
+                }
+            }
+            assertEquals(appended, journal.getPendingCount());
+
+            // Marking the oldest request as done frees its space
+            VerificationJournal.Entry secondEntry = journal.getPending(2).get(1);
+            journal.markDone(firstEntry);
+            long last = journal.append(request("submitTokenEnd"), Set.of());
+
+            // The entries read before the compaction can still be marked as done
+            journal.markDone(secondEntry);
+            List<VerificationJournal.Entry> pending = journal.getPending(Integer.MAX_VALUE);
+            assertEquals(appended - 1, pending.size());
+            assertEquals(first + 2, pending.get(0).getSequence());
+            assertEquals(last, pending.get(pending.size() - 1).getSequence());
+            assertEquals("submitTokenEnd", pending.get(pending.size() - 1).getRequest().getSubmitToken());
+        }
+    }
+
+    @Test
+    void testCompactionSurvivesRestart() throws IOException {
+        Path file = directory.resolve("journal");
+        List<String> pendingTokens = new ArrayList<>();
+        try (VerificationJournal journal = VerificationJournal.open(file, 1024)) {
+            // Compacts several times, to both regions of the file
+            for (int i = 0; i < 40; i++) {
+                String token = String.format("submitToken%03d", i);
+                journal.append(request(token), Set.of());
+                pendingTokens.add(token);
+                if (pendingTokens.size() > 2) {
+                    journal.markDone(journal.getPending(1).get(0));
+                    pendingTokens.remove(0);
+                }
+            }
+        }
+
+        try (VerificationJournal journal = VerificationJournal.open(file, 1024)) {
+            assertEquals(pendingTokens.size(), journal.getPendingCount());
+            List<String> tokens = new ArrayList<>();
+            journal.getPending(Integer.MAX_VALUE).forEach(entry -> tokens.add(entry.getRequest().getSubmitToken()));
+            assertEquals(pendingTokens, tokens);
+        }
+    }
+
+    @Test
+    void testOpenWithAnotherCapacity() throws IOException {
+        Path file = directory.resolve("journal");
+        VerificationJournal.open(file, 4096).close();
+
+        IOException thrown = assertThrows(IOException.class, () -> VerificationJournal.open(file, 8192));
+        assertEquals(String.format("Verification journal %s has a capacity of 4096 bytes, not 8192", file),
+                thrown.getMessage());
+    }
+
+    private static VerificationRequest request(String submitToken) {
+        return new VerificationRequest(submitToken, "validationSignature", "formSignature",
+                Map.of("firstname", "a8cfcd74832004951b4408cdb0a5dbcd8c7e52d43f7fe244bf720582e05241da"),
+                "verificationSignature");
+    }
+}
@@ -0,0 +1,298 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class VerificationProcessorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final StubClient client = new StubClient();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testOrdered() throws InterruptedException {
+        // The first items are the slowest
+        List<Integer> items = List.of(50, 40, 30, 20, 10, 0);
+        VerificationProcessor<Integer> processor = new VerificationProcessor<>(client, StubClient::formData, Set.of(),
+                executor, 4, true);
+        TestPublisher publisher = new TestPublisher(items);
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+
+        assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+        assertEquals(items, subscriber.items());
+        assertNull(subscriber.error);
+        assertTrue(client.maxConcurrency.get() <= 4);
+    }
+
+    @Test
+    void testUnordered() throws InterruptedException {
+        List<Integer> items = List.of(100, 0);
+        VerificationProcessor<Integer> processor = new VerificationProcessor<>(client, StubClient::formData, Set.of(),
+                executor, 2, false);
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+
+        new TestPublisher(items).subscribe(processor);
+        processor.subscribe(subscriber);
+
+        assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(0, 100), subscriber.items());
+    }
+
+    @Test
+    void testBackpressure() throws InterruptedException {
+        List<Integer> items = Collections.nCopies(20, 0);
+        VerificationProcessor<Integer> processor = new VerificationProcessor<>(client, StubClient::formData, Set.of(),
+                executor, 3, true);
+        TestPublisher publisher = new TestPublisher(items);
+        CollectingSubscriber subscriber = new CollectingSubscriber(1);
+
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        Thread.sleep(200);
+
+        // One item emitted, and at most 3 items requested and not emitted
+        assertEquals(1, subscriber.outcomes.size());
+        assertEquals(4, publisher.requested.get());
+        assertEquals(4, client.calls.get());
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+        assertEquals(20, subscriber.outcomes.size());
+    }
+
+    @Test
+    void testFailedVerificationDoesNotTerminate() throws InterruptedException {
+        List<Integer> items = List.of(0, -1, 0);
+        VerificationProcessor<Integer> processor = new VerificationProcessor<>(client, StubClient::formData, Set.of(),
+                executor, 2, true);
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+
+        new TestPublisher(items).subscribe(processor);
+        processor.subscribe(subscriber);
+
+        assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+        assertEquals(3, subscriber.outcomes.size());
+        assertTrue(subscriber.outcomes.get(0).isValid());
+        assertInstanceOf(MosparoException.class, subscriber.outcomes.get(1).getException());
+        assertTrue(subscriber.outcomes.get(2).isValid());
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void testVerificationErrorDoesNotStallTheStream() throws InterruptedException {
+        List<Integer> items = List.of(0, -2, 0);
+        VerificationProcessor<Integer> processor = new VerificationProcessor<>(client, StubClient::formData, Set.of(),
+                executor, 2, true);
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+
+        new TestPublisher(items).subscribe(processor);
+        processor.subscribe(subscriber);
+
+        assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+        assertEquals(items, subscriber.items());
+        assertInstanceOf(ExecutionException.class, subscriber.outcomes.get(1).getException());
+        assertInstanceOf(AssertionError.class, subscriber.outcomes.get(1).getException().getCause());
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void testInvalidRequest() throws InterruptedException {
+        VerificationProcessor<Integer> processor = new VerificationProcessor<>(client, StubClient::formData, Set.of(),
+                executor, 2, true);
+        TestPublisher publisher = new TestPublisher(List.of(0, 0));
+        CollectingSubscriber subscriber = new CollectingSubscriber(0);
+
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        subscriber.subscription.request(-1);
+
+        assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+        assertTrue(publisher.cancelled);
+    }
+
+    static class StubClient implements MosparoClient {
+
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger concurrency = new AtomicInteger();
+        final AtomicInteger maxConcurrency = new AtomicInteger();
+
+        /**
+         * The item is the delay of the verification in milliseconds, {@code -1} fails with an exception and a lower item
+         * with an error.
+         */
+        static Map<String, Object> formData(Integer item) {
+            return Map.of("item", item);
+        }
+
+        @Override
+        public VerificationResult verifySubmission(Map<String, Object> formData, Set<String> requiredFields)
+                throws MosparoException {
+            calls.incrementAndGet();
+            maxConcurrency.accumulateAndGet(concurrency.incrementAndGet(), Math::max);
+            try {
+                int item = (Integer) formData.get("item");
+                if (item < -1) {
+                    throw new AssertionError("Verification failed");
+                } else if (item < 0) {
+                    throw new MosparoException("Verification failed");
+                }
+                Thread.sleep(item);
+                return new VerificationResult(true, null, Map.of(), List.of(), false, null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MosparoException(e);
+            } finally {
+                concurrency.decrementAndGet();
+            }
+        }
+
+        @Override
+        public VerificationResult verifySubmission(Map<String, Object> formData) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public StatisticResult statisticByDate(Integer range, LocalDate startDate) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public HealthCheckResult healthCheck() throws IOException, MosparoException {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Publishes a list of items on the requesting thread, within the demand.
+     */
+    static class TestPublisher implements Flow.Publisher<Integer> {
+
+        final List<Integer> items;
+        final AtomicLong requested = new AtomicLong();
+        volatile boolean cancelled;
+        private int next;
+        private long demand;
+        private boolean emitting;
+
+        TestPublisher(List<Integer> items) {
+            this.items = items;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super Integer> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested.addAndGet(n);
+                    synchronized (TestPublisher.this) {
+                        demand += n;
+                        if (emitting) {
+                            return;
+                        }
+                        emitting = true;
+                    }
+                    while (true) {
+                        Integer item;
+                        synchronized (TestPublisher.this) {
+                            if (cancelled || demand == 0 || next > items.size()) {
+                                emitting = false;
+                                return;
+                            }
+                            if (next == items.size()) {
+                                next++;
+                                item = null;
+                            } else {
+                                demand--;
+                                item = items.get(next++);
+                            }
+                        }
+                        if (item == null) {
+                            subscriber.onComplete();
+                        } else {
+                            subscriber.onNext(item);
+                        }
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+    }
+
+    static class CollectingSubscriber implements Flow.Subscriber<VerificationOutcome<Integer>> {
+
+        final long initialRequest;
+        final List<VerificationOutcome<Integer>> outcomes = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+
+        CollectingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        List<Integer> items() {
+            List<Integer> items = new ArrayList<>();
+            synchronized (outcomes) {
+                outcomes.forEach(outcome -> items.add(outcome.getItem()));
+            }
+            return items;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(VerificationOutcome<Integer> item) {
+            outcomes.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.mosparo.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import io.mosparo.client.VerificationTimings.Phase;
+
+class VerificationTimingsTest {
+
+    @Test
+    void testCompleteTimings() throws InterruptedException {
+        VerificationTimings timings = new VerificationTimings();
+        long sum = 0;
+        for (Phase phase : Phase.values()) {
+            Thread.sleep(1);
+            timings.mark(phase);
+            sum += timings.getNanos(phase);
+            assertTrue(timings.getNanos(phase) >= 1_000_000, phase.name());
+        }
+
+        assertTrue(timings.isComplete());
+        assertEquals(sum, timings.getTotalNanos());
+        assertTrue(timings.toString().startsWith("total="));
+        assertTrue(timings.toString().endsWith(" CHECK_SIGNATURE=" + timings.getNanos(Phase.CHECK_SIGNATURE) / 1000 + "us"));
+    }
+
+    @Test
+    void testFailedVerification() {
+        VerificationTimings timings = new VerificationTimings();
+        assertEquals(0, timings.getTotalNanos());
+        assertEquals("total=0us", timings.toString());
+
+        timings.mark(Phase.BUILD_REQUEST);
+        timings.mark(Phase.BUILD_HTTP_REQUEST);
+        timings.mark(Phase.EXECUTE);
+
+        assertFalse(timings.isComplete());
+        assertEquals(-1, timings.getNanos(Phase.ACQUIRE));
+        assertEquals(-1, timings.getNanos(Phase.PARSE));
+        // The phase after a skipped one starts at the end of the last phase reached
+        assertEquals(timings.getTotalNanos(), timings.getNanos(Phase.BUILD_REQUEST)
+                + timings.getNanos(Phase.BUILD_HTTP_REQUEST) + timings.getNanos(Phase.EXECUTE));
+        assertFalse(timings.toString().contains("ACQUIRE"));
+    }
+}
@@ -0,0 +1,101 @@
+package io.mosparo.client.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.HmacAlgorithms;
+import org.apache.commons.codec.digest.HmacUtils;
+import org.junit.jupiter.api.Test;
+
+import io.mosparo.client.RequestHelper;
+import io.mosparo.client.SigningKeys;
+
+/**
+ * Compares the hexadecimal encoding of the client with commons-codec, through the signing of the requests, only run with
+ * the {@code load-test} profile:
+ *
+ * <pre>
+ * mvn test -Pload-test -Dtest=HexCodecBenchmark -Dmosparo.benchmark.iterations=2000000
+ * </pre>
+ *
+ * It reports the mean time and the bytes allocated per operation after a warm-up, for the HMAC of a request and for its
+ * {@code Authorization} header, whose digits are written directly after the public key.
+ */
+class HexCodecBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("mosparo.benchmark.iterations", 500_000);
+
+    private static final String ENDPOINT = "/api/v1/verification/verify";
+    private static final String BODY = """
+            {"submitToken":"submitToken","validationSignature":"2a1ed8b6b9b8e0e3e4b5d1d16f3d8b7cb4f2a3c9","formSignature":\
+            "e1a5ef7a3c3b5f6d9b0f0e8f4d1c7a2b","formData":{"email":"c3a1","firstname":"a8cf","lastname":"0d4c"}}""";
+
+    @FunctionalInterface
+    private interface Operation {
+        Object run();
+    }
+
+    @Test
+    void testCompareEncoders() {
+        SigningKeys keys = new SigningKeys("publicKey", "privateKey");
+        HmacUtils hmac = new HmacUtils(HmacAlgorithms.HMAC_SHA_256, "privateKey");
+        SigningHelper helper = new SigningHelper();
+
+        Operation[] operations = {
+                () -> hmac.hmacHex(ENDPOINT + BODY),
+                () -> keys.hmacHex(ENDPOINT + BODY),
+                () -> Base64.encodeBase64String(String.format("%s:%s", "publicKey", hmac.hmacHex(ENDPOINT + BODY))
+                        .getBytes(StandardCharsets.UTF_8)),
+                () -> helper.authorization(ENDPOINT, BODY) };
+        String[] names = { "commons-codec hmacHex", "SigningKeys hmacHex", "commons-codec authorization",
+                "RequestHelper authorization" };
+
+        assertEquals(operations[0].run(), operations[1].run());
+        assertEquals(operations[2].run(), operations[3].run());
+
+        StringBuilder report = new StringBuilder(String.format("%-32s %10s %10s%n", "operation", "ns/op", "bytes/op"));
+        for (int run = 0; run < 2; run++) {
+            // The first run is the warm-up
+            for (int o = 0; o < operations.length; o++) {
+                double[] measure = measure(operations[o]);
+                if (run == 1) {
+                    report.append(String.format("%-32s %10.1f %10.1f%n", names[o], measure[0], measure[1]));
+                }
+            }
+        }
+        System.out.println(report);
+    }
+
+    private static double[] measure(Operation operation) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        int sink = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += operation.run().hashCode();
+        }
+        long nanos = System.nanoTime() - start;
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+        if (sink == 42) {
+            System.out.println();
+        }
+        return new double[] { (double) nanos / ITERATIONS, (double) allocated / ITERATIONS };
+    }
+
+    /**
+     * Exposes the {@code Authorization} header of the requests.
+     */
+    private static class SigningHelper extends RequestHelper {
+
+        SigningHelper() {
+            super("publicKey", "privateKey");
+        }
+
+        String authorization(String endpoint, String body) {
+            return generateAuthHeaderValue(endpoint, body);
+        }
+    }
+}
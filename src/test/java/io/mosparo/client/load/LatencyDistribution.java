@@ -0,0 +1,51 @@
+package io.mosparo.client.load;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The distribution of the response delays of a {@link MosparoStandInServer}.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    LatencyDistribution NONE = () -> 0;
+
+    /**
+     * @return the next delay, in nanoseconds
+     */
+    long nextNanos();
+
+    /**
+     * @param delay the delay of every response
+     * @return a constant delay
+     */
+    static LatencyDistribution fixed(Duration delay) {
+        long nanos = delay.toNanos();
+        return () -> nanos;
+    }
+
+    /**
+     * @param min the minimum delay, inclusive
+     * @param max the maximum delay, exclusive
+     * @return delays uniformly distributed between {@code min} and {@code max}
+     */
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long maxNanos = max.toNanos();
+        return () -> ThreadLocalRandom.current().nextLong(minNanos, maxNanos);
+    }
+
+    /**
+     * Log-normal delays, whose long tail looks like the latency of a remote service.
+     *
+     * @param median the median delay
+     * @param sigma the standard deviation of the logarithm of the delays, {@code 0.5} gives a p99 of about 3 times the
+     *        median
+     * @return log-normally distributed delays
+     */
+    static LatencyDistribution logNormal(Duration median, double sigma) {
+        double mu = Math.log(median.toNanos());
+        return () -> (long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian());
+    }
+}
@@ -0,0 +1,87 @@
+package io.mosparo.client.load;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Generates an open-loop load: the operations are started at a fixed rate, whether the previous ones completed or not,
+ * like independent users would do.
+ * <p>
+ * The latency of an operation is measured from the time it was scheduled to start, not from the time a thread was
+ * available to start it, so the queueing delays of an overloaded client are part of the reported latencies instead of
+ * being hidden by a slower request rate (coordinated omission).
+ */
+public class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_LATENCY = TimeUnit.MINUTES.toNanos(1);
+
+    private final int threads;
+
+    /**
+     * @param threads the number of threads running the operations
+     */
+    public LoadGenerator(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * An operation whose latency is measured. An exception counts as an error.
+     */
+    @FunctionalInterface
+    public interface Operation {
+
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs an operation at a fixed rate, then waits for all the started operations to complete.
+     *
+     * @param name the name of the operation in the report
+     * @param operation the operation
+     * @param ratePerSecond the number of operations started per second
+     * @param duration the duration of the load
+     * @return the report of the run
+     * @throws InterruptedException if interrupted while running
+     */
+    public LoadReport run(String name, Operation operation, int ratePerSecond, Duration duration)
+            throws InterruptedException {
+        Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_LATENCY, 3);
+        LongAdder errors = new LongAdder();
+        long interval = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long count = duration.toNanos() / interval;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            for (long i = 0; i < count; i++) {
+                long intendedStart = start + i * interval;
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                executor.execute(() -> {
+                    try {
+                        operation.run();
+                    } catch (Exception e) {
+                        errors.increment();
+                    }
+                    long latency = System.nanoTime() - intendedStart;
+                    latencies.recordValue(Math.min(latency, HIGHEST_TRACKABLE_LATENCY));
+                });
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        return new LoadReport(name, ratePerSecond, latencies, errors.sum(), elapsed);
+    }
+}
@@ -0,0 +1,64 @@
+package io.mosparo.client.load;
+
+import java.time.Duration;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * The throughput and latency percentiles of a {@link LoadGenerator} run.
+ */
+public class LoadReport {
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private final String name;
+    private final int targetRate;
+    private final Histogram latencies;
+    private final long errors;
+    private final Duration elapsed;
+
+    LoadReport(String name, int targetRate, Histogram latencies, long errors, Duration elapsed) {
+        this.name = name;
+        this.targetRate = targetRate;
+        this.latencies = latencies;
+        this.errors = errors;
+        this.elapsed = elapsed;
+    }
+
+    public long getOperations() {
+        return latencies.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return the number of completed operations per second
+     */
+    public double getThroughput() {
+        return getOperations() / (elapsed.toNanos() / 1e9);
+    }
+
+    /**
+     * @param percentile the percentile, from {@code 0} to {@code 100}
+     * @return the latency at the percentile, in milliseconds
+     */
+    public double getLatencyMillis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("%-16s target %d/s, throughput %.1f/s, %d operations, %d errors%n", name, targetRate,
+                getThroughput(), getOperations(), errors));
+        builder.append(String.format("%-16s latency", ""));
+        for (double percentile : PERCENTILES) {
+            builder.append(String.format(" p%s %.2fms", percentile == (int) percentile ? String.valueOf((int) percentile)
+                    : String.valueOf(percentile), getLatencyMillis(percentile)));
+        }
+        builder.append(String.format(" max %.2fms", latencies.getMaxValue() / 1e6));
+        return builder.toString();
+    }
+}
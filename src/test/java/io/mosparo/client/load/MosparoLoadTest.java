@@ -0,0 +1,96 @@
+package io.mosparo.client.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import io.mosparo.client.MosparoClient;
+import io.mosparo.client.MosparoDefaultClient;
+
+/**
+ * Load tests of the client against a {@link MosparoStandInServer}, only run with the {@code load-test} profile:
+ *
+ * <pre>
+ * mvn test -Pload-test -Dmosparo.load.rate=500 -Dmosparo.load.duration=30 -Dmosparo.load.latency=20
+ * </pre>
+ *
+ * The rate is in operations per second, the duration in seconds, and the latency is the median delay of the stand-in in
+ * milliseconds. {@code mosparo.load.errorRate} injects errors, {@code mosparo.load.warmUp} is the duration of the
+ * warm-up in seconds.
+ */
+class MosparoLoadTest {
+
+    private static final int RATE = Integer.getInteger("mosparo.load.rate", 200);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("mosparo.load.duration", 10));
+    private static final Duration LATENCY = Duration.ofMillis(Integer.getInteger("mosparo.load.latency", 5));
+    private static final double ERROR_RATE = Double.parseDouble(System.getProperty("mosparo.load.errorRate", "0"));
+    private static final Duration WARM_UP = Duration.ofSeconds(Integer.getInteger("mosparo.load.warmUp", 2));
+    private static final int THREADS = Integer.getInteger("mosparo.load.threads", 64);
+
+    private static MosparoStandInServer server;
+    private static CloseableHttpClient httpClient;
+    private static MosparoClient client;
+
+    private final LoadGenerator generator = new LoadGenerator(THREADS);
+
+    @BeforeAll
+    static void start() throws Exception {
+        server = new MosparoStandInServer("publicKey", "privateKey", LatencyDistribution.logNormal(LATENCY, 0.5),
+                ERROR_RATE, THREADS);
+        httpClient = HttpClientBuilder.create()
+                .setMaxConnTotal(THREADS)
+                .setMaxConnPerRoute(THREADS)
+                .build();
+        client = new MosparoDefaultClient(server.getUrl(), "publicKey", "privateKey", httpClient);
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        httpClient.close();
+        server.close();
+    }
+
+    @Test
+    void testVerifySubmission() throws Exception {
+        Map<String, Object> formData = Map.of(
+                "firstname", "John",
+                "lastname", "Example",
+                "email", "john@example.com",
+                "message", "Hello",
+                "_mosparo_submitToken", "submitToken",
+                "_mosparo_validationToken", "validationToken");
+        Set<String> requiredFields = Set.of("firstname", "lastname", "email");
+
+        run("verifySubmission", () -> client.verifySubmission(formData, requiredFields));
+    }
+
+    @Test
+    void testStatisticByDate() throws Exception {
+        run("statisticByDate", () -> client.statisticByDate(null, null));
+    }
+
+    @Test
+    void testHealthCheck() throws Exception {
+        run("healthCheck", client::healthCheck);
+    }
+
+    private void run(String name, LoadGenerator.Operation operation) throws InterruptedException {
+        // Warms up the JIT and the connection pool, the report of the warm-up is discarded
+        generator.run(name, operation, RATE, WARM_UP);
+        LoadReport report = generator.run(name, operation, RATE, DURATION);
+
+        System.out.println(report);
+        assertEquals(0, server.getRejectedRequests());
+        if (ERROR_RATE == 0) {
+            assertEquals(0, report.getErrors());
+        }
+    }
+}
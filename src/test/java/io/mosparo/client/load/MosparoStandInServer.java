@@ -0,0 +1,233 @@
+package io.mosparo.client.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.HmacAlgorithms;
+import org.apache.commons.codec.digest.HmacUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.mosparo.client.MosparoDefaultClient;
+
+/**
+ * A lightweight, in-process stand-in of a mosparo server, for load tests.
+ * <p>
+ * Unlike fixed stubs, it implements the signing protocol of mosparo: the {@code Authorization} header and the form
+ * signature are checked with the private key, and a valid verification returns the {@code verificationSignature} the
+ * client expects. The submit and validation tokens are not checked, as the stand-in never issued them.
+ * <p>
+ * Every response is delayed following a {@link LatencyDistribution}, and a ratio of the requests fail with an HTTP 500
+ * error.
+ */
+public class MosparoStandInServer implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int STATISTIC_DAYS = 14;
+
+    static {
+        // Without it, the response body waits for the delayed acknowledgement of the response headers
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final String publicKey;
+    // A Mac is not thread-safe
+    private final ThreadLocal<HmacUtils> hmacs;
+    private final LatencyDistribution latency;
+    private final double errorRate;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+
+    /**
+     * Starts a stand-in server on a free local port.
+     *
+     * @param publicKey the public key of the project
+     * @param privateKey the private key of the project
+     * @param latency the distribution of the response delays
+     * @param errorRate the ratio of the requests failing with an HTTP 500 error, from {@code 0} to {@code 1}
+     * @param threads the number of threads handling the requests
+     * @throws IOException if the server cannot be started
+     */
+    public MosparoStandInServer(String publicKey, String privateKey, LatencyDistribution latency, double errorRate,
+            int threads) throws IOException {
+        this.publicKey = publicKey;
+        this.hmacs = ThreadLocal.withInitial(() -> new HmacUtils(HmacAlgorithms.HMAC_SHA_256, privateKey));
+        this.latency = latency;
+        this.errorRate = errorRate;
+
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        this.executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext(MosparoDefaultClient.VERIFICATION_API_ENDPOINT, this::handleVerification);
+        server.createContext(MosparoDefaultClient.STATISTIC_BY_DATE_API_ENDPOINT, this::handleStatisticByDate);
+        server.createContext(MosparoDefaultClient.HEALTH_CHECK_API_ENDPOINT, this::handleHealthCheck);
+        server.start();
+    }
+
+    /**
+     * @return the URL of the server, to create the clients
+     */
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return the number of received requests
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * @return the number of requests rejected because of an invalid signature
+     */
+    public long getRejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    /**
+     * @return the number of requests which failed with an injected error
+     */
+    public long getInjectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    private void handleVerification(HttpExchange exchange) throws IOException {
+        HmacUtils hmac = hmacs.get();
+        String body = readBody(exchange);
+        if (!begin(exchange, MosparoDefaultClient.VERIFICATION_API_ENDPOINT, body)) {
+            return;
+        }
+
+        JsonNode request = MAPPER.readTree(body);
+        JsonNode formData = request.path("formData");
+        String validationSignature = request.path("validationSignature").asText();
+        String formSignature = request.path("formSignature").asText();
+        if (!formSignature.equals(hmac.hmacHex(MAPPER.writeValueAsString(formData)))) {
+            respond(exchange, 200, "{\"error\":true,\"errorMessage\":\"Form data signature invalid.\"}");
+            return;
+        }
+
+        ObjectNode result = MAPPER.createObjectNode();
+        result.put("valid", true);
+        result.put("verificationSignature", hmac.hmacHex(validationSignature + formSignature));
+        ObjectNode verifiedFields = result.putObject("verifiedFields");
+        for (Iterator<String> names = formData.fieldNames(); names.hasNext();) {
+            verifiedFields.put(names.next(), "valid");
+        }
+        result.putArray("issues");
+        respond(exchange, 200, MAPPER.writeValueAsString(result));
+    }
+
+    private void handleStatisticByDate(HttpExchange exchange) throws IOException {
+        readBody(exchange);
+        // GET requests are signed with an empty JSON object as body
+        if (!begin(exchange, MosparoDefaultClient.STATISTIC_BY_DATE_API_ENDPOINT, "{}")) {
+            return;
+        }
+
+        ObjectNode data = MAPPER.createObjectNode();
+        ObjectNode numbersByDate = MAPPER.createObjectNode();
+        LocalDate today = LocalDate.now();
+        for (int i = STATISTIC_DAYS - 1; i >= 0; i--) {
+            ObjectNode day = numbersByDate.putObject(today.minusDays(i).toString());
+            day.put("numberOfValidSubmissions", 10 + i);
+            day.put("numberOfSpamSubmissions", i);
+        }
+        data.put("numberOfValidSubmissions", STATISTIC_DAYS * 10 + STATISTIC_DAYS * (STATISTIC_DAYS - 1) / 2);
+        data.put("numberOfSpamSubmissions", STATISTIC_DAYS * (STATISTIC_DAYS - 1) / 2);
+        data.set("numbersByDate", numbersByDate);
+        respond(exchange, 200, MAPPER.writeValueAsString(Map.of("result", true, "data", data)));
+    }
+
+    private void handleHealthCheck(HttpExchange exchange) throws IOException {
+        readBody(exchange);
+        requests.increment();
+        if (!delayAndInjectError(exchange)) {
+            return;
+        }
+        respond(exchange, 200, "{\"service\":\"mosparo\",\"healthy\":true,\"databaseStatus\":\"connected\"}");
+    }
+
+    /**
+     * Counts the request, checks its signature, waits for the response delay and injects the errors.
+     *
+     * @return {@code true} if the request must be answered normally
+     */
+    private boolean begin(HttpExchange exchange, String apiEndpoint, String signedBody) throws IOException {
+        requests.increment();
+        HmacUtils hmac = hmacs.get();
+        String expected = Base64.encodeBase64String(
+                (publicKey + ":" + hmac.hmacHex(apiEndpoint + signedBody)).getBytes(StandardCharsets.UTF_8));
+        if (!expected.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+            rejectedRequests.increment();
+            respond(exchange, 401, "{\"error\":true,\"errorMessage\":\"Request not valid.\"}");
+            return false;
+        }
+        return delayAndInjectError(exchange);
+    }
+
+    private boolean delayAndInjectError(HttpExchange exchange) throws IOException {
+        long delay = latency.nextNanos();
+        if (delay > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            injectedErrors.increment();
+            respond(exchange, 500, "Internal Server Error");
+            return false;
+        }
+        return true;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        InputStream in = exchange.getRequestBody();
+        if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            in = new GZIPInputStream(in);
+        }
+        try (InputStream body = in) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int statusCode, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", statusCode == 500 ? "text/plain" : "application/json");
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
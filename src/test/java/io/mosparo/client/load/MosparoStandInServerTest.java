@@ -0,0 +1,84 @@
+package io.mosparo.client.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.mosparo.client.MosparoClient;
+import io.mosparo.client.MosparoDefaultClient;
+import io.mosparo.client.MosparoException;
+import io.mosparo.client.StatisticResult;
+import io.mosparo.client.VerificationResult;
+
+class MosparoStandInServerTest {
+
+    private static final Map<String, Object> FORM_DATA = Map.of(
+            "firstname", "John",
+            "lastname", "Example",
+            "_mosparo_submitToken", "submitToken",
+            "_mosparo_validationToken", "validationToken");
+
+    @Test
+    void testSigningProtocol() throws IOException, MosparoException {
+        try (MosparoStandInServer server = new MosparoStandInServer("publicKey", "privateKey", LatencyDistribution.NONE,
+                0, 2)) {
+            MosparoClient client = new MosparoDefaultClient(server.getUrl(), "publicKey", "privateKey");
+
+            // The client checks the verification signature returned by the stand-in
+            VerificationResult result = client.verifySubmission(FORM_DATA, Set.of("firstname", "lastname"));
+            assertTrue(result.isValid());
+
+            StatisticResult statistic = client.statisticByDate(null, null);
+            assertEquals(14, statistic.getData().getNumbersByDate().size());
+
+            assertTrue(client.healthCheck().isHealthy());
+            assertEquals(3, server.getRequests());
+            assertEquals(0, server.getRejectedRequests());
+        }
+    }
+
+    @Test
+    void testInvalidSignatureRejected() throws IOException {
+        try (MosparoStandInServer server = new MosparoStandInServer("publicKey", "privateKey", LatencyDistribution.NONE,
+                0, 2)) {
+            MosparoClient client = new MosparoDefaultClient(server.getUrl(), "publicKey", "otherKey");
+
+            assertThrows(MosparoException.class, () -> client.verifySubmission(FORM_DATA));
+            assertThrows(MosparoException.class, () -> client.statisticByDate(null, null));
+            assertEquals(2, server.getRejectedRequests());
+        }
+    }
+
+    @Test
+    void testErrorInjection() throws IOException {
+        try (MosparoStandInServer server = new MosparoStandInServer("publicKey", "privateKey", LatencyDistribution.NONE,
+                1, 2)) {
+            MosparoClient client = new MosparoDefaultClient(server.getUrl(), "publicKey", "privateKey");
+
+            MosparoException thrown = assertThrows(MosparoException.class, client::healthCheck);
+            assertEquals("Internal Server Error", thrown.getMessage());
+            assertEquals(1, server.getInjectedErrors());
+        }
+    }
+
+    @Test
+    void testLoadGenerator() throws Exception {
+        try (MosparoStandInServer server = new MosparoStandInServer("publicKey", "privateKey",
+                LatencyDistribution.fixed(Duration.ofMillis(2)), 0, 4)) {
+            MosparoClient client = new MosparoDefaultClient(server.getUrl(), "publicKey", "privateKey");
+
+            LoadReport report = new LoadGenerator(4).run("healthCheck", client::healthCheck, 100, Duration.ofMillis(300));
+
+            assertEquals(30, report.getOperations());
+            assertEquals(0, report.getErrors());
+            assertTrue(report.getLatencyMillis(50) >= 2);
+        }
+    }
+}
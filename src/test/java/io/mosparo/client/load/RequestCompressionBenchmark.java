@@ -0,0 +1,113 @@
+package io.mosparo.client.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import io.mosparo.client.MosparoClient;
+import io.mosparo.client.MosparoClientConfig;
+import io.mosparo.client.MosparoDefaultClient;
+import io.mosparo.client.RequestCompression;
+
+/**
+ * Compares the verification of forms of growing sizes with and without {@link RequestCompression}, against a
+ * {@link MosparoStandInServer}, only run with the {@code load-test} profile:
+ *
+ * <pre>
+ * mvn test -Pload-test -Dtest=RequestCompressionBenchmark -Dmosparo.benchmark.rate=200 -Dmosparo.benchmark.duration=10
+ * </pre>
+ *
+ * For each form size, it reports the request body sent on the wire and the latency percentiles of both clients. The
+ * stand-in runs on the loopback interface, where the bytes saved cost nothing to send: the latencies show the cost of
+ * the compression, the bytes on the wire its gain on a real network.
+ */
+class RequestCompressionBenchmark {
+
+    private static final int RATE = Integer.getInteger("mosparo.benchmark.rate", 200);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("mosparo.benchmark.duration", 5));
+    private static final Duration WARM_UP = Duration.ofSeconds(Integer.getInteger("mosparo.benchmark.warmUp", 2));
+    private static final int THREADS = Integer.getInteger("mosparo.benchmark.threads", 32);
+
+    // Below, around and well above the default threshold of the compression
+    private static final int[] FIELDS = { 10, 60, 250 };
+
+    private static MosparoStandInServer server;
+    private static CloseableHttpClient httpClient;
+
+    private final LoadGenerator generator = new LoadGenerator(THREADS);
+
+    @BeforeAll
+    static void start() throws Exception {
+        server = new MosparoStandInServer("publicKey", "privateKey", LatencyDistribution.fixed(Duration.ZERO), 0,
+                THREADS);
+        httpClient = HttpClientBuilder.create()
+                .setMaxConnTotal(THREADS)
+                .setMaxConnPerRoute(THREADS)
+                .build();
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        httpClient.close();
+        server.close();
+    }
+
+    @Test
+    void testCompareCompression() throws Exception {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-8s %-12s %12s %10s %10s %12s%n", "fields", "compression", "wire bytes", "p50 ms",
+                "p99 ms", "throughput"));
+        for (int fields : FIELDS) {
+            Map<String, Object> formData = formData(fields);
+            Set<String> requiredFields = Set.of("field0");
+
+            RequestCompression compression = new RequestCompression();
+            MosparoClient plain = new MosparoDefaultClient(server.getUrl(), "publicKey", "privateKey", httpClient);
+            MosparoClient compressing = new MosparoDefaultClient(server.getUrl(), "publicKey", "privateKey", httpClient,
+                    MosparoClientConfig.builder().requestCompression(compression).build());
+
+            LoadReport plainReport = run(() -> plain.verifySubmission(formData, requiredFields));
+            LoadReport compressedReport = run(() -> compressing.verifySubmission(formData, requiredFields));
+
+            long requests = compression.getCompressedRequests();
+            // The counters only see the compressed bodies, the bodies under the threshold are sent as is
+            String plainBytes = requests > 0 ? String.valueOf(compression.getUncompressedBytes() / requests) : "-";
+            String wireBytes = requests > 0 ? String.valueOf(compression.getCompressedBytes() / requests) : "-";
+            report.append(line(fields, "none", plainBytes, plainReport));
+            report.append(line(fields, "gzip", wireBytes, compressedReport));
+        }
+        System.out.print(report);
+        assertEquals(0, server.getRejectedRequests());
+    }
+
+    private LoadReport run(LoadGenerator.Operation operation) throws InterruptedException {
+        generator.run("warm-up", operation, RATE, WARM_UP);
+        LoadReport report = generator.run("verifySubmission", operation, RATE, DURATION);
+        assertEquals(0, report.getErrors());
+        return report;
+    }
+
+    private static String line(int fields, String compression, String wireBytes, LoadReport report) {
+        return String.format("%-8d %-12s %12s %10.2f %10.2f %10.1f/s%n", fields, compression, wireBytes,
+                report.getLatencyMillis(50), report.getLatencyMillis(99), report.getThroughput());
+    }
+
+    private static Map<String, Object> formData(int fields) {
+        Map<String, Object> formData = new TreeMap<>();
+        for (int i = 0; i < fields; i++) {
+            formData.put("field" + i, "Value of the field number " + i);
+        }
+        formData.put("_mosparo_submitToken", "submitToken");
+        formData.put("_mosparo_validationToken", "validationToken");
+        return formData;
+    }
+}
@@ -0,0 +1,145 @@
+package io.mosparo.client.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.mosparo.client.HealthCheckResult;
+import io.mosparo.client.ResponseCodec;
+import io.mosparo.client.StatisticResult;
+import io.mosparo.client.StreamingResponseCodec;
+import io.mosparo.client.VerificationResult;
+
+/**
+ * Compares the {@link StreamingResponseCodec} with the Jackson data binding of the client, only run with the
+ * {@code load-test} profile:
+ *
+ * <pre>
+ * mvn test -Pload-test -Dtest=ResponseCodecBenchmark -Dmosparo.benchmark.iterations=200000
+ * </pre>
+ *
+ * For each response type, it reports the classes loaded by the first decoding, then the mean decoding time and the
+ * bytes allocated per response after a warm-up. The class loading is only meaningful in a fresh JVM, when the
+ * benchmark runs alone.
+ */
+class ResponseCodecBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("mosparo.benchmark.iterations", 100_000);
+
+    private static final byte[] VERIFICATION_RESULT = """
+            {
+              "valid": true,
+              "verificationSignature": "ec196315e575f7f5b250f4e95d88cd45442b17ef4ff36141ed090d2814e3d8a3",
+              "verifiedFields": {
+                "firstname": "valid",
+                "lastname": "valid",
+                "email": "valid",
+                "message": "valid",
+                "newsletter": "not-verified"
+              },
+              "issues": []
+            }""".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] HEALTH_CHECK_RESULT = """
+            {"service": "mosparo", "healthy": true, "databaseStatus": "connected", "error": null}"""
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] STATISTIC_RESULT = statisticResult(14);
+
+    @Test
+    void testCompareCodecs() throws Exception {
+        ResponseCodec streaming = new StreamingResponseCodec();
+        ObjectMapper mapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+        Decoder jackson = (json, type) -> mapper.readValue(new ByteArrayInputStream(json), type);
+        Decoder fast = (json, type) -> streaming.decode(new ByteArrayInputStream(json), type);
+
+        List<Sample> samples = List.of(
+                new Sample(VerificationResult.class, VERIFICATION_RESULT),
+                new Sample(StatisticResult.class, STATISTIC_RESULT),
+                new Sample(HealthCheckResult.class, HEALTH_CHECK_RESULT));
+
+        // The streaming codec first, so the classes of the data binding are not loaded yet
+        StringBuilder report = new StringBuilder("Class loading on first decoding\n");
+        report.append(String.format("  streaming: %d classes%n", loadedClasses(fast, samples)));
+        report.append(String.format("  jackson:   %d classes%n", loadedClasses(jackson, samples)));
+
+        report.append(String.format("%-20s %-10s %12s %14s%n", "response", "codec", "ns/op", "bytes/op"));
+        for (Sample sample : samples) {
+            assertEquals(jackson.decode(sample.json, sample.type), fast.decode(sample.json, sample.type));
+            for (Decoder decoder : List.of(jackson, fast, jackson, fast)) {
+                // Warm-up
+                measure(decoder, sample);
+            }
+            report.append(line(sample, "jackson", measure(jackson, sample)));
+            report.append(line(sample, "streaming", measure(fast, sample)));
+        }
+        System.out.println(report);
+    }
+
+    private static long loadedClasses(Decoder decoder, List<Sample> samples) throws Exception {
+        ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        long before = classLoading.getTotalLoadedClassCount();
+        for (Sample sample : samples) {
+            decoder.decode(sample.json, sample.type);
+        }
+        return classLoading.getTotalLoadedClassCount() - before;
+    }
+
+    private static double[] measure(Decoder decoder, Sample sample) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        Object sink = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = decoder.decode(sample.json, sample.type);
+        }
+        long nanos = System.nanoTime() - start;
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+        if (sink == null) {
+            throw new IllegalStateException();
+        }
+        return new double[] { (double) nanos / ITERATIONS, (double) allocated / ITERATIONS };
+    }
+
+    private static String line(Sample sample, String codec, double[] measure) {
+        return String.format("%-20s %-10s %12.0f %14.0f%n", sample.type.getSimpleName(), codec, measure[0], measure[1]);
+    }
+
+    private static byte[] statisticResult(int days) {
+        StringBuilder json = new StringBuilder("{\"result\":true,\"data\":{\"numberOfValidSubmissions\":")
+                .append(days * 10).append(",\"numberOfSpamSubmissions\":").append(days).append(",\"numbersByDate\":{");
+        LocalDate today = LocalDate.of(2024, 3, 10);
+        for (int i = days - 1; i >= 0; i--) {
+            json.append('"').append(today.minusDays(i)).append("\":{\"numberOfValidSubmissions\":10,")
+                    .append("\"numberOfSpamSubmissions\":1}").append(i > 0 ? "," : "");
+        }
+        return json.append("}}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface Decoder {
+        Object decode(byte[] json, Class<?> type) throws Exception;
+    }
+
+    private static class Sample {
+
+        final Class<?> type;
+        final byte[] json;
+
+        Sample(Class<?> type, byte[] json) {
+            this.type = type;
+            this.json = json;
+        }
+    }
+}